@@ -1,50 +1,201 @@
 package lib;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
+/**
+ * An undo/redo history of states with a bounded depth.
+ *
+ * States are kept in a ring buffer holding at most maxDepth entries. Once it
+ * is full, each push evicts the oldest state in O(1), so memory stays flat no
+ * matter how many edits are made. Pushing after an undo discards the redo
+ * branch in O(1) by moving the end of the history back to the current state.
+ *
+ * With a DeltaCodec, only every keyframeInterval-th state is stored in full
+ * and the states in between are stored as deltas from their predecessor.
+ * Large states that differ only slightly then share most of their storage.
+ */
 public class ArrayStackList<T> {
-    private int idx;
-    private ArrayList<T> data;
+    private static final int DEFAULT_DEPTH = 1024;
+
+    private final Object[] entries; // Ring buffer of states (or deltas), oldest at start
+    private final int[] chain; // Deltas between an entry and its keyframe, null without a codec
+    private final DeltaCodec<T, Object> codec;
+    private final int keyframeInterval;
+    private int start; // Slot of the oldest entry
+    private int count; // Number of entries in the history, including the redo branch
+    private int idx; // Position of the current state, -1 when empty
+    private T current; // The current state, kept decoded
 
     public ArrayStackList() {
-        data = new ArrayList<T>();
-        idx = -1;
+        this(DEFAULT_DEPTH);
+    }
+
+    /**
+     * @param maxDepth The largest number of states kept in the history.
+     */
+    public ArrayStackList(int maxDepth) {
+        this(maxDepth, null, 1);
+    }
+
+    /**
+     * @param maxDepth         The largest number of states kept in the history.
+     * @param codec            Encodes states as deltas from their predecessor.
+     * @param keyframeInterval Every this-many states one is stored in full, which
+     *                         bounds the number of deltas applied to rebuild a state.
+     */
+    @SuppressWarnings("unchecked")
+    public <D> ArrayStackList(int maxDepth, DeltaCodec<T, D> codec, int keyframeInterval) {
+        if (maxDepth <= 0) {
+            throw new IllegalArgumentException("Invalid depth: " + maxDepth);
+        }
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("Invalid keyframe interval: " + keyframeInterval);
+        }
+        this.entries = new Object[maxDepth];
+        this.chain = codec == null ? null : new int[maxDepth];
+        this.codec = (DeltaCodec<T, Object>) codec;
+        this.keyframeInterval = keyframeInterval;
+        this.idx = -1;
     }
 
+    /**
+     * Makes the element the current state. Any states that were undone are
+     * discarded, and the oldest state is evicted if the history is full.
+     */
     public void push(T element) {
-        this.idx++;
-        this.data.add(element);
+        this.count = this.idx + 1; // Drop the redo branch
+        if (this.count == this.entries.length) {
+            evictOldest();
+        }
+
+        int slot = slot(this.count);
+        if (this.codec != null && this.count > 0
+                && this.chain[slot(this.count - 1)] + 1 < this.keyframeInterval) {
+            this.entries[slot] = this.codec.diff(this.current, element);
+            this.chain[slot] = this.chain[slot(this.count - 1)] + 1;
+        } else {
+            this.entries[slot] = element;
+            if (this.chain != null) {
+                this.chain[slot] = 0; // Stored in full
+            }
+        }
+        this.count++;
+        this.idx = this.count - 1;
+        this.current = element;
     }
 
+    /**
+     * Steps back to the previous state.
+     *
+     * @return The previous state, or null if there is nothing to undo.
+     */
     public T undo() {
         if (this.idx > 0) {
             this.idx--;
-            return this.data.get(this.idx);
+            this.current = stateAt(this.idx);
+            return this.current;
         }
         return null;
     }
 
+    /**
+     * Steps forward to the state that was last undone.
+     *
+     * @return The next state, or null if there is nothing to redo.
+     */
+    @SuppressWarnings("unchecked")
     public T redo() {
-        if (this.idx < this.data.size() - 1) {
+        if (this.idx < this.count - 1) {
             this.idx++;
-            return this.data.get(this.idx);
+            int slot = slot(this.idx);
+            if (this.chain != null && this.chain[slot] != 0) {
+                this.current = this.codec.apply(this.current, this.entries[slot]); // One delta forward
+            } else {
+                this.current = (T) this.entries[slot];
+            }
+            return this.current;
         }
         return null;
     }
 
     public void reset() {
-        this.data = new ArrayList<T>();
+        Arrays.fill(this.entries, null);
+        this.start = 0;
+        this.count = 0;
         this.idx = -1;
+        this.current = null;
     }
 
     public T peek() {
-        if (this.idx > 0) {
-            return this.data.get(this.idx);
+        if (this.idx >= 0) {
+            return this.current;
         }
         return null;
     }
 
     public boolean isEmpty() {
+        return this.count == 0;
+    }
+
+    /**
+     * @return The number of states in the history, including undone ones.
+     */
+    public int size() {
+        return this.count;
+    }
+
+    public boolean canUndo() {
         return this.idx > 0;
     }
+
+    public boolean canRedo() {
+        return this.idx < this.count - 1;
+    }
+
+    /**
+     * Drops the oldest entry. With a codec, the entry after it is stored in
+     * full first, since its delta would otherwise refer to a missing state.
+     */
+    @SuppressWarnings("unchecked")
+    private void evictOldest() {
+        if (this.chain != null && this.count > 1) {
+            int next = slot(1);
+            if (this.chain[next] != 0) {
+                this.entries[next] = this.codec.apply((T) this.entries[this.start], this.entries[next]);
+                this.chain[next] = 0;
+            }
+        }
+        this.entries[this.start] = null;
+        this.start = slot(1);
+        this.count--;
+        this.idx--;
+    }
+
+    /**
+     * Rebuilds the state at a position by applying deltas forward from the
+     * nearest keyframe at or before it.
+     */
+    @SuppressWarnings("unchecked")
+    private T stateAt(int position) {
+        if (this.chain == null) {
+            return (T) this.entries[slot(position)];
+        }
+        int keyframe = position;
+        while (this.chain[slot(keyframe)] != 0) {
+            keyframe--;
+        }
+        T state = (T) this.entries[slot(keyframe)];
+        for (int i = keyframe + 1; i <= position; i++) {
+            state = this.codec.apply(state, this.entries[slot(i)]);
+        }
+        return state;
+    }
+
+    /**
+     * Maps a position in the history (0 is the oldest) to its ring buffer slot.
+     */
+    private int slot(int position) {
+        int slot = this.start + position;
+        return slot >= this.entries.length ? slot - this.entries.length : slot;
+    }
 }
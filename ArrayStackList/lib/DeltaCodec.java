@@ -0,0 +1,30 @@
+package lib;
+
+/**
+ * Encodes a state as the difference from the state before it, so an
+ * ArrayStackList can store most of its history as small deltas instead of
+ * full copies of large states.
+ *
+ * @param <T> The type of the states.
+ * @param <D> The type of the deltas.
+ */
+public interface DeltaCodec<T, D> {
+
+    /**
+     * Computes the delta that turns one state into the next.
+     *
+     * @param from The earlier state.
+     * @param to   The later state.
+     * @return A delta such that apply(from, delta) equals to.
+     */
+    D diff(T from, T to);
+
+    /**
+     * Rebuilds a state by applying a delta to the state before it.
+     *
+     * @param from  The earlier state.
+     * @param delta A delta produced by diff(from, to).
+     * @return The later state.
+     */
+    T apply(T from, D delta);
+}
@@ -42,5 +42,15 @@ public class Main {
             System.out.println("The stack is empty: " + stack.peek());
         }
 
+        // A bounded history keeps only the newest states, however many edits are made
+        ArrayStackList<Integer> history = new ArrayStackList<Integer>(100);
+        for (int i = 0; i < 2_000_000; i++) {
+            history.push(i);
+        }
+        System.out.println("History size after 2000000 edits: " + history.size());
+        history.undo();
+        history.push(-1); // Discards the redo branch
+        System.out.println("Can redo after pushing: " + history.canRedo());
+
     }
 }
@@ -0,0 +1,49 @@
+package src;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import lib.ArrayStackList;
+
+/**
+ * Push, undo and redo throughput of the ArrayStackList history.
+ *
+ * The history is filled to its maximum depth before the run, so every push
+ * also evicts the oldest state, which is the steady state of a long editing
+ * session. The undo/redo benchmark steps back and forward over the same state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayStackListBenchmark {
+
+    private static final Integer ELEMENT = 42; // Shared boxed value so boxing is not measured
+
+    @Param({ "16", "1024" })
+    public int depth;
+
+    private ArrayStackList<Integer> history;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        history = new ArrayStackList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            history.push(ELEMENT);
+        }
+    }
+
+    @Benchmark
+    public void push() {
+        history.push(ELEMENT);
+    }
+
+    @Benchmark
+    public Integer undoRedo() {
+        history.undo();
+        return history.redo();
+    }
+}
@@ -0,0 +1,133 @@
+package src;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import lib.models.*;
+
+/**
+ * Add/pop throughput of the dequeue implementations in the DeQueue module.
+ *
+ * Every single-threaded benchmark adds one element and pops one in the same
+ * operation, so the dequeue stays at its prefilled size for the whole run.
+ * The contended group runs two threads working the front against two working
+ * the back of the same dequeue; the prefill keeps it from ever running empty.
+ * InstrumentedDequeue is a Dequeue recording lock metrics, to measure their
+ * overhead against the plain one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DequeueBenchmark {
+
+    private static final Integer ELEMENT = 42; // Shared boxed value so boxing is not measured
+
+    @Param({ "Dequeue", "InstrumentedDequeue", "ArrayDequeue", "ConcurrentDequeue" })
+    public String impl;
+
+    @Param({ "1024" })
+    public int size;
+
+    private Target dequeue;
+
+    /**
+     * The operations the benchmarks need, so every dequeue can run through
+     * the same methods.
+     */
+    private interface Target {
+        void addFirst(Integer value);
+
+        void addLast(Integer value);
+
+        Integer popFirst();
+
+        Integer popLast();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dequeue = create(impl);
+        for (int i = 0; i < size; i++) {
+            dequeue.addLast(ELEMENT);
+        }
+    }
+
+    private static Target create(String impl) {
+        switch (impl) {
+            case "Dequeue":
+            case "InstrumentedDequeue": {
+                Dequeue<Integer> d = new Dequeue<>(Integer.MAX_VALUE, impl.startsWith("Instrumented"));
+                return new Target() {
+                    public void addFirst(Integer value) { d.addFirst(value); }
+                    public void addLast(Integer value) { d.addLast(value); }
+                    public Integer popFirst() { return d.popFirst(); }
+                    public Integer popLast() { return d.popLast(); }
+                };
+            }
+            case "ArrayDequeue": {
+                ArrayDequeue<Integer> d = new ArrayDequeue<>();
+                return new Target() {
+                    public void addFirst(Integer value) { d.addFirst(value); }
+                    public void addLast(Integer value) { d.addLast(value); }
+                    public Integer popFirst() { return d.popFirst(); }
+                    public Integer popLast() { return d.popLast(); }
+                };
+            }
+            case "ConcurrentDequeue": {
+                ConcurrentDequeue<Integer> d = new ConcurrentDequeue<>();
+                return new Target() {
+                    public void addFirst(Integer value) { d.addFirst(value); }
+                    public void addLast(Integer value) { d.addLast(value); }
+                    public Integer popFirst() { return d.popFirst(); }
+                    public Integer popLast() { return d.popLast(); }
+                };
+            }
+            default:
+                throw new IllegalArgumentException("Unknown dequeue: " + impl);
+        }
+    }
+
+    @Benchmark
+    public Integer addFirstPopFirst() {
+        dequeue.addFirst(ELEMENT);
+        return dequeue.popFirst();
+    }
+
+    @Benchmark
+    public Integer addLastPopLast() {
+        dequeue.addLast(ELEMENT);
+        return dequeue.popLast();
+    }
+
+    @Benchmark
+    public Integer addLastPopFirst() {
+        dequeue.addLast(ELEMENT);
+        return dequeue.popFirst();
+    }
+
+    @Benchmark
+    public Integer addFirstPopLast() {
+        dequeue.addFirst(ELEMENT);
+        return dequeue.popLast();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(2)
+    public Integer front() {
+        dequeue.addFirst(ELEMENT);
+        return dequeue.popFirst();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(2)
+    public Integer back() {
+        dequeue.addLast(ELEMENT);
+        return dequeue.popLast();
+    }
+}
@@ -0,0 +1,78 @@
+package src;
+
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import lib.SinglyLinkedList;
+
+/**
+ * Sort, reverse and palindrome-check times of SinglyLinkedList across sizes.
+ *
+ * The sort benchmarks overwrite the list with the same shuffled values before
+ * every call, so each call sorts unsorted input. The list used by isPalindrome
+ * is a palindrome, which makes the check walk the whole list.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SinglyLinkedListBenchmark {
+
+    @Param({ "100", "10000", "1000000" })
+    public int size;
+
+    private Integer[] shuffled; // Values the sort benchmarks start from
+    private SinglyLinkedList list;
+    private SinglyLinkedList palindrome;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        shuffled = new Integer[size];
+        list = new SinglyLinkedList();
+        palindrome = new SinglyLinkedList();
+        for (int i = 0; i < size; i++) {
+            shuffled[i] = random.nextInt();
+            list.add(shuffled[i]);
+            palindrome.add(Math.min(i, size - 1 - i));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Unsorted {
+        @Setup(Level.Invocation)
+        public void reset(SinglyLinkedListBenchmark b) {
+            ListIterator<Integer> it = b.list.listIterator();
+            for (Integer value : b.shuffled) {
+                it.next();
+                it.set(value);
+            }
+        }
+    }
+
+    @Benchmark
+    public SinglyLinkedList sort(Unsorted unsorted) {
+        return list.sort();
+    }
+
+    @Benchmark
+    public SinglyLinkedList parallelSort(Unsorted unsorted) {
+        return list.parallelSort();
+    }
+
+    @Benchmark
+    public SinglyLinkedList reverse() {
+        list.reverse();
+        return list;
+    }
+
+    @Benchmark
+    public boolean isPalindrome() {
+        return palindrome.isPalindrome();
+    }
+}
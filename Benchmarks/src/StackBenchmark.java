@@ -0,0 +1,86 @@
+package src;
+
+import java.util.EmptyStackException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import lib.BlockingLinkedStack;
+import lib.LinkedStack;
+import lib.LockFreeStack;
+import lib.Stack;
+
+/**
+ * Push/pop throughput of the stack implementations in the Stack module,
+ * alone and with several threads sharing one stack.
+ *
+ * Each operation pushes an element and pops one, so the stack stays at its
+ * prefilled size. Under contention another thread may take the element first,
+ * which shows up as an EmptyStackException and is ignored.
+ * InstrumentedLinkedStack records lock metrics, to measure their overhead.
+ * BlockingLinkedStack uses a ReentrantLock instead of the monitor, to compare
+ * the two locks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackBenchmark {
+
+    private static final Integer ELEMENT = 42; // Shared boxed value so boxing is not measured
+
+    @Param({ "LinkedStack", "InstrumentedLinkedStack", "BlockingLinkedStack", "LockFreeStack" })
+    public String impl;
+
+    private Stack<Integer> stack;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (impl) {
+            case "LinkedStack":
+                stack = new LinkedStack<>();
+                break;
+            case "InstrumentedLinkedStack":
+                stack = new LinkedStack<>(true);
+                break;
+            case "BlockingLinkedStack":
+                stack = new BlockingLinkedStack<>();
+                break;
+            case "LockFreeStack":
+                stack = new LockFreeStack<>();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown stack: " + impl);
+        }
+        stack.push(ELEMENT);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer pushPop() {
+        return pushThenPop();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer pushPopContended4() {
+        return pushThenPop();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Integer pushPopContended16() {
+        return pushThenPop();
+    }
+
+    private Integer pushThenPop() {
+        stack.push(ELEMENT);
+        try {
+            return stack.pop();
+        } catch (EmptyStackException e) {
+            return null; // Another thread took our element first; keep going
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package src;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import lib.scheduler.*;
+
+/**
+ * WorkStealingPool from the DeQueue module against the JDK's ForkJoinPool on
+ * the same recursive divide-and-conquer workload.
+ *
+ * Each invocation sums an array by splitting it in halves down to a
+ * threshold, forking the left half and computing the right one. A threshold
+ * of 64 elements yields many tiny tasks and measures the scheduling cost; one
+ * of 8192 yields fewer, larger tasks and measures how well the load spreads.
+ * Both pools use one worker per available processor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkStealingPoolBenchmark {
+
+    private static final int LENGTH = 1 << 22; // Elements summed per invocation
+
+    @Param({ "WorkStealingPool", "ForkJoinPool" })
+    public String impl;
+
+    @Param({ "64", "8192" })
+    public int threshold;
+
+    private long[] values;
+    private WorkStealingPool workStealingPool;
+    private ForkJoinPool forkJoinPool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = new long[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            values[i] = i;
+        }
+        if (impl.equals("WorkStealingPool")) {
+            workStealingPool = new WorkStealingPool();
+        } else {
+            forkJoinPool = new ForkJoinPool();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (workStealingPool != null) {
+            workStealingPool.close();
+        }
+        if (forkJoinPool != null) {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public long sum() {
+        if (workStealingPool != null) {
+            return workStealingPool.invoke(new PoolSum(values, 0, LENGTH, threshold));
+        }
+        return forkJoinPool.invoke(new ForkJoinSum(values, 0, LENGTH, threshold));
+    }
+
+    /**
+     * Sums values[from, to) on a WorkStealingPool.
+     */
+    private static final class PoolSum extends PoolTask<Long> {
+        private final long[] values;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        PoolSum(long[] values, int from, int to, int threshold) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= threshold) {
+                return sequentialSum(values, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            PoolSum left = new PoolSum(values, from, mid, threshold);
+            left.fork();
+            long right = new PoolSum(values, mid, to, threshold).compute();
+            return left.join() + right;
+        }
+    }
+
+    /**
+     * Sums values[from, to) on a ForkJoinPool, split the same way as PoolSum.
+     */
+    private static final class ForkJoinSum extends RecursiveTask<Long> {
+        private final long[] values;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        ForkJoinSum(long[] values, int from, int to, int threshold) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= threshold) {
+                return sequentialSum(values, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            ForkJoinSum left = new ForkJoinSum(values, from, mid, threshold);
+            left.fork();
+            long right = new ForkJoinSum(values, mid, to, threshold).compute();
+            return left.join() + right;
+        }
+    }
+
+    private static long sequentialSum(long[] values, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,232 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Implements a circularly linked list with a hand: a cursor that points at
+ * one node and moves around the circle.
+ *
+ * Every node links to its neighbours in both directions, and the last node
+ * links back to the first, so the list has no ends:
+ *
+ * [ hand -> 1 <-> 2 <-> 3 <-> 4 -> back to 1 ]
+ *
+ * insertAtHand() returns the new node as a handle. Passing the handle to
+ * unlink() removes the node in O(1), with no scan for its element. Moving the
+ * hand is O(1) as well, which makes the list a natural base for the CLOCK
+ * page-replacement algorithm (see ClockCache).
+ *
+ * This class is not thread-safe.
+ *
+ * @param <E> the type of elements held in this list.
+ */
+public class CircularlyLinkedList<E> implements Iterable<E> {
+
+    /**
+     * A node of the list, handed out by insertAtHand() so it can later be
+     * unlinked in O(1).
+     *
+     * @param <E> the type of the element held in this node.
+     */
+    public static final class Node<E> {
+        private final E element; // The element this node holds
+        private Node<E> prev; // Previous node in the circle
+        private Node<E> next; // Next node in the circle
+        private CircularlyLinkedList<E> list; // The list the node belongs to, null once unlinked
+
+        private Node(E element, CircularlyLinkedList<E> list) {
+            this.element = element;
+            this.list = list;
+        }
+
+        /**
+         * Returns the element held in this node.
+         *
+         * @return the element.
+         */
+        public E element() {
+            return element;
+        }
+
+        /**
+         * Checks whether the node is still part of a list.
+         *
+         * @return true until the node is unlinked.
+         */
+        public boolean isLinked() {
+            return list != null;
+        }
+    }
+
+    private Node<E> hand; // Current position of the hand, null when the list is empty
+    private int size; // Number of elements in the list
+    private int modCount; // Structural changes, so iterators can fail fast
+
+    /**
+     * Constructs an empty list.
+     */
+    public CircularlyLinkedList() {
+    }
+
+    /**
+     * Inserts an element just behind the hand, so it is the last node the
+     * hand reaches on its way around the circle. If the list is empty, the
+     * hand points at the new node.
+     *
+     * @param element the element to insert.
+     * @return the node holding the element, to be passed to unlink().
+     */
+    public Node<E> insertAtHand(E element) {
+        Node<E> n = new Node<>(element, this);
+        if (hand == null) {
+            n.prev = n;
+            n.next = n;
+            hand = n;
+        } else {
+            n.prev = hand.prev;
+            n.next = hand;
+            hand.prev.next = n;
+            hand.prev = n;
+        }
+        size++;
+        modCount++;
+        return n;
+    }
+
+    /**
+     * Removes a node from the list in O(1). If the hand points at the node,
+     * it moves on to the next one.
+     *
+     * @param n a node returned by insertAtHand() on this list.
+     * @throws IllegalArgumentException if the node does not belong to this list.
+     */
+    public void unlink(Node<E> n) {
+        if (n.list != this) {
+            throw new IllegalArgumentException("Node is not part of this list");
+        }
+        if (n.next == n) {
+            hand = null; // Removed the only node
+        } else {
+            n.prev.next = n.next;
+            n.next.prev = n.prev;
+            if (hand == n) {
+                hand = n.next;
+            }
+        }
+        n.prev = null;
+        n.next = null;
+        n.list = null;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Returns the node the hand points at.
+     *
+     * @return the node under the hand.
+     * @throws NoSuchElementException if the list is empty.
+     */
+    public Node<E> hand() {
+        if (hand == null) {
+            throw new NoSuchElementException("List is empty");
+        }
+        return hand;
+    }
+
+    /**
+     * Moves the hand one node forward.
+     *
+     * @return the node the hand points at afterwards.
+     * @throws NoSuchElementException if the list is empty.
+     */
+    public Node<E> advance() {
+        if (hand == null) {
+            throw new NoSuchElementException("List is empty");
+        }
+        hand = hand.next;
+        return hand;
+    }
+
+    /**
+     * Returns the number of elements in the list.
+     *
+     * @return the number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the list contains no elements.
+     *
+     * @return true if the list is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every element from the list. Outstanding nodes become unlinked.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            Node<E> next = hand.next;
+            hand.prev = null;
+            hand.next = null;
+            hand.list = null;
+            hand = next;
+        }
+        hand = null;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns an iterator that goes once around the circle, starting at the
+     * hand.
+     *
+     * @return an iterator over the elements.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private Node<E> next = hand; // Next node to return
+            private int remaining = size; // Nodes left before the circle closes
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public E next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                E element = next.element;
+                next = next.next;
+                remaining--;
+                return element;
+            }
+        };
+    }
+
+    /**
+     * Prints the elements of the list in a human-readable format, starting at
+     * the hand.
+     */
+    public void print() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[ ");
+        for (E element : this) {
+            sb.append(element).append(" <-> ");
+        }
+        sb.append(size == 0 ? "empty" : "back to " + hand.element);
+        sb.append(" ]");
+        System.out.println(sb.toString());
+    }
+}
@@ -0,0 +1,187 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implements a bounded cache that evicts entries with the CLOCK algorithm.
+ *
+ * An LRU cache moves an entry to the front of its list on every hit, so
+ * every get is a write that must hold the cache lock. CLOCK approximates LRU
+ * without that:
+ *
+ * - Entries sit in a CircularlyLinkedList, and each carries a reference bit.
+ * - get() looks the entry up in a ConcurrentHashMap and sets its reference
+ *   bit. It takes no lock and moves nothing, and it skips the write entirely
+ *   when the bit is already set, so hot entries are read-only.
+ * - When the cache is full, put() sweeps the hand around the circle. Entries
+ *   with the bit set get a second chance: the bit is cleared and the hand
+ *   moves on. The first entry found with a clear bit is evicted.
+ *
+ * Only put() and remove() take the lock, so hit-heavy workloads scale with
+ * the number of readers.
+ *
+ * Null keys and values are not allowed.
+ *
+ * @param <K> the type of keys in this cache.
+ * @param <V> the type of values in this cache.
+ */
+public class ClockCache<K, V> {
+
+    /**
+     * A cached entry. The value and reference bit are volatile so lock-free
+     * readers see writes made under the lock.
+     */
+    private static final class Entry<K, V> {
+        private final K key;
+        private volatile V value;
+        private volatile boolean referenced; // Set on every hit, cleared by the passing hand
+        private CircularlyLinkedList.Node<Entry<K, V>> node; // Position in the circle, guarded by the lock
+
+        Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final int capacity; // Largest number of entries
+    private final ConcurrentHashMap<K, Entry<K, V>> map;
+    private final CircularlyLinkedList<Entry<K, V>> clock = new CircularlyLinkedList<>(); // Guarded by lock
+    private final ReentrantLock lock = new ReentrantLock(); // Guards the circle and evictions
+    private final LongAdder evictions = new LongAdder(); // Only written under the lock, by put()
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param capacity the largest number of entries the cache holds.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public ClockCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.map = new ConcurrentHashMap<>(capacity * 4 / 3 + 1);
+    }
+
+    /**
+     * Returns the value cached for the key and marks the entry as recently
+     * used. Never blocks, and writes nothing shared unless the entry's
+     * reference bit was clear; callers that want a hit ratio count the
+     * results themselves.
+     *
+     * @param key the key to look up.
+     * @return the cached value, or null on a miss.
+     */
+    public V get(K key) {
+        Entry<K, V> e = map.get(key);
+        if (e == null) {
+            return null;
+        }
+        if (!e.referenced) {
+            e.referenced = true; // Only write when the bit changes, so hot entries stay read-only
+        }
+        return e.value;
+    }
+
+    /**
+     * Caches the value for the key, replacing any previous value. If the
+     * cache is full, the hand sweeps the circle and evicts the first entry
+     * that has not been used since the hand last passed it.
+     *
+     * @param key   the key, not null.
+     * @param value the value, not null.
+     * @return the previous value, or null if the key was not cached.
+     * @throws NullPointerException if the key or value is null.
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException("Null keys and values are not allowed");
+        }
+        lock.lock();
+        try {
+            Entry<K, V> e = map.get(key);
+            if (e != null) {
+                V previous = e.value;
+                e.value = value;
+                e.referenced = true;
+                return previous;
+            }
+            if (clock.size() == capacity) {
+                evict();
+            }
+            e = new Entry<>(key, value);
+            e.node = clock.insertAtHand(e); // Behind the hand: the last entry it reaches
+            map.put(key, e);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the key from the cache.
+     *
+     * @param key the key to remove.
+     * @return the removed value, or null if the key was not cached.
+     */
+    public V remove(K key) {
+        lock.lock();
+        try {
+            Entry<K, V> e = map.remove(key);
+            if (e == null) {
+                return null;
+            }
+            clock.unlink(e.node);
+            return e.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Returns the largest number of entries the cache holds.
+     *
+     * @return the capacity.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of entries evicted to make room for new ones.
+     *
+     * @return the eviction count.
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Sweeps the hand until it finds an entry whose reference bit is clear,
+     * clearing the bits it passes, and evicts that entry. Without concurrent
+     * readers this ends within one full turn plus one step. Lock-free get()
+     * calls can set bits again behind the hand, so under heavy reads the
+     * sweep may go around more than once; it ends as soon as it reaches an
+     * entry that was not read since the hand last cleared it.
+     * Called with the lock held.
+     */
+    private void evict() {
+        CircularlyLinkedList.Node<Entry<K, V>> n = clock.hand();
+        while (n.element().referenced) {
+            n.element().referenced = false; // Second chance
+            n = clock.advance();
+        }
+        clock.unlink(n); // The hand moves on to the next entry
+        map.remove(n.element().key);
+        evictions.increment();
+    }
+}
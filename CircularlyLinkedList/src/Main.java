@@ -0,0 +1,156 @@
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Demonstrates CircularlyLinkedList, then compares ClockCache with a
+ * synchronized LinkedHashMap in access order (the usual LRU) on a hit-heavy
+ * workload at 1 to 16 threads.
+ *
+ * Every thread looks up keys drawn from a skewed distribution (most lookups
+ * go to a small hot set) and puts the key on a miss. The reported figures are
+ * the total throughput across all threads and the hit ratio.
+ */
+public class Main {
+
+    private static final int CAPACITY = 10_000; // Entries each cache may hold
+    private static final int KEYS = 100_000; // Distinct keys in the workload
+    private static final int OPS_PER_THREAD = 1_000_000;
+    private static final int WARMUP_ROUNDS = 2; // Untimed rounds to let the JIT settle
+    private static final int[] THREAD_COUNTS = { 1, 2, 4, 8, 16 };
+
+    /**
+     * The operations the benchmark needs, so both caches run through the same
+     * loop.
+     */
+    private interface Cache {
+        Object get(Integer key);
+
+        void put(Integer key, Object value);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        CircularlyLinkedList<Integer> list = new CircularlyLinkedList<>();
+        list.insertAtHand(1);
+        CircularlyLinkedList.Node<Integer> two = list.insertAtHand(2);
+        list.insertAtHand(3);
+        list.print(); // Output: [ 1 <-> 2 <-> 3 <-> back to 1 ]
+        list.advance();
+        list.unlink(two);
+        list.print(); // Output: [ 3 <-> 1 <-> back to 3 ]
+
+        int[] keys = skewedKeys(OPS_PER_THREAD);
+        System.out.printf("%n%-8s %18s %10s %18s %10s%n", "threads", "Clock (Mops/s)", "hits", "LRU (Mops/s)", "hits");
+        for (int threads : THREAD_COUNTS) {
+            double[] clock = measure(threads, keys, true);
+            double[] lru = measure(threads, keys, false);
+            System.out.printf("%-8d %18.2f %9.1f%% %18.2f %9.1f%%%n", threads, clock[0], clock[1], lru[0], lru[1]);
+        }
+    }
+
+    /**
+     * Runs the warmup rounds followed by one timed round against a fresh cache.
+     *
+     * @return the throughput in millions of operations per second, and the hit ratio in percent.
+     */
+    private static double[] measure(int threads, int[] keys, boolean clock) throws InterruptedException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(threads, keys, clock ? clockCache() : lruCache(), new LongAdder());
+        }
+        LongAdder hits = new LongAdder();
+        long nanos = run(threads, keys, clock ? clockCache() : lruCache(), hits);
+        long ops = (long) OPS_PER_THREAD * threads;
+        return new double[] { (double) ops / nanos * 1_000, 100.0 * hits.sum() / ops };
+    }
+
+    /**
+     * Starts all threads together and waits for them to finish. Each thread
+     * walks the key sequence from its own offset and counts its hits locally,
+     * so the count adds no shared writes to the timed loop.
+     *
+     * @param hits receives the number of get() calls that found a value.
+     * @return the wall-clock time of the round in nanoseconds.
+     */
+    private static long run(int threads, int[] keys, Cache cache, LongAdder hits) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        Object value = new Object(); // One shared value, so only the cache itself is measured
+
+        for (int t = 0; t < threads; t++) {
+            int offset = t * (keys.length / threads);
+            new Thread(() -> {
+                long found = 0;
+                try {
+                    start.await();
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        Integer key = keys[(offset + i) % keys.length];
+                        if (cache.get(key) == null) {
+                            cache.put(key, value);
+                        } else {
+                            found++;
+                        }
+                    }
+                    hits.add(found);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+
+    private static Cache clockCache() {
+        ClockCache<Integer, Object> cache = new ClockCache<>(CAPACITY);
+        return new Cache() {
+            public Object get(Integer key) {
+                return cache.get(key);
+            }
+
+            public void put(Integer key, Object value) {
+                cache.put(key, value);
+            }
+        };
+    }
+
+    private static Cache lruCache() {
+        Map<Integer, Object> map = Collections.synchronizedMap(new LinkedHashMap<Integer, Object>(CAPACITY * 4 / 3 + 1, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Object> eldest) {
+                return size() > CAPACITY;
+            }
+        });
+        return new Cache() {
+            public Object get(Integer key) {
+                return map.get(key);
+            }
+
+            public void put(Integer key, Object value) {
+                map.put(key, value);
+            }
+        };
+    }
+
+    /**
+     * Draws keys so that roughly 90% of lookups go to the hottest 5% of the
+     * key space, and the rest are spread over all keys.
+     */
+    private static int[] skewedKeys(int n) {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt(10) < 9 ? random.nextInt(KEYS / 20) : random.nextInt(KEYS);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,22 @@
+package lib.errors;
+
+// Dequeue/lib/errors/FullDequeException.java
+
+/**
+ * Custom exception class to handle cases when an element is added to a
+ * fixed-capacity Dequeue that is already full.
+ * This exception is thrown to signal that the Dequeue cannot grow and has no
+ * room for more elements.
+ */
+public class FullDequeException extends RuntimeException {
+
+    /**
+     * Constructor that takes a custom error message.
+     * 
+     * @param message The detail message about the exception.
+     */
+    public FullDequeException(String message) {
+        super(message); // Pass the message to the superclass (RuntimeException)
+    }
+    
+}
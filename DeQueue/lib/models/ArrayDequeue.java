@@ -0,0 +1,288 @@
+package lib.models;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import lib.errors.EmptyDequeException;
+import lib.errors.FullDequeException;
+import lib.errors.NullElementDequeException;
+
+// Dequeue/lib/models/ArrayDequeue.java
+
+/**
+ * The ArrayDequeue class implements a double-ended queue (Deque) on top of a
+ * circular array instead of linked nodes. It offers the same operations and
+ * exceptions as {@link Dequeue}, so the two can be used interchangeably.
+ *
+ * Elements live in a single array whose length is always a power of two. The
+ * head index moves backward on addFirst and forward on popFirst, wrapping
+ * around the ends of the array; because the length is a power of two, the wrap
+ * is a bitwise AND with (length - 1) instead of a modulo. Adding an element
+ * therefore stores one reference into an existing slot rather than allocating
+ * a Node, and traversals read neighbouring slots that share cache lines.
+ *
+ * By default the array doubles in size when it fills up, which keeps adds O(1)
+ * amortized. In fixed-capacity mode the array is allocated once by the
+ * constructor and never replaced; adding to a full dequeue throws a
+ * FullDequeException instead.
+ *
+ * Like Dequeue, all operations are guarded by a ReentrantLock.
+ *
+ * @param <E> The type of elements held in the ArrayDequeue
+ */
+public class ArrayDequeue<E> {
+    private static final int DEFAULT_CAPACITY = 16; // Initial slots when no capacity is given
+    private static final int MAX_CAPACITY = 1 << 30; // Largest power-of-two array length
+
+    private final ReentrantLock lock = new ReentrantLock(); // Thread lock for thread-safety
+    private final boolean fixedCapacity; // Whether the array may be replaced by a larger one
+    private Object[] elements; // Circular buffer, length is always a power of two
+    private int mask; // elements.length - 1, used to wrap indices
+    private int head; // Index of the first element
+    private int size; // The size of the dequeue (number of elements)
+
+    /**
+     * Default constructor that initializes an empty, growable dequeue.
+     */
+    public ArrayDequeue() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * Constructs an empty, growable dequeue sized for the given number of
+     * elements.
+     *
+     * @param initialCapacity The number of elements to reserve room for
+     */
+    public ArrayDequeue(int initialCapacity) {
+        this(initialCapacity, false);
+    }
+
+    /**
+     * Constructs an empty dequeue, optionally with a fixed capacity.
+     *
+     * The requested capacity is rounded up to the next power of two. When
+     * fixedCapacity is true the dequeue never allocates after this constructor
+     * returns.
+     *
+     * @param capacity      The number of elements to reserve room for
+     * @param fixedCapacity true to reject adds once full instead of growing
+     * @throws IllegalArgumentException if capacity is not positive or too large
+     */
+    public ArrayDequeue(int capacity, boolean fixedCapacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int length = Integer.highestOneBit(capacity); // Round up to a power of two
+        if (length < capacity) {
+            length <<= 1;
+        }
+        this.fixedCapacity = fixedCapacity;
+        this.elements = new Object[length];
+        this.mask = length - 1;
+        this.head = 0; // No elements in the dequeue
+        this.size = 0; // Size is 0 initially
+    }
+
+    /**
+     * Adds an element to the beginning (head) of the dequeue.
+     *
+     * @param a The element to be added to the dequeue
+     * @throws NullElementDequeException if the element is null
+     * @throws FullDequeException        if the dequeue has a fixed capacity and is full
+     */
+    public void addFirst(E a) {
+        lock.lock();
+        try {
+            if (a == null) {
+                throw new NullElementDequeException("Cannot add null type to the dequeue.");
+            }
+            ensureRoom();
+            head = (head - 1) & mask; // Step the head back, wrapping to the end of the array
+            elements[head] = a;
+            size++; // Increment the size of the dequeue
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds an element to the end (tail) of the dequeue.
+     *
+     * @param a The element to be added to the dequeue
+     * @throws NullElementDequeException if the element is null
+     * @throws FullDequeException        if the dequeue has a fixed capacity and is full
+     */
+    public void addLast(E a) {
+        lock.lock();
+        try {
+            if (a == null) {
+                throw new NullElementDequeException("Cannot add null type to the dequeue.");
+            }
+            ensureRoom();
+            elements[(head + size) & mask] = a; // The slot just past the current tail
+            size++; // Increment the size of the dequeue
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the first element from the dequeue.
+     *
+     * @return The removed element from the beginning of the dequeue
+     * @throws EmptyDequeException if the dequeue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E popFirst() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                throw new EmptyDequeException("Cannot remove from an empty dequeue.");
+            }
+            E value = (E) elements[head]; // Get the element in the head slot
+            elements[head] = null; // Clear the slot so the element can be collected
+            head = (head + 1) & mask; // Move the head forward, wrapping to the start
+            size--; // Decrement the size of the dequeue
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the last element from the dequeue.
+     *
+     * @return The removed element
+     * @throws EmptyDequeException if the dequeue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E popLast() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                throw new EmptyDequeException("Cannot remove from an empty dequeue.");
+            }
+            int tail = (head + size - 1) & mask; // Index of the last element
+            E value = (E) elements[tail]; // Get the element in the tail slot
+            elements[tail] = null; // Clear the slot so the element can be collected
+            size--; // Decrement the size of the dequeue
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if the dequeue is symmetrical (palindromic).
+     * A dequeue is symmetrical if it reads the same forward and backward.
+     *
+     * @return true if the dequeue is symmetrical, false otherwise
+     */
+    public boolean isSymmetrical() {
+        lock.lock();
+        try {
+            // Set up two offsets: one from the head, one from the tail
+            int left = 0;
+            int right = size - 1;
+
+            while (left < right) {
+                // Compare the elements from both ends
+                if (!elements[(head + left) & mask].equals(elements[(head + right) & mask])) {
+                    return false; // Elements do not match, not symmetrical
+                }
+                left++; // Move the left offset forward
+                right--; // Move the right offset backward
+            }
+            return true; // All elements matched, dequeue is symmetrical
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Prints all elements in the dequeue from front (head) to back (tail).
+     */
+    public void printDequeue() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                System.out.println("Dequeue is empty.");
+                return;
+            }
+
+            for (int i = 0; i < size; i++) {
+                System.out.print(elements[(head + i) & mask] + " "); // Print each element
+            }
+            System.out.println(); // Print a new line after all elements
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the current size of the dequeue.
+     *
+     * @return The number of elements in the dequeue
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return this.size; // Return the size of the dequeue
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if the dequeue is empty.
+     *
+     * @return true if the dequeue is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return size == 0; // Dequeue is empty if size is 0
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of elements the dequeue can hold before it has to grow
+     * (or, in fixed-capacity mode, before it rejects adds).
+     *
+     * @return The length of the backing array
+     */
+    public int capacity() {
+        lock.lock();
+        try {
+            return elements.length;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes sure there is a free slot for one more element. A growable dequeue
+     * doubles its array; a fixed-capacity dequeue rejects the add.
+     * Must be called while holding the lock.
+     */
+    private void ensureRoom() {
+        if (size < elements.length) {
+            return;
+        }
+        if (fixedCapacity || elements.length == MAX_CAPACITY) {
+            throw new FullDequeException("Cannot add to a full dequeue.");
+        }
+
+        // Copy the elements in order into the start of a twice-as-large array
+        Object[] grown = new Object[elements.length << 1];
+        int firstRun = elements.length - head; // Elements from head to the end of the array
+        System.arraycopy(elements, head, grown, 0, firstRun);
+        System.arraycopy(elements, 0, grown, firstRun, head); // Elements that wrapped around
+        elements = grown;
+        mask = grown.length - 1;
+        head = 0;
+    }
+
+}
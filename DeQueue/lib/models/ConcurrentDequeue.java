@@ -0,0 +1,167 @@
+package lib.models;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+import lib.errors.EmptyDequeException;
+import lib.errors.NullElementDequeException;
+
+// Dequeue/lib/models/ConcurrentDequeue.java
+
+/**
+ * The ConcurrentDequeue class is a lock-free variant of {@link Dequeue}. It
+ * exposes the same operations (addFirst, addLast, popFirst, popLast,
+ * isSymmetrical, printDequeue, size, isEmpty) and raises the same
+ * NullElementDequeException and EmptyDequeException, so it can be swapped in
+ * wherever many threads hammer a single dequeue.
+ *
+ * Instead of a ReentrantLock, the nodes are linked with compare-and-set (CAS)
+ * operations by a {@link ConcurrentLinkedDeque}, so a stalled thread never
+ * blocks the others. The element count is tracked separately in a
+ * {@link LongAdder}, which keeps size() and isEmpty() constant time and
+ * non-blocking (ConcurrentLinkedDeque itself would walk every node).
+ *
+ * Because threads never wait on each other, size() is only a snapshot: while
+ * other threads are adding or removing, the value may already be stale by the
+ * time it is returned. The same holds for isSymmetrical() and printDequeue(),
+ * which traverse a weakly consistent view of the dequeue.
+ *
+ * @param <E> The type of elements held in the ConcurrentDequeue
+ */
+public class ConcurrentDequeue<E> {
+    private final ConcurrentLinkedDeque<E> nodes; // CAS-linked nodes holding the elements
+    private final LongAdder count; // Striped element counter, read without blocking
+
+    /**
+     * Default constructor that initializes an empty dequeue.
+     */
+    public ConcurrentDequeue() {
+        this.nodes = new ConcurrentLinkedDeque<>(); // No elements in the dequeue
+        this.count = new LongAdder(); // Size is 0 initially
+    }
+
+    /**
+     * Adds an element to the beginning (head) of the dequeue.
+     *
+     * @param a The element to be added to the dequeue
+     * @throws NullElementDequeException if the element is null
+     */
+    public void addFirst(E a) {
+        if (a == null) {
+            throw new NullElementDequeException("Cannot add null type to the dequeue.");
+        }
+        nodes.addFirst(a); // Link the new node in front of the current head
+        count.increment(); // Increment the size of the dequeue
+    }
+
+    /**
+     * Adds an element to the end (tail) of the dequeue.
+     *
+     * @param a The element to be added to the dequeue
+     * @throws NullElementDequeException if the element is null
+     */
+    public void addLast(E a) {
+        if (a == null) {
+            throw new NullElementDequeException("Cannot add null type to the dequeue.");
+        }
+        nodes.addLast(a); // Link the new node behind the current tail
+        count.increment(); // Increment the size of the dequeue
+    }
+
+    /**
+     * Removes and returns the first element from the dequeue.
+     *
+     * @return The removed element from the beginning of the dequeue
+     * @throws EmptyDequeException if the dequeue is empty
+     */
+    public E popFirst() {
+        E value = nodes.pollFirst(); // Unlink the head node, or null if there is none
+        if (value == null) {
+            throw new EmptyDequeException("Cannot remove from an empty dequeue.");
+        }
+        count.decrement(); // Decrement the size of the dequeue
+        return value;
+    }
+
+    /**
+     * Removes and returns the last element from the dequeue.
+     *
+     * @return The removed element
+     * @throws EmptyDequeException if the dequeue is empty
+     */
+    public E popLast() {
+        E value = nodes.pollLast(); // Unlink the tail node, or null if there is none
+        if (value == null) {
+            throw new EmptyDequeException("Cannot remove from an empty dequeue.");
+        }
+        count.decrement(); // Decrement the size of the dequeue
+        return value;
+    }
+
+    /**
+     * Checks if the dequeue is symmetrical (palindromic).
+     * A dequeue is symmetrical if it reads the same forward and backward.
+     *
+     * The check walks the dequeue from both ends at once. If other threads
+     * modify the dequeue during the walk, the result reflects some mix of the
+     * states observed along the way.
+     *
+     * @return true if the dequeue is symmetrical, false otherwise
+     */
+    public boolean isSymmetrical() {
+        Iterator<E> left = nodes.iterator(); // Pointer moving from the head
+        Iterator<E> right = nodes.descendingIterator(); // Pointer moving from the tail
+        long remaining = count.sum() / 2; // Only half of the pairs need comparing
+
+        while (remaining-- > 0 && left.hasNext() && right.hasNext()) {
+            // Compare the data of the nodes from both ends
+            if (!left.next().equals(right.next())) {
+                return false; // Elements do not match, not symmetrical
+            }
+        }
+        return true; // All elements matched, dequeue is symmetrical
+    }
+
+    /**
+     * Prints all elements in the dequeue from front (head) to back (tail).
+     */
+    public void printDequeue() {
+        Iterator<E> current = nodes.iterator();
+        if (!current.hasNext()) {
+            System.out.println("Dequeue is empty.");
+            return;
+        }
+
+        while (current.hasNext()) {
+            System.out.print(current.next() + " "); // Print each element
+        }
+        System.out.println(); // Print a new line after all elements
+    }
+
+    /**
+     * Gets the current size of the dequeue without blocking.
+     *
+     * A pop may be counted a moment before the matching add is, so the raw
+     * counter can briefly dip below zero; it is clamped to the valid range.
+     *
+     * @return The number of elements in the dequeue
+     */
+    public int size() {
+        long sum = count.sum();
+        if (sum <= 0) {
+            return 0;
+        }
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+
+    /**
+     * Checks if the dequeue is empty without blocking.
+     *
+     * @return true if the dequeue is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return nodes.peekFirst() == null; // No live head node means no elements
+    }
+
+}
@@ -1,9 +1,22 @@
 package lib.models;
 
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import lib.errors.EmptyDequeException;
+import lib.errors.FullDequeException;
 import lib.errors.NullElementDequeException;
+import lib.metrics.LockMetrics;
 
 // Dequeue/lib/models/Dequeue.java
 
@@ -15,24 +28,96 @@ import lib.errors.NullElementDequeException;
  * This class is designed to be thread-safe in multi-threaded environments by
  * using a ReentrantLock to synchronize access to the internal data structure.
  * The lock ensures that only one thread can modify the Dequeue at a time.
+ * 
+ * A Dequeue may also be given a fixed capacity, turning it into a bounded
+ * blocking dequeue. The put and take methods wait on Conditions of the same
+ * lock until there is room or an element is available, so producers feel
+ * backpressure instead of growing the dequeue without limit, and consumers
+ * sleep instead of spinning on EmptyDequeException. Counters for the time
+ * spent waiting and the peak occupancy help choose a capacity from data.
+ * 
+ * An instrumented Dequeue additionally records LockMetrics: calls per
+ * operation, lock wait and hold times, queued threads and the high-water
+ * mark, published through JMX and JFR. Without instrumentation the only cost
+ * is a null check of a final field on each lock acquisition and release.
+ * 
+ * Iterators, spliterators and streams are weakly consistent: they take the
+ * lock only for a moment per element, or per batch of elements, so writers
+ * keep working during a long traversal. Every element present for the whole
+ * traversal is returned exactly once; elements added or removed during it may
+ * or may not be.
  *
  * @param <E>  The type of elements held in the Dequeue
  * @param head The head node represents the first element in the dequeue
  * @param tail The tail node represents the last element in the dequeue
  */
-public class Dequeue<E> {
+public class Dequeue<E> implements Iterable<E> {
+    private static final long NO_TIMEOUT = -1L; // Wait budget meaning "wait until signalled"
+
     private final ReentrantLock lock = new ReentrantLock(); // Thread lock for thread-safety
+    private final Condition notEmpty = lock.newCondition(); // Signalled when an element is added
+    private final Condition notFull = lock.newCondition(); // Signalled when an element is removed
+    private final int capacity; // The maximum number of elements the dequeue may hold
     private Node<E> head; // The head node of the dequeue, representing the first element
     private Node<E> tail; // The tail node of the dequeue, representing the last element
     private int size; // The size of the dequeue (number of elements)
+    private final LockMetrics<Operation> metrics; // Lock metrics, null unless instrumented
+
+    private int peakSize; // The largest size reached since the last statistics reset
+    private long producerWaits; // Number of times a producer had to wait for room
+    private long producerWaitNanos; // Total time producers spent waiting for room
+    private long consumerWaits; // Number of times a consumer had to wait for an element
+    private long consumerWaitNanos; // Total time consumers spent waiting for an element
 
     /**
-     * Default constructor that initializes an empty dequeue.
+     * Default constructor that initializes an empty, unbounded dequeue.
      */
     public Dequeue() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor that initializes an empty dequeue holding at most capacity
+     * elements. Adding to a full dequeue throws a FullDequeException, while
+     * the put and offer methods wait for room instead.
+     * 
+     * @param capacity The maximum number of elements in the dequeue
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public Dequeue(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * Constructor that initializes an empty dequeue holding at most capacity
+     * elements, optionally recording lock metrics.
+     * 
+     * @param capacity     The maximum number of elements in the dequeue
+     * @param instrumented Whether to record lock metrics, see metrics()
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public Dequeue(int capacity, boolean instrumented) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.capacity = capacity;
         this.head = null; // No elements in the dequeue
         this.tail = null; // No elements in the dequeue
         this.size = 0; // Size is 0 initially
+        this.metrics = instrumented ? new LockMetrics<>("Dequeue", Operation.class) : null;
+    }
+
+    /**
+     * The operations counted by the lock metrics of an instrumented Dequeue.
+     * Timed polls count as POLL_FIRST/POLL_LAST, pollFirst(E[]) as
+     * DRAIN_FIRST, size(), isEmpty() and remainingCapacity() as SIZE, and
+     * every lock taken by an iterator or spliterator as ITERATE.
+     */
+    public enum Operation {
+        ADD_FIRST, ADD_LAST, POP_FIRST, POP_LAST, POLL_FIRST, POLL_LAST,
+        PUT_FIRST, PUT_LAST, OFFER_FIRST, OFFER_LAST, TAKE_FIRST, TAKE_LAST,
+        ADD_ALL_FIRST, ADD_ALL_LAST, DRAIN_FIRST, DRAIN_LAST,
+        IS_SYMMETRICAL, PRINT, SIZE, ITERATE
     }
 
     /**
@@ -65,28 +150,63 @@ public class Dequeue<E> {
         }
     }
 
+    /**
+     * A run of nodes linked together outside the lock, ready to be spliced
+     * into the dequeue by addAllFirst/addAllLast.
+     */
+    private static class Chain<E> {
+        private Node<E> first; // First node of the run
+        private Node<E> last; // Last node of the run
+        private int count; // Number of nodes in the run
+    }
+
+    /**
+     * Links the elements of a collection into a chain of nodes, in iteration
+     * order. Runs without the lock since the chain is not yet reachable.
+     * 
+     * @param c The elements to link
+     * @return The linked chain, or null if the collection is empty
+     * @throws NullElementDequeException if the collection contains a null element
+     */
+    private static <E> Chain<E> link(Collection<? extends E> c) {
+        Chain<E> chain = null;
+        for (E a : c) {
+            if (a == null) {
+                throw new NullElementDequeException("Cannot add null type to the dequeue.");
+            }
+            Node<E> newNode = new Node<>(a);
+            if (chain == null) {
+                chain = new Chain<>();
+                chain.first = chain.last = newNode;
+            } else {
+                chain.last.next = newNode;
+                newNode.prev = chain.last;
+                chain.last = newNode;
+            }
+            chain.count++;
+        }
+        return chain;
+    }
+
     /**
      * Adds an element to the beginning (head) of the dequeue.
      * 
      * @param a The element to be added to the dequeue
+     * @throws NullElementDequeException if the element is null
+     * @throws FullDequeException        if the dequeue is at its capacity
      */
     public void addFirst(E a) {
-        lock.lock();
+        long acquired = acquire();
         try {
             if (a == null) {
                 throw new NullElementDequeException("Cannot add null type to the dequeue.");
             }
-            Node<E> newNode = new Node<>(a); // Create a new node with the provided data
-            if (head == null) {
-                head = tail = newNode;
-            } else {
-                newNode.next = head; // The new node points to the current head
-                head.prev = newNode;
-                head = newNode; // The head is now the new node
+            if (size >= capacity) {
+                throw new FullDequeException("Cannot add to a full dequeue.");
             }
-            size++; // Increment the size of the dequeue
+            linkFirst(new Node<>(a)); // Create a new node with the provided data
         } finally {
-            lock.unlock();
+            release(Operation.ADD_FIRST, acquired);
         }
     }
 
@@ -94,24 +214,21 @@ public class Dequeue<E> {
      * Adds an element to the end (tail) of the dequeue.
      * 
      * @param a The element to be added to the dequeue
+     * @throws NullElementDequeException if the element is null
+     * @throws FullDequeException        if the dequeue is at its capacity
      */
     public void addLast(E a) {
-        lock.lock();
+        long acquired = acquire();
         try {
             if (a == null) {
                 throw new NullElementDequeException("Cannot add null type to the dequeue.");
             }
-            Node<E> newNode = new Node<>(a); // Create a new node with the provided data
-            if (head == null) { // If the dequeue is empty
-                head = tail = newNode; // The new node becomes the head of the dequeue
-            } else {
-                tail.next = newNode; // The current tail's next points to the new node
-                newNode.prev = tail; // The new node's prev points to the current tail
-                tail = newNode; // The tail is now the new node
+            if (size >= capacity) {
+                throw new FullDequeException("Cannot add to a full dequeue.");
             }
-            size++; // Increment the size of the dequeue
+            linkLast(new Node<>(a)); // Create a new node with the provided data
         } finally {
-            lock.unlock();
+            release(Operation.ADD_LAST, acquired);
         }
     }
 
@@ -122,22 +239,14 @@ public class Dequeue<E> {
      * @throws EmptyDequeException if the dequeue is empty
      */
     public E popFirst() {
-        lock.lock();
+        long acquired = acquire();
         try {
             if (head == null) {
                 throw new EmptyDequeException("Cannot remove from an empty dequeue.");
             }
-            E value = head.data; // Get the data from the head node
-            if (head.next == null) {
-                head = tail = null; // If there is only one element, set head and tail to null
-            } else {
-                head = head.next; // Move the head to the next node
-                head.prev = null; // The new head's prev should be null
-            }
-            size--; // Decrement the size of the dequeue
-            return value;
+            return unlinkFirst();
         } finally {
-            lock.unlock();
+            release(Operation.POP_FIRST, acquired);
         }
     }
 
@@ -148,22 +257,646 @@ public class Dequeue<E> {
      * @throws EmptyDequeException if the dequeue is empty
      */
     public E popLast() {
-        lock.lock();
+        long acquired = acquire();
         try {
             if (head == null) {
                 throw new EmptyDequeException("Cannot remove from an empty dequeue.");
             }
-            E value = tail.data; // Get the data from the tail node
-            if (tail.prev == null) { // If there is only one element in the dequeue
-                head = tail = null; // Set head and tail to null
+            return unlinkLast();
+        } finally {
+            release(Operation.POP_LAST, acquired);
+        }
+    }
+
+    /**
+     * Removes and returns the first element from the dequeue, or returns null
+     * if the dequeue is empty. Unlike popFirst(), an empty dequeue does not
+     * cost an exception, which makes this the cheaper choice on hot paths.
+     * 
+     * @return The removed element, or null if the dequeue is empty
+     */
+    public E pollFirst() {
+        long acquired = acquire();
+        try {
+            return head == null ? null : unlinkFirst();
+        } finally {
+            release(Operation.POLL_FIRST, acquired);
+        }
+    }
+
+    /**
+     * Removes and returns the last element from the dequeue, or returns null
+     * if the dequeue is empty.
+     * 
+     * @return The removed element, or null if the dequeue is empty
+     */
+    public E pollLast() {
+        long acquired = acquire();
+        try {
+            return head == null ? null : unlinkLast();
+        } finally {
+            release(Operation.POLL_LAST, acquired);
+        }
+    }
+
+    /**
+     * Adds an element to the beginning (head) of the dequeue, waiting for room
+     * if the dequeue is at its capacity.
+     * 
+     * @param a The element to be added to the dequeue
+     * @throws NullElementDequeException if the element is null
+     * @throws InterruptedException      if interrupted while waiting
+     */
+    public void putFirst(E a) throws InterruptedException {
+        if (a == null) {
+            throw new NullElementDequeException("Cannot add null type to the dequeue.");
+        }
+        Node<E> newNode = new Node<>(a);
+        long acquired = acquireInterruptibly();
+        try {
+            awaitRoom(NO_TIMEOUT);
+            linkFirst(newNode);
+        } finally {
+            release(Operation.PUT_FIRST, acquired);
+        }
+    }
+
+    /**
+     * Adds an element to the end (tail) of the dequeue, waiting for room if
+     * the dequeue is at its capacity.
+     * 
+     * @param a The element to be added to the dequeue
+     * @throws NullElementDequeException if the element is null
+     * @throws InterruptedException      if interrupted while waiting
+     */
+    public void putLast(E a) throws InterruptedException {
+        if (a == null) {
+            throw new NullElementDequeException("Cannot add null type to the dequeue.");
+        }
+        Node<E> newNode = new Node<>(a);
+        long acquired = acquireInterruptibly();
+        try {
+            awaitRoom(NO_TIMEOUT);
+            linkLast(newNode);
+        } finally {
+            release(Operation.PUT_LAST, acquired);
+        }
+    }
+
+    /**
+     * Adds an element to the beginning (head) of the dequeue, waiting up to
+     * the given time for room if the dequeue is at its capacity.
+     * 
+     * @param a       The element to be added to the dequeue
+     * @param timeout How long to wait before giving up
+     * @param unit    The unit of the timeout
+     * @return true if the element was added, false if the time ran out
+     * @throws NullElementDequeException if the element is null
+     * @throws InterruptedException      if interrupted while waiting
+     */
+    public boolean offerFirst(E a, long timeout, TimeUnit unit) throws InterruptedException {
+        if (a == null) {
+            throw new NullElementDequeException("Cannot add null type to the dequeue.");
+        }
+        Node<E> newNode = new Node<>(a);
+        long acquired = acquireInterruptibly();
+        try {
+            if (!awaitRoom(Math.max(0L, unit.toNanos(timeout)))) {
+                return false; // Still full when the time ran out
+            }
+            linkFirst(newNode);
+            return true;
+        } finally {
+            release(Operation.OFFER_FIRST, acquired);
+        }
+    }
+
+    /**
+     * Adds an element to the end (tail) of the dequeue, waiting up to the
+     * given time for room if the dequeue is at its capacity.
+     * 
+     * @param a       The element to be added to the dequeue
+     * @param timeout How long to wait before giving up
+     * @param unit    The unit of the timeout
+     * @return true if the element was added, false if the time ran out
+     * @throws NullElementDequeException if the element is null
+     * @throws InterruptedException      if interrupted while waiting
+     */
+    public boolean offerLast(E a, long timeout, TimeUnit unit) throws InterruptedException {
+        if (a == null) {
+            throw new NullElementDequeException("Cannot add null type to the dequeue.");
+        }
+        Node<E> newNode = new Node<>(a);
+        long acquired = acquireInterruptibly();
+        try {
+            if (!awaitRoom(Math.max(0L, unit.toNanos(timeout)))) {
+                return false; // Still full when the time ran out
+            }
+            linkLast(newNode);
+            return true;
+        } finally {
+            release(Operation.OFFER_LAST, acquired);
+        }
+    }
+
+    /**
+     * Removes and returns the first element from the dequeue, waiting for one
+     * to be added if the dequeue is empty.
+     * 
+     * @return The removed element from the beginning of the dequeue
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public E takeFirst() throws InterruptedException {
+        long acquired = acquireInterruptibly();
+        try {
+            awaitElement(NO_TIMEOUT);
+            return unlinkFirst();
+        } finally {
+            release(Operation.TAKE_FIRST, acquired);
+        }
+    }
+
+    /**
+     * Removes and returns the last element from the dequeue, waiting for one
+     * to be added if the dequeue is empty.
+     * 
+     * @return The removed element from the end of the dequeue
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public E takeLast() throws InterruptedException {
+        long acquired = acquireInterruptibly();
+        try {
+            awaitElement(NO_TIMEOUT);
+            return unlinkLast();
+        } finally {
+            release(Operation.TAKE_LAST, acquired);
+        }
+    }
+
+    /**
+     * Removes and returns the first element from the dequeue, waiting up to
+     * the given time for one to be added if the dequeue is empty.
+     * 
+     * @param timeout How long to wait before giving up
+     * @param unit    The unit of the timeout
+     * @return The removed element, or null if the time ran out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public E pollFirst(long timeout, TimeUnit unit) throws InterruptedException {
+        long acquired = acquireInterruptibly();
+        try {
+            if (!awaitElement(Math.max(0L, unit.toNanos(timeout)))) {
+                return null; // Still empty when the time ran out
+            }
+            return unlinkFirst();
+        } finally {
+            release(Operation.POLL_FIRST, acquired);
+        }
+    }
+
+    /**
+     * Removes and returns the last element from the dequeue, waiting up to the
+     * given time for one to be added if the dequeue is empty.
+     * 
+     * @param timeout How long to wait before giving up
+     * @param unit    The unit of the timeout
+     * @return The removed element, or null if the time ran out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public E pollLast(long timeout, TimeUnit unit) throws InterruptedException {
+        long acquired = acquireInterruptibly();
+        try {
+            if (!awaitElement(Math.max(0L, unit.toNanos(timeout)))) {
+                return null; // Still empty when the time ran out
+            }
+            return unlinkLast();
+        } finally {
+            release(Operation.POLL_LAST, acquired);
+        }
+    }
+
+    /**
+     * Adds every element of the collection to the beginning (head) of the
+     * dequeue, keeping their iteration order: the first element of the
+     * collection becomes the new head.
+     * 
+     * The nodes are linked into a chain before the lock is taken, so the
+     * whole batch is spliced in with a single lock acquisition in O(1). If the
+     * collection contains a null element, or the batch does not fit in the
+     * remaining capacity, nothing is added.
+     * 
+     * @param c The elements to be added to the dequeue
+     * @throws NullElementDequeException if the collection contains a null element
+     * @throws FullDequeException        if the batch does not fit in the dequeue
+     */
+    public void addAllFirst(Collection<? extends E> c) {
+        Chain<E> chain = link(c);
+        if (chain == null) {
+            return; // Empty collection, nothing to splice
+        }
+        long acquired = acquire();
+        try {
+            if (chain.count > capacity - size) {
+                throw new FullDequeException("Cannot add to a full dequeue.");
+            }
+            if (head == null) {
+                head = chain.first;
+                tail = chain.last;
             } else {
-                tail = tail.prev; // Move the tail to the previous node
-                tail.next = null; // The new tail's next should be null
+                chain.last.next = head; // The chain's last node points to the current head
+                head.prev = chain.last;
+                head = chain.first; // The head is now the start of the chain
             }
-            size--; // Decrement the size of the dequeue
-            return value;
+            added(chain.count);
         } finally {
-            lock.unlock();
+            release(Operation.ADD_ALL_FIRST, acquired);
+        }
+    }
+
+    /**
+     * Adds every element of the collection to the end (tail) of the dequeue,
+     * keeping their iteration order.
+     * 
+     * The nodes are linked into a chain before the lock is taken, so the
+     * whole batch is spliced in with a single lock acquisition in O(1). If the
+     * collection contains a null element, or the batch does not fit in the
+     * remaining capacity, nothing is added.
+     * 
+     * @param c The elements to be added to the dequeue
+     * @throws NullElementDequeException if the collection contains a null element
+     * @throws FullDequeException        if the batch does not fit in the dequeue
+     */
+    public void addAllLast(Collection<? extends E> c) {
+        Chain<E> chain = link(c);
+        if (chain == null) {
+            return; // Empty collection, nothing to splice
+        }
+        long acquired = acquire();
+        try {
+            if (chain.count > capacity - size) {
+                throw new FullDequeException("Cannot add to a full dequeue.");
+            }
+            if (head == null) {
+                head = chain.first;
+                tail = chain.last;
+            } else {
+                tail.next = chain.first; // The current tail points to the chain's first node
+                chain.first.prev = tail;
+                tail = chain.last; // The tail is now the end of the chain
+            }
+            added(chain.count);
+        } finally {
+            release(Operation.ADD_ALL_LAST, acquired);
+        }
+    }
+
+    /**
+     * Removes up to max elements from the beginning (head) of the dequeue and
+     * adds them to the given collection, in head-to-tail order.
+     * 
+     * The lock is held only while the run of nodes is cut off the dequeue;
+     * the elements are handed to the collection after the lock is released.
+     * 
+     * @param c   The collection that receives the removed elements
+     * @param max The maximum number of elements to remove
+     * @return The number of elements removed, 0 if the dequeue is empty
+     */
+    public int drainFirst(Collection<? super E> c, int max) {
+        Node<E> first; // Start of the detached run
+        int count; // Number of nodes in the detached run
+        long acquired = acquire();
+        try {
+            if (head == null || max <= 0) {
+                return 0;
+            }
+            first = head;
+            Node<E> last = head;
+            count = 1;
+            while (count < max && last.next != null) {
+                last = last.next; // Walk to the last node that will be removed
+                count++;
+            }
+            head = last.next; // The rest of the dequeue starts after the run
+            if (head == null) {
+                tail = null;
+            } else {
+                head.prev = null;
+            }
+            last.next = last; // Cut the run off, marking it removed for iterators
+            removed(count);
+        } finally {
+            release(Operation.DRAIN_FIRST, acquired);
+        }
+
+        for (Node<E> current = first; ; current = current.next) {
+            c.add(current.data);
+            if (current.next == current) {
+                break; // Reached the last node of the run
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Removes up to max elements from the end (tail) of the dequeue and adds
+     * them to the given collection, in tail-to-head order (the order in which
+     * repeated popLast() calls would return them).
+     * 
+     * @param c   The collection that receives the removed elements
+     * @param max The maximum number of elements to remove
+     * @return The number of elements removed, 0 if the dequeue is empty
+     */
+    public int drainLast(Collection<? super E> c, int max) {
+        Node<E> last; // End of the detached run
+        int count; // Number of nodes in the detached run
+        long acquired = acquire();
+        try {
+            if (head == null || max <= 0) {
+                return 0;
+            }
+            last = tail;
+            Node<E> first = tail;
+            count = 1;
+            while (count < max && first.prev != null) {
+                first = first.prev; // Walk back to the first node that will be removed
+                count++;
+            }
+            tail = first.prev; // The rest of the dequeue ends before the run
+            if (tail == null) {
+                head = null;
+            } else {
+                tail.next = null;
+            }
+            first.prev = first; // Cut the run off, marking it removed for iterators
+            removed(count);
+        } finally {
+            release(Operation.DRAIN_LAST, acquired);
+        }
+
+        for (Node<E> current = last; ; current = current.prev) {
+            c.add(current.data);
+            if (current.prev == current) {
+                break; // Reached the first node of the run
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Removes elements from the beginning (head) of the dequeue into the given
+     * array, starting at index 0, until the array is full or the dequeue is
+     * empty. Slots past the returned count are left untouched.
+     * 
+     * @param into The array that receives the removed elements
+     * @return The number of elements removed
+     */
+    public int pollFirst(E[] into) {
+        long acquired = acquire();
+        try {
+            int count = 0;
+            while (count < into.length && head != null) {
+                Node<E> first = head;
+                into[count++] = first.data;
+                head = first.next;
+                first.next = first; // Mark the node removed for iterators
+            }
+            if (head == null) {
+                tail = null;
+            } else {
+                head.prev = null;
+            }
+            removed(count);
+            return count;
+        } finally {
+            release(Operation.DRAIN_FIRST, acquired);
+        }
+    }
+
+    /**
+     * Returns an iterator over the elements from head to tail. The iterator
+     * is weakly consistent and does not support remove().
+     * 
+     * @return An iterator from the first to the last element
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr(false);
+    }
+
+    /**
+     * Returns an iterator over the elements from tail to head. The iterator
+     * is weakly consistent and does not support remove().
+     * 
+     * @return An iterator from the last to the first element
+     */
+    public Iterator<E> descendingIterator() {
+        return new Itr(true);
+    }
+
+    /**
+     * Returns a weakly consistent spliterator over the elements from head to
+     * tail. Each split copies the next batch of elements into an array while
+     * holding the lock, so the split-off part is traversed without the lock.
+     * Batches double with every split, so a parallel stream reaches every
+     * core after a few splits even on a large dequeue.
+     * 
+     * @return A spliterator from the first to the last element
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new DequeueSpliterator();
+    }
+
+    /**
+     * Returns a sequential stream over the elements from head to tail.
+     * 
+     * @return A stream of the elements
+     */
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream over the elements from head to tail.
+     * 
+     * @return A possibly parallel stream of the elements
+     */
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Finds the node after p in the traversal direction. Must be called while
+     * holding the lock.
+     * 
+     * A node whose link in the traversal direction points to itself has been
+     * removed from that end, and so have all nodes before it, so the
+     * traversal resumes at the current end of the dequeue.
+     * 
+     * @param p          The current node, or null to start at the end
+     * @param descending Whether the traversal runs from tail to head
+     * @return The next node, or null at the end of the dequeue
+     */
+    private Node<E> successor(Node<E> p, boolean descending) {
+        if (p == null) {
+            return descending ? tail : head;
+        }
+        Node<E> s = descending ? p.prev : p.next;
+        if (s == p) {
+            return descending ? tail : head; // p was removed; restart at the live end
+        }
+        return s;
+    }
+
+    /**
+     * A weakly consistent iterator in either direction. It always holds the
+     * next node and its element, so hasNext() needs no lock and next() takes
+     * it once to step forward.
+     */
+    private class Itr implements Iterator<E> {
+        private final boolean descending; // Whether to run from tail to head
+        private Node<E> next; // Node of the element next() returns, null at the end
+        private E nextItem; // Element of next, read under the lock
+
+        Itr(boolean descending) {
+            this.descending = descending;
+            advance();
+        }
+
+        /**
+         * Moves next to its successor, or to the first node on the first call.
+         */
+        private void advance() {
+            long acquired = acquire();
+            try {
+                next = successor(next, descending);
+                nextItem = next == null ? null : next.data;
+            } finally {
+                release(Operation.ITERATE, acquired);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            E item = nextItem;
+            advance();
+            return item;
+        }
+    }
+
+    /**
+     * A weakly consistent spliterator from head to tail. Elements are copied
+     * out in batches under the lock and handed to the action after the lock
+     * is released, so a slow action never blocks writers.
+     */
+    private final class DequeueSpliterator implements Spliterator<E> {
+        private static final int FIRST_BATCH = 1 << 10; // Size of the first batch of trySplit()
+        private static final int MAX_BATCH = 1 << 25; // Largest batch handed out by trySplit()
+        private static final int ADVANCE_BATCH = 64; // Batch size of forEachRemaining()
+
+        private Node<E> current; // Last node copied out, null before the first batch
+        private int batch; // Size of the last split, doubles each time
+        private boolean exhausted; // Whether the end of the dequeue was reached
+        private long estimate; // Estimated number of elements left
+
+        DequeueSpliterator() {
+            this.estimate = size();
+        }
+
+        /**
+         * Copies the elements after current into the array until it is full
+         * or the end of the dequeue is reached, and advances current past
+         * them. Takes the lock for the duration of the copy.
+         * 
+         * @param a The array that receives the elements
+         * @return The number of elements copied
+         */
+        private int nextBatch(Object[] a) {
+            long acquired = acquire();
+            try {
+                int i = 0;
+                Node<E> p = current;
+                while (i < a.length) {
+                    Node<E> s = successor(p, false);
+                    if (s == null) {
+                        exhausted = true;
+                        break;
+                    }
+                    a[i++] = s.data;
+                    p = s;
+                }
+                current = p;
+                return i;
+            } finally {
+                release(Operation.ITERATE, acquired);
+            }
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            if (exhausted || estimate <= 1) {
+                return null;
+            }
+            int n = batch == 0 ? FIRST_BATCH : Math.min(batch * 2, MAX_BATCH);
+            Object[] a = new Object[(int) Math.min(n, estimate)];
+            int count = nextBatch(a);
+            if (count == 0) {
+                return null;
+            }
+            batch = count;
+            estimate = Math.max(0, estimate - count);
+            return Spliterators.spliterator(a, 0, count, Spliterator.ORDERED | Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            if (exhausted) {
+                return false;
+            }
+            Object[] a = new Object[1];
+            if (nextBatch(a) == 0) {
+                return false;
+            }
+            estimate = Math.max(0, estimate - 1);
+            action.accept(cast(a[0]));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            Object[] a = new Object[ADVANCE_BATCH];
+            while (!exhausted) {
+                int count = nextBatch(a);
+                for (int i = 0; i < count; i++) {
+                    action.accept(cast(a[i]));
+                }
+            }
+            estimate = 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        private E cast(Object o) {
+            return (E) o;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.CONCURRENT;
         }
     }
 
@@ -174,7 +907,7 @@ public class Dequeue<E> {
      * @return true if the dequeue is symmetrical, false otherwise
      */
     public boolean isSymmetrical() {
-        lock.lock();
+        long acquired = acquire();
         try {
             if (head == null || head.next == null || head == tail) {
                 return true; // An empty or single-element dequeue is symmetrical
@@ -194,7 +927,7 @@ public class Dequeue<E> {
             }
             return true; // All elements matched, dequeue is symmetrical
         } finally {
-            lock.unlock();
+            release(Operation.IS_SYMMETRICAL, acquired);
         }
     }
 
@@ -204,7 +937,7 @@ public class Dequeue<E> {
      * the data of each node until it reaches the tail.
      */
     public void printDequeue() {
-        lock.lock();
+        long acquired = acquire();
         try {
             if (head == null) {
                 System.out.println("Dequeue is empty.");
@@ -219,7 +952,7 @@ public class Dequeue<E> {
             }
             System.out.println(); // Print a new line after all elements
         } finally {
-            lock.unlock();
+            release(Operation.PRINT, acquired);
         }
     }
 
@@ -229,11 +962,11 @@ public class Dequeue<E> {
      * @return The number of elements in the dequeue
      */
     public int size() {
-        lock.lock();
+        long acquired = acquire();
         try {
             return this.size; // Return the size of the dequeue
         } finally {
-            lock.unlock();
+            release(Operation.SIZE, acquired);
         }
     }
 
@@ -243,11 +976,364 @@ public class Dequeue<E> {
      * @return true if the dequeue is empty, false otherwise
      */
     public boolean isEmpty() {
+        long acquired = acquire();
         try {
             return size == 0; // Dequeue is empty if size is 0
+        } finally {
+            release(Operation.SIZE, acquired);
+        }
+    }
+
+    /**
+     * Gets the maximum number of elements the dequeue may hold.
+     * 
+     * @return The capacity, Integer.MAX_VALUE for an unbounded dequeue
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of elements that can still be added before the dequeue
+     * is full.
+     * 
+     * @return The capacity minus the current size
+     */
+    public int remainingCapacity() {
+        long acquired = acquire();
+        try {
+            return capacity - size;
+        } finally {
+            release(Operation.SIZE, acquired);
+        }
+    }
+
+    /**
+     * Gets the largest number of elements the dequeue has held since it was
+     * created or its statistics were last reset.
+     * 
+     * @return The peak size of the dequeue
+     */
+    public int peakSize() {
+        lock.lock();
+        try {
+            return peakSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of times a put or offer call found the dequeue full and
+     * had to wait for room.
+     * 
+     * @return The number of producer waits
+     */
+    public long producerWaitCount() {
+        lock.lock();
+        try {
+            return producerWaits;
         } finally {
             lock.unlock();
         }
     }
+
+    /**
+     * Gets the total time put and offer calls have spent waiting for room.
+     * 
+     * @param unit The unit to report the time in
+     * @return The total producer wait time
+     */
+    public long producerWaitTime(TimeUnit unit) {
+        lock.lock();
+        try {
+            return unit.convert(producerWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of times a take or timed poll call found the dequeue
+     * empty and had to wait for an element.
+     * 
+     * @return The number of consumer waits
+     */
+    public long consumerWaitCount() {
+        lock.lock();
+        try {
+            return consumerWaits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the total time take and timed poll calls have spent waiting for an
+     * element.
+     * 
+     * @param unit The unit to report the time in
+     * @return The total consumer wait time
+     */
+    public long consumerWaitTime(TimeUnit unit) {
+        lock.lock();
+        try {
+            return unit.convert(consumerWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Resets the wait counters to zero and the peak size to the current size.
+     */
+    public void resetStatistics() {
+        lock.lock();
+        try {
+            peakSize = size;
+            producerWaits = producerWaitNanos = 0;
+            consumerWaits = consumerWaitNanos = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the lock metrics of an instrumented dequeue. Call register() on
+     * them to publish them through JMX.
+     * 
+     * @return The lock metrics, or null if the dequeue is not instrumented
+     */
+    public LockMetrics<Operation> metrics() {
+        return metrics;
+    }
+
+    /**
+     * Takes the lock, recording the wait when instrumented.
+     * 
+     * @return The time the lock was acquired, 0 when not instrumented
+     */
+    private long acquire() {
+        if (metrics == null) {
+            lock.lock();
+            return 0L;
+        }
+        long entered = metrics.enter();
+        lock.lock();
+        return metrics.acquired(entered);
+    }
+
+    /**
+     * Takes the lock unless interrupted, recording the wait when instrumented.
+     * 
+     * @return The time the lock was acquired, 0 when not instrumented
+     * @throws InterruptedException if interrupted while waiting for the lock
+     */
+    private long acquireInterruptibly() throws InterruptedException {
+        if (metrics == null) {
+            lock.lockInterruptibly();
+            return 0L;
+        }
+        long entered = metrics.enter();
+        try {
+            lock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            metrics.abandoned();
+            throw e;
+        }
+        return metrics.acquired(entered);
+    }
+
+    /**
+     * Releases the lock, first recording the operation and the hold time when
+     * instrumented. For put, take and the timed methods the hold time includes
+     * any time spent waiting on a Condition, which the wait counters report
+     * separately.
+     * 
+     * @param operation  The operation that held the lock
+     * @param acquiredAt The time returned by acquire()
+     */
+    private void release(Operation operation, long acquiredAt) {
+        if (metrics != null) {
+            metrics.exit(operation, acquiredAt, size);
+        }
+        lock.unlock();
+    }
+
+    /**
+     * Links a node in front of the current head.
+     * Must be called while holding the lock, with room in the dequeue.
+     * 
+     * @param newNode The node to link
+     */
+    private void linkFirst(Node<E> newNode) {
+        if (head == null) {
+            head = tail = newNode;
+        } else {
+            newNode.next = head; // The new node points to the current head
+            head.prev = newNode;
+            head = newNode; // The head is now the new node
+        }
+        added(1);
+    }
+
+    /**
+     * Links a node behind the current tail.
+     * Must be called while holding the lock, with room in the dequeue.
+     * 
+     * @param newNode The node to link
+     */
+    private void linkLast(Node<E> newNode) {
+        if (head == null) { // If the dequeue is empty
+            head = tail = newNode; // The new node becomes the head of the dequeue
+        } else {
+            tail.next = newNode; // The current tail's next points to the new node
+            newNode.prev = tail; // The new node's prev points to the current tail
+            tail = newNode; // The tail is now the new node
+        }
+        added(1);
+    }
+
+    /**
+     * Unlinks the head node and returns its data.
+     * Must be called while holding the lock, with a non-empty dequeue.
+     * 
+     * @return The data of the removed head node
+     */
+    private E unlinkFirst() {
+        Node<E> first = head;
+        E value = first.data; // Get the data from the head node
+        if (first.next == null) {
+            head = tail = null; // If there is only one element, set head and tail to null
+        } else {
+            head = first.next; // Move the head to the next node
+            head.prev = null; // The new head's prev should be null
+        }
+        first.next = first; // Mark the node removed for iterators
+        removed(1);
+        return value;
+    }
+
+    /**
+     * Unlinks the tail node and returns its data.
+     * Must be called while holding the lock, with a non-empty dequeue.
+     * 
+     * @return The data of the removed tail node
+     */
+    private E unlinkLast() {
+        Node<E> last = tail;
+        E value = last.data; // Get the data from the tail node
+        if (last.prev == null) { // If there is only one element in the dequeue
+            head = tail = null; // Set head and tail to null
+        } else {
+            tail = last.prev; // Move the tail to the previous node
+            tail.next = null; // The new tail's next should be null
+        }
+        last.prev = last; // Mark the node removed for iterators
+        removed(1);
+        return value;
+    }
+
+    /**
+     * Records that count elements were linked: grows the size, tracks the
+     * peak and wakes waiting consumers. Must be called while holding the lock.
+     * 
+     * @param count The number of elements added
+     */
+    private void added(int count) {
+        size += count; // Increment the size of the dequeue
+        if (size > peakSize) {
+            peakSize = size;
+        }
+        if (count == 1) {
+            notEmpty.signal();
+        } else {
+            notEmpty.signalAll();
+        }
+    }
+
+    /**
+     * Records that count elements were unlinked: shrinks the size and wakes
+     * waiting producers. Must be called while holding the lock.
+     * 
+     * @param count The number of elements removed
+     */
+    private void removed(int count) {
+        if (count == 0) {
+            return;
+        }
+        size -= count; // Decrement the size of the dequeue
+        if (count == 1) {
+            notFull.signal();
+        } else {
+            notFull.signalAll();
+        }
+    }
+
+    /**
+     * Waits until the dequeue has room for one more element.
+     * Must be called while holding the lock.
+     * 
+     * @param nanos The longest time to wait, or NO_TIMEOUT to wait until signalled
+     * @return true if there is room, false if the time ran out first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private boolean awaitRoom(long nanos) throws InterruptedException {
+        if (size < capacity) {
+            return true; // No need to wait
+        }
+        if (nanos == 0) {
+            return false; // Would not wait at all, so it is not counted as a wait
+        }
+        long start = System.nanoTime();
+        producerWaits++;
+        try {
+            while (size >= capacity) {
+                if (nanos == NO_TIMEOUT) {
+                    notFull.await();
+                } else if (nanos <= 0) {
+                    return false;
+                } else {
+                    nanos = Math.max(0L, notFull.awaitNanos(nanos)); // Never drift into NO_TIMEOUT
+                }
+            }
+            return true;
+        } finally {
+            producerWaitNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Waits until the dequeue holds at least one element.
+     * Must be called while holding the lock.
+     * 
+     * @param nanos The longest time to wait, or NO_TIMEOUT to wait until signalled
+     * @return true if an element is available, false if the time ran out first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private boolean awaitElement(long nanos) throws InterruptedException {
+        if (head != null) {
+            return true; // No need to wait
+        }
+        if (nanos == 0) {
+            return false; // Would not wait at all, so it is not counted as a wait
+        }
+        long start = System.nanoTime();
+        consumerWaits++;
+        try {
+            while (head == null) {
+                if (nanos == NO_TIMEOUT) {
+                    notEmpty.await();
+                } else if (nanos <= 0) {
+                    return false;
+                } else {
+                    nanos = Math.max(0L, notEmpty.awaitNanos(nanos)); // Never drift into NO_TIMEOUT
+                }
+            }
+            return true;
+        } finally {
+            consumerWaitNanos += System.nanoTime() - start;
+        }
+    }
     
 }
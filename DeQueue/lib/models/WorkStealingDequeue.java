@@ -0,0 +1,220 @@
+package lib.models;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import lib.errors.NullElementDequeException;
+
+// Dequeue/lib/models/WorkStealingDequeue.java
+
+/**
+ * The WorkStealingDequeue class implements a Chase-Lev work-stealing deque:
+ * a double-ended queue with one owner thread and any number of thieves.
+ *
+ * The owner adds and removes at the tail with addLast() and pollLast(), the
+ * same names Dequeue uses, so the owner works on its freshest element first
+ * (LIFO). Thieves take the oldest element from the head with pollFirst()
+ * (FIFO). Neither end takes a lock:
+ *
+ * - addLast() writes one slot of a circular array and then publishes it by
+ * advancing the tail index.
+ * - pollFirst() reads the slot at the head and claims it with a single
+ * compare-and-set (CAS) on the head index.
+ * - pollLast() needs a CAS only when it races a thief for the last element.
+ *
+ * The array length is a power of two, so indices wrap with a mask. When it
+ * fills up the owner copies the live elements into an array twice as large;
+ * thieves that still read the old array see the same elements there, and the
+ * CAS on the head decides who gets each one. Slots taken by thieves are not
+ * cleared (a late clear could erase an element the owner has since written
+ * to the same slot), so up to one array's worth of stolen elements may stay
+ * reachable until their slots are reused.
+ *
+ * addLast(), pollLast() and peekLast() must only be called by the owner thread.
+ * pollFirst(), size() and isEmpty() may be called by any thread.
+ *
+ * @param <E> The type of elements held in the WorkStealingDequeue
+ */
+public class WorkStealingDequeue<E> {
+    private static final int DEFAULT_CAPACITY = 64; // Initial slots when no capacity is given
+    private static final int MAX_CAPACITY = 1 << 30; // Largest power-of-two array length
+
+    private static final VarHandle TOP; // CAS access to top
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    static {
+        try {
+            TOP = MethodHandles.lookup().findVarHandle(WorkStealingDequeue.class, "top", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long top; // Index of the head element, only ever incremented by CAS
+    private volatile long bottom; // Index one past the tail element, written by the owner only
+    private volatile Object[] array; // Circular buffer, length is always a power of two
+
+    /**
+     * Default constructor that initializes an empty deque with 64 slots.
+     */
+    public WorkStealingDequeue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor that initializes an empty deque with room for at least
+     * initialCapacity elements before it grows.
+     *
+     * @param initialCapacity The number of slots to allocate up front
+     * @throws IllegalArgumentException if initialCapacity is not positive
+     */
+    public WorkStealingDequeue(int initialCapacity) {
+        if (initialCapacity <= 0 || initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid capacity: " + initialCapacity);
+        }
+        int length = Integer.highestOneBit(initialCapacity);
+        if (length < initialCapacity) {
+            length <<= 1; // Round up to the next power of two
+        }
+        this.array = new Object[length];
+    }
+
+    /**
+     * Adds an element to the end (tail) of the deque. Owner only.
+     *
+     * @param a The element to be added to the deque
+     * @throws NullElementDequeException if the element is null
+     */
+    public void addLast(E a) {
+        if (a == null) {
+            throw new NullElementDequeException("Cannot add null type to the dequeue.");
+        }
+        long b = bottom;
+        long t = top;
+        Object[] elements = array;
+        if (b - t >= elements.length) {
+            elements = grow(elements, t, b);
+        }
+        SLOT.setRelease(elements, (int) b & (elements.length - 1), a);
+        bottom = b + 1; // Publishes the element to thieves
+    }
+
+    /**
+     * Removes and returns the last element (tail) of the deque. Owner only.
+     *
+     * @return The removed element, or null if the deque is empty or a thief
+     *         took the last element first
+     */
+    @SuppressWarnings("unchecked")
+    public E pollLast() {
+        long b = bottom - 1;
+        Object[] elements = array;
+        bottom = b; // Reserve the tail before looking at the head
+        long t = top;
+        if (t > b) {
+            bottom = b + 1; // Empty; undo the reservation
+            return null;
+        }
+        int slot = (int) b & (elements.length - 1);
+        E x = (E) SLOT.getAcquire(elements, slot);
+        if (t == b) {
+            // Last element: race the thieves for it through the head index
+            if (!TOP.compareAndSet(this, t, t + 1)) {
+                x = null;
+            }
+            bottom = b + 1;
+        } else {
+            SLOT.setRelease(elements, slot, null); // No thief can reach this slot now
+        }
+        return x;
+    }
+
+    /**
+     * Returns the last element (tail) of the deque without removing it.
+     * Owner only; a thief may still take the element before the owner's next
+     * pollLast(), in which case that call returns null.
+     *
+     * @return The last element, or null if the deque is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E peekLast() {
+        long b = bottom - 1;
+        if (top > b) {
+            return null;
+        }
+        Object[] elements = array;
+        return (E) SLOT.getAcquire(elements, (int) b & (elements.length - 1));
+    }
+
+    /**
+     * Removes and returns the first element (head) of the deque. Any thread
+     * may call this to steal work from the owner.
+     *
+     * @return The removed element, or null if the deque is empty or another
+     *         thread took the element first
+     */
+    @SuppressWarnings("unchecked")
+    public E pollFirst() {
+        long t = top;
+        long b = bottom;
+        if (t >= b) {
+            return null;
+        }
+        Object[] elements = array;
+        E x = (E) SLOT.getAcquire(elements, (int) t & (elements.length - 1));
+        if (x == null || !TOP.compareAndSet(this, t, t + 1)) {
+            return null; // Lost the race to the owner or another thief
+        }
+        return x;
+    }
+
+    /**
+     * Gets the number of elements in the deque. Because no lock freezes the
+     * deque, the result is a snapshot that may already be stale.
+     *
+     * @return The number of elements in the deque
+     */
+    public int size() {
+        long n = bottom - top;
+        return n <= 0 ? 0 : (int) Math.min(n, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Checks if the deque is empty, as a snapshot that may already be stale.
+     *
+     * @return true if the deque is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return bottom <= top;
+    }
+
+    /**
+     * Gets the number of slots in the current array.
+     *
+     * @return The capacity before the deque grows again
+     */
+    public int capacity() {
+        return array.length;
+    }
+
+    /**
+     * Copies the live elements into an array twice as large and publishes it.
+     * Owner only.
+     *
+     * @param old The current array
+     * @param t   The head index
+     * @param b   The tail index
+     * @return The new array
+     */
+    private Object[] grow(Object[] old, long t, long b) {
+        if (old.length >= MAX_CAPACITY) {
+            throw new IllegalStateException("WorkStealingDequeue is at its maximum capacity.");
+        }
+        Object[] bigger = new Object[old.length << 1];
+        for (long i = t; i < b; i++) {
+            bigger[(int) i & (bigger.length - 1)] = old[(int) i & (old.length - 1)];
+        }
+        array = bigger;
+        return bigger;
+    }
+}
@@ -0,0 +1,107 @@
+package lib.persistent;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// Dequeue/lib/persistent/Checkpoint.java
+
+/**
+ * The committed head and tail positions of a PersistentDequeue.
+ *
+ * The file has two slots of generation, head, tail and CRC32C. Each write
+ * goes to the slot not holding the latest checkpoint and is forced before the
+ * call returns, so a crash in the middle of a write leaves the previous
+ * checkpoint intact, and opening picks the valid slot with the higher
+ * generation.
+ */
+final class Checkpoint {
+    private static final int SLOT = 32; // Bytes per slot: generation, head, tail, CRC, padding
+    private static final int CHECKED = 24; // Bytes covered by the CRC
+
+    private final MappedByteBuffer map;
+    private final CRC32C crc = new CRC32C();
+    private long generation; // Generation of the latest valid slot, 0 if none
+    private long head; // Committed head position
+    private long tail; // Committed tail position
+    private long sequence; // Operation sequence of the latest write in this run
+
+    private Checkpoint(MappedByteBuffer map) {
+        this.map = map;
+    }
+
+    /**
+     * Opens the checkpoint file, creating it if needed.
+     *
+     * @param path   The checkpoint file
+     * @param origin The head and tail of a new dequeue
+     * @return The checkpoint
+     * @throws IOException if the file cannot be mapped
+     */
+    static Checkpoint open(Path path, long origin) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            Checkpoint checkpoint = new Checkpoint(channel.map(FileChannel.MapMode.READ_WRITE, 0, 2 * SLOT));
+            checkpoint.head = origin;
+            checkpoint.tail = origin;
+            checkpoint.load(0);
+            checkpoint.load(SLOT);
+            return checkpoint;
+        }
+    }
+
+    /**
+     * Records a new head and tail and forces them to the storage device.
+     * Writes with a sequence no newer than the last one are ignored, so a
+     * slow committer cannot roll the checkpoint back.
+     *
+     * @param sequence The operation sequence the positions belong to
+     * @param head     The head position
+     * @param tail     The tail position
+     */
+    synchronized void write(long sequence, long head, long tail) {
+        if (sequence <= this.sequence) {
+            return;
+        }
+        long next = generation + 1;
+        int base = (int) (next & 1) * SLOT;
+        map.putLong(base, next);
+        map.putLong(base + 8, head);
+        map.putLong(base + 16, tail);
+        map.putInt(base + CHECKED, checksum(base));
+        map.force();
+        this.generation = next;
+        this.head = head;
+        this.tail = tail;
+        this.sequence = sequence;
+    }
+
+    synchronized long head() {
+        return head;
+    }
+
+    synchronized long tail() {
+        return tail;
+    }
+
+    /**
+     * Adopts the slot at base if it is valid and newer than the current one.
+     */
+    private void load(int base) {
+        long slotGeneration = map.getLong(base);
+        if (slotGeneration > generation && map.getInt(base + CHECKED) == checksum(base)) {
+            generation = slotGeneration;
+            head = map.getLong(base + 8);
+            tail = map.getLong(base + 16);
+        }
+    }
+
+    private int checksum(int base) {
+        crc.reset();
+        crc.update(map.slice(base, CHECKED));
+        return (int) crc.getValue();
+    }
+}
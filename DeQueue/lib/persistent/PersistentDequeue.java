@@ -0,0 +1,719 @@
+package lib.persistent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lib.errors.EmptyDequeException;
+import lib.errors.NullElementDequeException;
+
+// Dequeue/lib/persistent/PersistentDequeue.java
+
+/**
+ * The PersistentDequeue class implements a double-ended queue whose elements
+ * survive a crash of the process. It has the addFirst(), addLast(),
+ * popFirst() and popLast() semantics of Dequeue, but keeps every element as a
+ * serialized record in memory-mapped segment files in its directory.
+ *
+ * Each element sits at a position: addLast() writes at the tail position and
+ * increments it, addFirst() decrements the head position and writes there,
+ * and the pops read and move the same two positions. Records are only ever
+ * appended to the segment files (see Segment); the head and tail are kept in
+ * a checkpoint file (see Checkpoint).
+ *
+ * Durability comes from commits, which force the segments written since the
+ * last commit, the directory if a segment file was created or renamed since
+ * then, and finally the checkpoint. A commit makes every operation before
+ * it durable, so commits are batched (group commit):
+ *
+ * - With a commit interval, a background thread commits that often and the
+ * operations themselves never wait for the storage device. A crash loses at
+ * most the operations of the last interval.
+ * - With a commit interval of 0, every operation returns only once it has
+ * been committed. Operations arriving while a commit runs wait for it to end
+ * and then share the next one, so concurrent callers pay for one force per
+ * batch, not one each.
+ *
+ * sync() commits on demand in either mode. Segments the head or tail has
+ * moved past are recycled for new positions once a commit no longer needs
+ * them.
+ *
+ * A pop followed by an add at the same end reuses the popped position. If
+ * the checkpoint still covers that position, the add commits first, so the
+ * checkpoint never points at a record written after it. A dequeue used as a
+ * stack therefore commits on most pops that are followed by a push.
+ *
+ * Opening a directory reads the checkpoint and maps the segments between its
+ * head and tail without reading their records. The only work left over from
+ * before the crash is finding the end of the data of the segment that is
+ * appended to next, which scans the index of that one segment. Every record
+ * is checked against its CRC when it is popped.
+ *
+ * All operations take one ReentrantLock, as in Dequeue; serialization and
+ * forcing happen outside it. A directory can be open in one PersistentDequeue
+ * at a time.
+ *
+ * @param <E> The type of elements held in the PersistentDequeue
+ */
+public class PersistentDequeue<E> implements AutoCloseable {
+    private static final long ORIGIN = 1L << 40; // Head and tail of a new dequeue, far from 0 both ways
+    private static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 10; // Group commit interval by default
+    private static final int DEFAULT_SEGMENT_BYTES = 4 << 20; // 4 MiB segment files by default
+    private static final int SPARE_SEGMENTS = 32; // Consumed segments kept for reuse; covers a commit interval of churn
+
+    private final Path directory;
+    private final Serializer<E> serializer;
+    private final long commitIntervalMillis; // 0 means commit before every operation returns
+    private final int segmentBytes;
+    private final FileChannel lockChannel; // Holds the directory lock
+    private final Checkpoint checkpoint;
+    private final Thread committer; // Background committer, null with an interval of 0
+
+    private final ReentrantLock lock = new ReentrantLock(); // Guards everything below
+    private final ReentrantLock commitLock = new ReentrantLock(true); // One commit at a time, FIFO so waiters share it
+    private final Map<Long, Segment> segments = new HashMap<>(); // Segments by number
+    private final ArrayDeque<Segment> spares = new ArrayDeque<>(); // Consumed segments ready for reuse
+    private final List<Segment> dirty = new ArrayList<>(); // Segments written since the last commit
+    private final List<Segment> retired = new ArrayList<>(); // Segments the head or tail moved past
+    private Segment headSegment; // Cached segment of the head position
+    private Segment tailSegment; // Cached segment of the tail position
+    private long head; // First live position
+    private long tail; // One past the last live position
+    private long sequence; // Number of operations applied
+    private long durableHead; // Head of the checkpoint, as of the last commit that finished
+    private long durableTail; // Tail of the checkpoint, as of the last commit that finished
+    private long pendingHead; // Head of the snapshot a running commit() is about to checkpoint
+    private long pendingTail; // Tail of that snapshot, equal to pendingHead if there is none
+    private List<Segment> pendingForce = List.of(); // Segments a running commit() is forcing
+    private boolean directoryChanged = true; // A file was created or renamed since the last directory force
+    private boolean pendingDirectory; // Whether a running commit() is forcing the directory
+    private final AtomicLong committed = new AtomicLong(); // Sequence covered by the latest commit
+    private volatile boolean closed;
+    private volatile UncheckedIOException commitFailure; // Failure of the background committer
+
+    /**
+     * Constructor that opens or creates a dequeue in a directory, committing
+     * every 10 milliseconds.
+     *
+     * @param directory  The directory holding the segment and checkpoint files
+     * @param serializer Encodes and decodes the elements
+     * @throws IOException if the directory cannot be opened or is in use
+     */
+    public PersistentDequeue(Path directory, Serializer<E> serializer) throws IOException {
+        this(directory, serializer, DEFAULT_COMMIT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Constructor that opens or creates a dequeue in a directory with 4 MiB
+     * segment files.
+     *
+     * @param directory            The directory holding the segment and checkpoint files
+     * @param serializer           Encodes and decodes the elements
+     * @param commitIntervalMillis The group commit interval, or 0 to commit
+     *                             before every operation returns
+     * @throws IOException if the directory cannot be opened or is in use
+     */
+    public PersistentDequeue(Path directory, Serializer<E> serializer, long commitIntervalMillis)
+            throws IOException {
+        this(directory, serializer, commitIntervalMillis, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Constructor that opens or creates a dequeue in a directory.
+     *
+     * @param directory            The directory holding the segment and checkpoint files
+     * @param serializer           Encodes and decodes the elements
+     * @param commitIntervalMillis The group commit interval, or 0 to commit
+     *                             before every operation returns
+     * @param segmentBytes         The size of new segment files
+     * @throws IllegalArgumentException if the interval is negative or the
+     *                                  segments are too small
+     * @throws IOException              if the directory cannot be opened or is in use
+     */
+    public PersistentDequeue(Path directory, Serializer<E> serializer, long commitIntervalMillis,
+            int segmentBytes) throws IOException {
+        if (commitIntervalMillis < 0) {
+            throw new IllegalArgumentException("Invalid commit interval: " + commitIntervalMillis);
+        }
+        if (segmentBytes < 2 * Segment.DATA_START) {
+            throw new IllegalArgumentException("Invalid segment size: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.serializer = serializer;
+        this.commitIntervalMillis = commitIntervalMillis;
+        this.segmentBytes = segmentBytes;
+
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve("lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        try {
+            FileLock fileLock;
+            try {
+                fileLock = lockChannel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                fileLock = null; // Held by another PersistentDequeue in this JVM
+            }
+            if (fileLock == null) {
+                throw new IOException("Dequeue directory is in use: " + directory);
+            }
+            this.checkpoint = Checkpoint.open(directory.resolve("checkpoint"), ORIGIN);
+            this.head = checkpoint.head();
+            this.tail = checkpoint.tail();
+            this.durableHead = head;
+            this.durableTail = tail;
+            recover();
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            throw e;
+        }
+
+        if (commitIntervalMillis > 0) {
+            this.committer = new Thread(this::commitLoop, "persistent-dequeue-committer");
+            committer.setDaemon(true);
+            committer.start();
+        } else {
+            this.committer = null;
+        }
+    }
+
+    /**
+     * Adds an element to the front of the dequeue.
+     *
+     * @param a The element to be added to the dequeue
+     * @throws NullElementDequeException if the element is null
+     * @throws IllegalStateException     if the dequeue is closed
+     * @throws UncheckedIOException      if the element cannot be stored
+     */
+    public void addFirst(E a) {
+        byte[] payload = encode(a);
+        long operation;
+        lock.lock();
+        try {
+            ensureOpen();
+            append(head - 1, payload, true);
+            head--;
+            operation = ++sequence;
+        } finally {
+            lock.unlock();
+        }
+        awaitCommit(operation);
+    }
+
+    /**
+     * Adds an element to the end of the dequeue.
+     *
+     * @param a The element to be added to the dequeue
+     * @throws NullElementDequeException if the element is null
+     * @throws IllegalStateException     if the dequeue is closed
+     * @throws UncheckedIOException      if the element cannot be stored
+     */
+    public void addLast(E a) {
+        byte[] payload = encode(a);
+        long operation;
+        lock.lock();
+        try {
+            ensureOpen();
+            append(tail, payload, false);
+            tail++;
+            operation = ++sequence;
+        } finally {
+            lock.unlock();
+        }
+        awaitCommit(operation);
+    }
+
+    /**
+     * Removes and returns the first element from the dequeue.
+     *
+     * @return The removed element from the beginning of the dequeue
+     * @throws EmptyDequeException   if the dequeue is empty
+     * @throws IllegalStateException if the dequeue is closed
+     * @throws UncheckedIOException  if the element cannot be read
+     */
+    public E popFirst() {
+        byte[] payload;
+        long operation;
+        lock.lock();
+        try {
+            ensureOpen();
+            if (head == tail) {
+                throw new EmptyDequeException("Cannot remove from an empty dequeue.");
+            }
+            payload = read(head, true);
+            head++;
+            if (Math.floorMod(head, Segment.POSITIONS) == 0) {
+                retire(headSegment); // Every position of it is now before the head
+                headSegment = null;
+            }
+            operation = ++sequence;
+        } finally {
+            lock.unlock();
+        }
+        awaitCommit(operation);
+        return serializer.deserialize(payload);
+    }
+
+    /**
+     * Removes and returns the last element from the dequeue.
+     *
+     * @return The removed element
+     * @throws EmptyDequeException   if the dequeue is empty
+     * @throws IllegalStateException if the dequeue is closed
+     * @throws UncheckedIOException  if the element cannot be read
+     */
+    public E popLast() {
+        byte[] payload;
+        long operation;
+        lock.lock();
+        try {
+            ensureOpen();
+            if (head == tail) {
+                throw new EmptyDequeException("Cannot remove from an empty dequeue.");
+            }
+            payload = read(tail - 1, false);
+            tail--;
+            if (Math.floorMod(tail, Segment.POSITIONS) == 0) {
+                retire(tailSegment); // Every position of it is now at or after the tail
+                tailSegment = null;
+            }
+            operation = ++sequence;
+        } finally {
+            lock.unlock();
+        }
+        awaitCommit(operation);
+        return serializer.deserialize(payload);
+    }
+
+    /**
+     * Gets the number of elements in the dequeue.
+     *
+     * @return The number of elements in the dequeue
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return (int) Math.min(tail - head, Integer.MAX_VALUE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if the dequeue is empty.
+     *
+     * @return true if the dequeue is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return head == tail;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Commits every operation so far: forces the segments written since the
+     * last commit, the directory if it changed, then the checkpoint.
+     *
+     * @throws UncheckedIOException if the directory cannot be forced or a
+     *                              consumed segment cannot be recycled
+     */
+    public void sync() {
+        long operation;
+        lock.lock();
+        try {
+            operation = sequence;
+        } finally {
+            lock.unlock();
+        }
+        commit(operation);
+    }
+
+    /**
+     * Commits every operation so far, stops the background committer and
+     * releases the directory. Later operations throw IllegalStateException.
+     *
+     * @throws IOException if the directory lock cannot be released
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        if (committer != null) {
+            committer.interrupt();
+            boolean interrupted = false;
+            while (committer.isAlive()) {
+                try {
+                    committer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true; // Keep waiting, restore the flag afterwards
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            sync();
+        } finally {
+            lockChannel.close(); // Also releases the file lock
+        }
+    }
+
+    /**
+     * Maps the segments between the checkpointed head and tail, and turns
+     * every other segment file into a spare or deletes it.
+     */
+    private void recover() throws IOException {
+        long first = Segment.numberOf(head);
+        long last = Segment.numberOf(tail - 1);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(".log")) {
+                    Files.delete(file); // Left over from an interrupted compaction
+                    continue;
+                }
+                long number = Long.parseLong(name.substring("segment-".length(), name.length() - ".log".length()), 16);
+                if (head < tail && number >= first && number <= last) {
+                    segments.put(number, Segment.open(file, number));
+                } else if (spares.size() < SPARE_SEGMENTS && Files.size(file) == segmentBytes) {
+                    try {
+                        spares.add(Segment.open(file, number));
+                    } catch (IOException e) {
+                        Files.delete(file); // Not worth keeping
+                    }
+                } else {
+                    Files.delete(file);
+                }
+            }
+        }
+        if (head < tail) {
+            for (long number = first; number <= last; number++) {
+                if (!segments.containsKey(number)) {
+                    throw new IOException("Missing segment " + number + " in " + directory);
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends a record at a position, compacting its segment if it is full.
+     * Commits first if the position was popped since the last commit, since
+     * appending repoints the index entry the checkpoint still relies on.
+     */
+    private void append(long position, byte[] payload, boolean atHead) {
+        if (payload.length > segmentBytes - Segment.DATA_START - Segment.RECORD_HEADER) {
+            throw new IllegalArgumentException("Element of " + payload.length + " bytes does not fit in a segment.");
+        }
+        try {
+            if (inRange(durableHead, durableTail, position) || inRange(pendingHead, pendingTail, position)) {
+                commitLocked();
+            }
+            Segment segment = segmentFor(position, atHead, true);
+            if (!segment.append(position, payload)) {
+                segment = compact(segment);
+                if (!segment.append(position, payload)) {
+                    throw new IllegalStateException("Segment " + segment.number() + " is full of live elements.");
+                }
+            }
+            if (!segment.dirty) {
+                segment.dirty = true;
+                dirty.add(segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the record at a live position.
+     */
+    private byte[] read(long position, boolean atHead) {
+        try {
+            return segmentFor(position, atHead, false).read(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the segment of a position, creating it if asked to, and caches
+     * it as the head or tail segment.
+     */
+    private Segment segmentFor(long position, boolean atHead, boolean create) throws IOException {
+        long number = Segment.numberOf(position);
+        Segment cached = atHead ? headSegment : tailSegment;
+        if (cached != null && cached.number() == number) {
+            return cached;
+        }
+        Segment segment = segments.get(number);
+        if (segment == null) {
+            if (!create) {
+                throw new IOException("Missing segment " + number + " in " + directory);
+            }
+            segment = spares.poll();
+            if (segment != null) {
+                segment.reuse(path(number), number);
+            } else {
+                segment = Segment.create(path(number), number, segmentBytes);
+            }
+            directoryChanged = true;
+            segments.put(number, segment);
+        }
+        if (atHead) {
+            headSegment = segment;
+        } else {
+            tailSegment = segment;
+        }
+        return segment;
+    }
+
+    /**
+     * Commits, then replaces a full segment with a copy holding only its live
+     * records. The commit comes first because the copy drops the records of
+     * positions popped since the last checkpoint.
+     */
+    private Segment compact(Segment segment) throws IOException {
+        commitLocked();
+
+        Path temporary = directory.resolve(segment.path().getFileName() + ".tmp");
+        Segment fresh = segment.compact(temporary, head, tail);
+        forceDirectory(); // A lost rename would bring back the old file under records appended from now on
+        segments.put(fresh.number(), fresh);
+        retired.remove(segment);
+        if (headSegment == segment) {
+            headSegment = fresh;
+        }
+        if (tailSegment == segment) {
+            tailSegment = fresh;
+        }
+        return fresh;
+    }
+
+    /**
+     * Marks a segment the head or tail has moved past, to be recycled by a
+     * later commit.
+     */
+    private void retire(Segment segment) {
+        if (segment != null && !retired.contains(segment)) {
+            retired.add(segment);
+        }
+    }
+
+    /**
+     * Recycles the retired segments that neither the current positions nor
+     * the durable checkpoint refer to. Called under the lock.
+     */
+    private void recycle() throws IOException {
+        for (Iterator<Segment> it = retired.iterator(); it.hasNext();) {
+            Segment segment = it.next();
+            long number = segment.number();
+            if (segments.get(number) != segment) {
+                it.remove(); // Replaced by compaction
+            } else if (covers(head, tail, number)) {
+                it.remove(); // Live again
+            } else if (!covers(durableHead, durableTail, number)) {
+                it.remove();
+                segments.remove(number);
+                if (headSegment == segment) {
+                    headSegment = null;
+                }
+                if (tailSegment == segment) {
+                    tailSegment = null;
+                }
+                if (spares.size() < SPARE_SEGMENTS) {
+                    spares.add(segment);
+                } else {
+                    segment.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Commits every operation so far without releasing the lock. Also forces
+     * the segments and the directory a running commit() is still forcing,
+     * since the checkpoint written here covers their records and files too.
+     * That commit's own checkpoint is older and will be ignored, so its
+     * snapshot no longer matters.
+     */
+    private void commitLocked() throws IOException {
+        for (Segment segment : pendingForce) {
+            segment.force();
+        }
+        for (Segment segment : dirty) {
+            segment.force();
+            segment.dirty = false;
+        }
+        dirty.clear();
+        if (directoryChanged || pendingDirectory) {
+            forceDirectory();
+            directoryChanged = false;
+        }
+        checkpoint.write(sequence, head, tail);
+        committed.accumulateAndGet(sequence, Math::max);
+        durableHead = head;
+        durableTail = tail;
+        pendingTail = pendingHead;
+    }
+
+    /**
+     * Forces everything written up to the given operation, unless a commit
+     * already covered it. Threads that arrive while another thread commits
+     * wait on the commit lock and usually find their operation covered.
+     */
+    private void commit(long operation) {
+        if (committed.get() >= operation) {
+            return;
+        }
+        commitLock.lock();
+        try {
+            if (committed.get() >= operation) {
+                return; // The previous committer covered it
+            }
+            long snapshotSequence;
+            long snapshotHead;
+            long snapshotTail;
+            List<Segment> toForce;
+            boolean newFiles;
+            lock.lock();
+            try {
+                snapshotSequence = sequence;
+                snapshotHead = head;
+                snapshotTail = tail;
+                toForce = new ArrayList<>(dirty);
+                for (Segment segment : toForce) {
+                    segment.dirty = false;
+                }
+                dirty.clear();
+                pendingHead = head;
+                pendingTail = tail;
+                pendingForce = toForce;
+                newFiles = directoryChanged || pendingDirectory; // Still set if the last force failed
+                directoryChanged = false;
+                pendingDirectory = newFiles;
+            } finally {
+                lock.unlock();
+            }
+            for (Segment segment : toForce) {
+                segment.force();
+            }
+            if (newFiles) {
+                forceDirectory(); // The checkpoint may refer to a file created or renamed since the last commit
+            }
+            checkpoint.write(snapshotSequence, snapshotHead, snapshotTail);
+            committed.accumulateAndGet(snapshotSequence, Math::max);
+            lock.lock();
+            try {
+                durableHead = checkpoint.head(); // The snapshot, unless a newer commitLocked() overtook it
+                durableTail = checkpoint.tail();
+                pendingTail = pendingHead;
+                pendingForce = List.of();
+                pendingDirectory = false;
+                recycle();
+            } finally {
+                lock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Forces the directory entries to the storage device, so files created
+     * or renamed in it survive a power loss along with their contents.
+     */
+    private void forceDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Waits until an operation is committed, if every operation commits
+     * before it returns.
+     */
+    private void awaitCommit(long operation) {
+        if (commitIntervalMillis == 0) {
+            commit(operation);
+        }
+    }
+
+    /**
+     * Body of the background committer.
+     */
+    private void commitLoop() {
+        while (!closed) {
+            try {
+                Thread.sleep(commitIntervalMillis);
+            } catch (InterruptedException e) {
+                return; // close() commits the rest
+            }
+            try {
+                sync();
+            } catch (UncheckedIOException e) {
+                commitFailure = e;
+                return;
+            }
+        }
+    }
+
+    private byte[] encode(E a) {
+        if (a == null) {
+            throw new NullElementDequeException("Cannot add null type to the dequeue.");
+        }
+        return serializer.serialize(a);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("PersistentDequeue is closed.");
+        }
+        if (commitFailure != null) {
+            throw commitFailure;
+        }
+    }
+
+    private Path path(long number) {
+        return directory.resolve(String.format("segment-%016x.log", number));
+    }
+
+    /**
+     * Checks if a position is in [from, to).
+     */
+    private static boolean inRange(long from, long to, long position) {
+        return position >= from && position < to;
+    }
+
+    /**
+     * Checks if segment number holds any position of [from, to).
+     */
+    private static boolean covers(long from, long to, long number) {
+        return from < to && number >= Segment.numberOf(from) && number <= Segment.numberOf(to - 1);
+    }
+}
@@ -0,0 +1,273 @@
+package lib.persistent;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// Dequeue/lib/persistent/Segment.java
+
+/**
+ * One memory-mapped segment file of a PersistentDequeue.
+ *
+ * Every element of the dequeue sits at a position, a long that addFirst()
+ * decrements and addLast() increments. A segment holds the records of
+ * POSITIONS consecutive positions, so segment n covers positions
+ * [n * POSITIONS, (n + 1) * POSITIONS). The file layout is:
+ *
+ * - a 16-byte header: magic, version and the segment number;
+ * - an index of POSITIONS ints, the file offset of the latest record written
+ * for each position, or 0 if there is none;
+ * - the records, appended in write order: length, CRC32C, position, payload.
+ *
+ * Records are never overwritten. Adding again at a position that was popped
+ * appends a new record and repoints the index, so the data area can fill up
+ * before the positions do; compact() then copies the live records to a fresh
+ * file.
+ *
+ * PersistentDequeue commits before it repoints a position the checkpoint
+ * still covers, so every position the checkpoint covers keeps the record it
+ * had when the checkpoint was written, even if the index page reaches the
+ * disk before the new record does.
+ *
+ * Because the index says where each record is, opening a segment reads
+ * nothing but the header; the end of the data is found by scanning the index
+ * only when something is appended again.
+ *
+ * Segments are not thread-safe; PersistentDequeue calls them under its lock.
+ */
+final class Segment {
+    static final int POSITIONS = 4096; // Positions covered by one segment
+    static final int INDEX_START = 16; // Header bytes before the index
+    static final int DATA_START = INDEX_START + POSITIONS * Integer.BYTES; // First record offset
+    static final int RECORD_HEADER = 16; // Length, CRC and position before each payload
+
+    private static final int MAGIC = 0x44514C47; // "DQLG"
+    private static final int VERSION = 1;
+    private static final byte[] EMPTY_INDEX = new byte[POSITIONS * Integer.BYTES]; // Copied over a reused index
+
+    private Path path; // Changes when a spare segment is reused
+    private long number; // Segment number, also stored in the header
+    private final MappedByteBuffer map; // The whole file; stays valid after the channel closes
+    private final CRC32C crc = new CRC32C();
+    private final byte[] scratch = new byte[Long.BYTES * 2]; // Number and position fed to the CRC
+    private int writeOffset = -1; // End of the data, -1 until the index has been scanned
+    boolean dirty; // Written since the last force, maintained by PersistentDequeue
+
+    private Segment(Path path, long number, MappedByteBuffer map) {
+        this.path = path;
+        this.number = number;
+        this.map = map;
+    }
+
+    /**
+     * Creates an empty segment file, replacing any file at the path.
+     *
+     * @param path   The file to create
+     * @param number The segment number
+     * @param size   The file size in bytes
+     * @return The new segment
+     * @throws IOException if the file cannot be created or mapped
+     */
+    static Segment create(Path path, long number, int size) throws IOException {
+        Segment segment = new Segment(path, number, map(path, size, true));
+        segment.format(number, false); // A new file reads as zeros already
+        return segment;
+    }
+
+    /**
+     * Opens an existing segment file.
+     *
+     * @param path   The file to open
+     * @param number The segment number its name says it holds
+     * @return The segment
+     * @throws IOException if the file cannot be mapped or its header does not
+     *                     match the number
+     */
+    static Segment open(Path path, long number) throws IOException {
+        Segment segment = new Segment(path, number, map(path, 0, false));
+        MappedByteBuffer map = segment.map;
+        if (map.capacity() < DATA_START || map.getInt(0) != MAGIC || map.getInt(4) != VERSION
+                || map.getLong(8) != number) {
+            throw new IOException("Not segment " + number + ": " + path);
+        }
+        return segment;
+    }
+
+    /**
+     * Renames a consumed segment and empties it for reuse under a new number,
+     * which saves creating and mapping a new file.
+     *
+     * @param newPath The new file name
+     * @param number  The new segment number
+     * @throws IOException if the file cannot be renamed
+     */
+    void reuse(Path newPath, long number) throws IOException {
+        Files.move(path, newPath, StandardCopyOption.REPLACE_EXISTING);
+        this.path = newPath;
+        this.number = number;
+        format(number, true);
+    }
+
+    /**
+     * Appends a record for a position and points the index at it.
+     *
+     * @param position The position of the element
+     * @param payload  The serialized element
+     * @return false if the data area has no room for the record
+     */
+    boolean append(long position, byte[] payload) {
+        int offset = writeOffset();
+        if (payload.length > map.capacity() - offset - RECORD_HEADER) {
+            return false;
+        }
+        map.putInt(offset, payload.length);
+        map.putInt(offset + 4, checksum(position, payload));
+        map.putLong(offset + 8, position);
+        map.put(offset + RECORD_HEADER, payload);
+        map.putInt(INDEX_START + slot(position) * Integer.BYTES, offset); // Last, so the record is whole
+        writeOffset = offset + RECORD_HEADER + payload.length;
+        return true;
+    }
+
+    /**
+     * Reads the latest record of a position and checks its CRC.
+     *
+     * @param position The position of the element
+     * @return The serialized element
+     * @throws IOException if there is no record or it fails the check
+     */
+    byte[] read(long position) throws IOException {
+        int offset = map.getInt(INDEX_START + slot(position) * Integer.BYTES);
+        if (offset < DATA_START || offset > map.capacity() - RECORD_HEADER) {
+            throw new IOException("No record for position " + position + " in " + path);
+        }
+        int length = map.getInt(offset);
+        if (length < 0 || length > map.capacity() - offset - RECORD_HEADER || map.getLong(offset + 8) != position) {
+            throw new IOException("Corrupt record for position " + position + " in " + path);
+        }
+        byte[] payload = new byte[length];
+        map.get(offset + RECORD_HEADER, payload);
+        if (map.getInt(offset + 4) != checksum(position, payload)) {
+            throw new IOException("CRC mismatch for position " + position + " in " + path);
+        }
+        return payload;
+    }
+
+    /**
+     * Writes the live records into a fresh file and moves it over this one.
+     *
+     * @param temporary The file to build the copy in
+     * @param head      The first live position of the dequeue
+     * @param tail      One past the last live position of the dequeue
+     * @return The compacted segment, which replaces this one
+     * @throws IOException if a record cannot be read or the file written
+     */
+    Segment compact(Path temporary, long head, long tail) throws IOException {
+        Segment fresh = create(temporary, number, map.capacity());
+        long first = number * POSITIONS;
+        for (long p = Math.max(head, first); p < Math.min(tail, first + POSITIONS); p++) {
+            fresh.append(p, read(p)); // Fits: the live records fit before
+        }
+        fresh.force();
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        fresh.path = path;
+        return fresh;
+    }
+
+    /**
+     * Writes the dirty pages of the mapping to the storage device.
+     */
+    void force() {
+        map.force();
+    }
+
+    /**
+     * Deletes the file. The mapping goes away when it is garbage collected.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    long number() {
+        return number;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int size() {
+        return map.capacity();
+    }
+
+    static long numberOf(long position) {
+        return Math.floorDiv(position, POSITIONS);
+    }
+
+    private static int slot(long position) {
+        return Math.floorMod(position, POSITIONS);
+    }
+
+    /**
+     * Returns the end of the data, scanning the index for it the first time.
+     */
+    private int writeOffset() {
+        if (writeOffset < 0) {
+            int end = DATA_START;
+            for (int i = 0; i < POSITIONS; i++) {
+                int offset = map.getInt(INDEX_START + i * Integer.BYTES);
+                if (offset >= DATA_START && offset <= map.capacity() - RECORD_HEADER) {
+                    end = Math.max(end, offset + RECORD_HEADER + map.getInt(offset));
+                }
+            }
+            writeOffset = end;
+        }
+        return writeOffset;
+    }
+
+    /**
+     * Clears the index, then writes the header, so a crash in between leaves
+     * a header that does not match the file name.
+     */
+    private void format(long number, boolean clearIndex) {
+        if (clearIndex) {
+            map.put(INDEX_START, EMPTY_INDEX);
+        }
+        map.putInt(0, MAGIC);
+        map.putInt(4, VERSION);
+        map.putLong(8, number);
+        writeOffset = DATA_START;
+    }
+
+    /**
+     * CRC32C of the segment number, the position and the payload, so a record
+     * left over from a previous use of the file never passes as current.
+     */
+    private int checksum(long position, byte[] payload) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            scratch[i] = (byte) (number >>> (56 - 8 * i));
+            scratch[Long.BYTES + i] = (byte) (position >>> (56 - 8 * i));
+        }
+        crc.reset();
+        crc.update(scratch);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static MappedByteBuffer map(Path path, int size, boolean create) throws IOException {
+        StandardOpenOption[] options = create
+                ? new StandardOpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE }
+                : new StandardOpenOption[] { StandardOpenOption.READ, StandardOpenOption.WRITE };
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, create ? size : channel.size());
+        }
+    }
+}
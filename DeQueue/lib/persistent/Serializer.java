@@ -0,0 +1,68 @@
+package lib.persistent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Dequeue/lib/persistent/Serializer.java
+
+/**
+ * Turns the elements of a PersistentDequeue into bytes and back.
+ *
+ * deserialize(serialize(e)) must return an element equal to e, also in a later
+ * run of the program, so the encoding must not depend on identity hash codes
+ * or anything else that changes between runs.
+ *
+ * @param <E> The type of elements serialized
+ */
+public interface Serializer<E> {
+
+    /**
+     * Encodes an element.
+     *
+     * @param element The element, never null
+     * @return The encoded bytes
+     */
+    byte[] serialize(E element);
+
+    /**
+     * Decodes an element encoded by serialize().
+     *
+     * @param bytes The encoded bytes
+     * @return The element
+     */
+    E deserialize(byte[] bytes);
+
+    /**
+     * Returns a serializer that stores strings as UTF-8.
+     *
+     * @return The string serializer
+     */
+    static Serializer<String> strings() {
+        return new Serializer<>() {
+            public byte[] serialize(String element) {
+                return element.getBytes(StandardCharsets.UTF_8);
+            }
+
+            public String deserialize(byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    /**
+     * Returns a serializer that stores longs as eight big-endian bytes.
+     *
+     * @return The long serializer
+     */
+    static Serializer<Long> longs() {
+        return new Serializer<>() {
+            public byte[] serialize(Long element) {
+                return ByteBuffer.allocate(Long.BYTES).putLong(0, element).array();
+            }
+
+            public Long deserialize(byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getLong(0);
+            }
+        };
+    }
+}
@@ -0,0 +1,181 @@
+package lib.scheduler;
+
+// Dequeue/lib/scheduler/PoolTask.java
+
+/**
+ * A fork/join task run by a WorkStealingPool.
+ *
+ * Subclasses put their work in compute(). Inside compute() a task may fork()
+ * subtasks, which pushes them onto the deque of the current worker where idle
+ * workers can steal them, and later join() them for their results:
+ *
+ * <pre>{@code
+ * class Sum extends PoolTask<Long> {
+ *     protected Long compute() {
+ *         if (small enough) return sum directly;
+ *         Sum left = new Sum(first half);
+ *         left.fork();
+ *         long right = new Sum(second half).compute();
+ *         return left.join() + right;
+ *     }
+ * }
+ * }</pre>
+ *
+ * A join() inside a pool first runs, in the joining worker, the tasks it
+ * forked after the joined one and then the joined task itself, so a worker
+ * can join its subtasks in any order, even alone. If the task was stolen, the
+ * joining worker steals and runs other tasks while it waits, so no worker sits
+ * idle during a join.
+ *
+ * @param <V> The type of the result
+ */
+public abstract class PoolTask<V> {
+    private static final int PENDING = 0; // Not finished yet
+    private static final int NORMAL = 1; // compute() returned a result
+    private static final int EXCEPTIONAL = 2; // compute() threw
+
+    private volatile int status; // PENDING, NORMAL or EXCEPTIONAL
+    private volatile boolean waiters; // Whether a thread outside the pool waits on this task
+    private V result; // Published by the volatile write of status
+    private Throwable failure; // Published by the volatile write of status
+
+    /**
+     * Performs the work of the task.
+     *
+     * @return The result of the task
+     */
+    protected abstract V compute();
+
+    /**
+     * Schedules the task on the deque of the current worker. Must be called
+     * from inside a task running in a WorkStealingPool.
+     *
+     * @return This task, for chaining
+     * @throws IllegalStateException if not called from a pool worker
+     */
+    public final PoolTask<V> fork() {
+        WorkStealingPool.currentWorker().push(this);
+        return this;
+    }
+
+    /**
+     * Waits for the task to finish and returns its result. Inside a pool the
+     * calling worker runs other tasks while it waits; outside a pool the
+     * calling thread blocks.
+     *
+     * @return The result of the task
+     * @throws RuntimeException or Error thrown by compute()
+     */
+    public final V join() {
+        if (status == PENDING) {
+            WorkStealingPool.Worker worker = WorkStealingPool.workerOrNull();
+            if (worker != null) {
+                worker.helpUntilDone(this);
+            } else {
+                awaitDone();
+            }
+        }
+        return report();
+    }
+
+    /**
+     * Runs the task in the calling thread and returns its result.
+     *
+     * @return The result of the task
+     * @throws RuntimeException or Error thrown by compute()
+     */
+    public final V invoke() {
+        run();
+        return report();
+    }
+
+    /**
+     * Checks if the task has finished, normally or by throwing.
+     *
+     * @return true if the task has finished, false otherwise
+     */
+    public final boolean isDone() {
+        return status != PENDING;
+    }
+
+    /**
+     * Runs compute() once and records its outcome. Does nothing if the task
+     * has already finished.
+     */
+    final void run() {
+        if (status != PENDING) {
+            return;
+        }
+        try {
+            result = compute();
+            status = NORMAL;
+        } catch (Throwable e) {
+            failure = e;
+            status = EXCEPTIONAL;
+        }
+        signalWaiters();
+    }
+
+    /**
+     * Finishes a task that will never run, as if compute() had thrown the
+     * given exception. The caller must own the task, having taken it off the
+     * queue that held it, so no worker can run it concurrently.
+     *
+     * @param e The exception join() throws
+     */
+    final void reject(RuntimeException e) {
+        if (status != PENDING) {
+            return;
+        }
+        failure = e;
+        status = EXCEPTIONAL;
+        signalWaiters();
+    }
+
+    /**
+     * Wakes the threads outside the pool blocked in awaitDone().
+     */
+    private void signalWaiters() {
+        if (waiters) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Blocks a thread outside the pool until the task has finished.
+     */
+    final void awaitDone() {
+        waiters = true; // Read by run() after it writes status
+        boolean interrupted = false;
+        synchronized (this) {
+            while (status == PENDING) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true; // Keep waiting, restore the flag afterwards
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the result, or rethrows what compute() threw.
+     */
+    private V report() {
+        if (status == EXCEPTIONAL) {
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw new IllegalStateException(failure); // compute() cannot throw checked exceptions
+        }
+        return result;
+    }
+}
@@ -0,0 +1,399 @@
+package lib.scheduler;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import lib.models.Dequeue;
+import lib.models.WorkStealingDequeue;
+
+// Dequeue/lib/scheduler/WorkStealingPool.java
+
+/**
+ * The WorkStealingPool class runs PoolTasks on a fixed set of worker threads
+ * that balance the load among themselves by work stealing.
+ *
+ * Each worker owns a WorkStealingDequeue. Tasks forked by a running task go to
+ * the tail of its worker's deque and the worker takes them back from the tail
+ * (LIFO), so it keeps working on the smallest, most cache-friendly pieces. A
+ * worker whose deque is empty first checks the shared submission Dequeue for
+ * tasks from outside the pool, then steals from the head of other workers'
+ * deques (FIFO), where the oldest and usually largest pieces sit. Each scan
+ * starts at a random victim so idle workers do not all hit the same deque.
+ *
+ * A worker that finds nothing backs off in three stages before it sleeps:
+ *
+ * - It spins with Thread.onSpinWait() for a few scans, which costs one core
+ * but picks up new work within nanoseconds.
+ * - It calls Thread.yield() for a few more scans, letting other threads run.
+ * - It parks. The first park is short and each one that finds no work doubles
+ * it, up to a limit; any work found resets the backoff. A push or a submit
+ * that sees a parked worker unparks it, so work never waits for a timeout.
+ *
+ * The pool counts successful steals, failed steals (the victim had work but
+ * another thread took it first) and parks; see stealCount(), failedStealCount()
+ * and parkCount().
+ */
+public class WorkStealingPool implements AutoCloseable {
+    private static final int SPINS = 64; // Idle scans spent spinning before yielding
+    private static final int YIELDS = 16; // Idle scans spent yielding before parking
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50); // First park
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10); // Longest park
+
+    private final Worker[] workers;
+    private final Dequeue<PoolTask<?>> submissions = new Dequeue<>(); // Tasks from outside the pool
+    private final AtomicInteger parked = new AtomicInteger(); // Workers parked or about to park
+    private final LongAdder steals = new LongAdder();
+    private final LongAdder failedSteals = new LongAdder();
+    private final LongAdder parks = new LongAdder();
+    private volatile boolean shutdown;
+
+    /**
+     * Default constructor that starts one worker per available processor.
+     */
+    public WorkStealingPool() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor that starts the given number of workers.
+     *
+     * @param parallelism The number of worker threads
+     * @throws IllegalArgumentException if parallelism is not positive
+     */
+    public WorkStealingPool(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        this.workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Worker(this, i);
+        }
+        for (Worker worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Submits a task and waits for its result. Called from a worker of this
+     * pool, the task runs right away in the calling worker instead.
+     *
+     * @param task The task to run
+     * @return The result of the task
+     * @throws IllegalStateException if the pool has been shut down
+     * @throws RuntimeException or Error thrown by the task
+     */
+    public <V> V invoke(PoolTask<V> task) {
+        Worker worker = workerOrNull();
+        if (worker != null && worker.pool == this) {
+            return task.invoke();
+        }
+        return submit(task).join();
+    }
+
+    /**
+     * Submits a task to run in the pool without waiting for it. Call join()
+     * on the task for its result.
+     *
+     * @param task The task to run
+     * @return The task, for chaining
+     * @throws IllegalStateException if the pool has been shut down
+     */
+    public <V> PoolTask<V> submit(PoolTask<V> task) {
+        if (shutdown) {
+            throw new IllegalStateException("WorkStealingPool has been shut down.");
+        }
+        submissions.addLast(task);
+        if (shutdown) {
+            rejectSubmissions(); // Raced with shutdown(), which may have drained the queue already
+        } else {
+            signalWork();
+        }
+        return task;
+    }
+
+    /**
+     * Gets the number of worker threads.
+     *
+     * @return The parallelism of the pool
+     */
+    public int parallelism() {
+        return workers.length;
+    }
+
+    /**
+     * Gets the number of tasks taken from another worker's deque.
+     *
+     * @return The steal count
+     */
+    public long stealCount() {
+        return steals.sum();
+    }
+
+    /**
+     * Gets the number of steal attempts that found work in a victim's deque
+     * but lost it to the owner or to another thief.
+     *
+     * @return The failed steal count
+     */
+    public long failedStealCount() {
+        return failedSteals.sum();
+    }
+
+    /**
+     * Gets the number of times a worker parked for lack of work.
+     *
+     * @return The park count
+     */
+    public long parkCount() {
+        return parks.sum();
+    }
+
+    /**
+     * Resets the steal, failed steal and park counters to zero.
+     */
+    public void resetCounters() {
+        steals.reset();
+        failedSteals.reset();
+        parks.reset();
+    }
+
+    /**
+     * Stops accepting tasks and tells the workers to exit. Workers finish the
+     * task they are running, including the subtasks it joins. Submitted tasks
+     * still queued are not run; they finish by throwing an
+     * IllegalStateException, so a thread waiting in join() returns.
+     */
+    public void shutdown() {
+        shutdown = true;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        rejectSubmissions();
+    }
+
+    /**
+     * Shuts the pool down and waits for every worker to exit.
+     */
+    @Override
+    public void close() {
+        shutdown();
+        boolean interrupted = false;
+        for (Worker worker : workers) {
+            while (worker.isAlive()) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    interrupted = true; // Keep waiting, restore the flag afterwards
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the worker running the current thread.
+     *
+     * @return The current worker
+     * @throws IllegalStateException if the current thread is not a pool worker
+     */
+    static Worker currentWorker() {
+        Worker worker = workerOrNull();
+        if (worker == null) {
+            throw new IllegalStateException("fork() must be called from a task running in a WorkStealingPool.");
+        }
+        return worker;
+    }
+
+    /**
+     * Returns the worker running the current thread, or null if the current
+     * thread is not a pool worker.
+     *
+     * @return The current worker, or null
+     */
+    static Worker workerOrNull() {
+        Thread thread = Thread.currentThread();
+        return thread instanceof Worker ? (Worker) thread : null;
+    }
+
+    /**
+     * Takes every task off the submission queue and finishes it with an
+     * IllegalStateException. Each task is taken by exactly one pollFirst(),
+     * so a task is either run by a worker or rejected here, never both.
+     */
+    private void rejectSubmissions() {
+        PoolTask<?> task;
+        while ((task = submissions.pollFirst()) != null) {
+            task.reject(new IllegalStateException("WorkStealingPool has been shut down."));
+        }
+    }
+
+    /**
+     * Wakes one parked worker, if any. Callers have already published the new
+     * task, and a worker re-scans after it announces itself as parked, so
+     * either the worker sees the task or this sees the worker.
+     */
+    private void signalWork() {
+        if (parked.get() == 0) {
+            return;
+        }
+        for (Worker worker : workers) {
+            if (worker.parked) {
+                LockSupport.unpark(worker);
+                return;
+            }
+        }
+    }
+
+    /**
+     * A worker thread of a WorkStealingPool. It runs tasks from its own deque,
+     * the submission queue and other workers' deques until the pool shuts down.
+     */
+    static final class Worker extends Thread {
+        private final WorkStealingPool pool;
+        private final WorkStealingDequeue<PoolTask<?>> deque = new WorkStealingDequeue<>();
+        private volatile boolean parked; // Read by signalWork()
+        private long parkNanos = MIN_PARK_NANOS; // Next park timeout, doubled after each empty park
+
+        Worker(WorkStealingPool pool, int index) {
+            super("work-stealing-worker-" + index);
+            this.pool = pool;
+            setDaemon(true);
+        }
+
+        /**
+         * Pushes a forked task onto this worker's deque and wakes a parked
+         * worker to steal it.
+         *
+         * @param task The forked task
+         */
+        void push(PoolTask<?> task) {
+            deque.addLast(task);
+            pool.signalWork();
+        }
+
+        /**
+         * Runs tasks until the given task has finished. This worker first pops
+         * and runs the tasks of its own deque: those forked after the joined
+         * task, then the joined task itself. If the deque runs dry first, the
+         * task was stolen, and this worker steals and runs other tasks until
+         * it is done.
+         *
+         * Thieves take the oldest task first, so while the joined task is in
+         * the deque, nothing forked before it has been stolen, and pollLast()
+         * reaches the joined task before any of them. Once it is stolen, only
+         * tasks forked after it can be left in the deque.
+         *
+         * @param task The task being joined
+         */
+        void helpUntilDone(PoolTask<?> task) {
+            int idle = 0;
+            while (!task.isDone()) {
+                PoolTask<?> next = deque.pollLast();
+                if (next == null) {
+                    next = scan();
+                }
+                if (next != null) {
+                    next.run();
+                    idle = 0;
+                } else if (++idle <= SPINS) {
+                    Thread.onSpinWait();
+                } else if (idle <= SPINS + YIELDS) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(MIN_PARK_NANOS); // The thief does not signal joiners
+                    pool.parks.increment();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (!pool.shutdown) {
+                PoolTask<?> task = deque.pollLast();
+                if (task == null) {
+                    task = scan();
+                }
+                if (task != null) {
+                    task.run();
+                    idle = 0;
+                    parkNanos = MIN_PARK_NANOS;
+                } else if (++idle <= SPINS) {
+                    Thread.onSpinWait();
+                } else if (idle <= SPINS + YIELDS) {
+                    Thread.yield();
+                } else {
+                    park();
+                }
+            }
+        }
+
+        /**
+         * Looks for a task outside this worker's deque: first the submission
+         * queue, then every other worker's deque once, starting at a random
+         * victim.
+         *
+         * @return A task to run, or null if none was found
+         */
+        private PoolTask<?> scan() {
+            PoolTask<?> task = pool.submissions.pollFirst();
+            if (task != null) {
+                return task;
+            }
+            Worker[] workers = pool.workers;
+            int n = workers.length;
+            int start = ThreadLocalRandom.current().nextInt(n);
+            for (int i = 0; i < n; i++) {
+                Worker victim = workers[(start + i) % n];
+                if (victim == this || victim.deque.isEmpty()) {
+                    continue;
+                }
+                task = victim.deque.pollFirst();
+                if (task != null) {
+                    pool.steals.increment();
+                    return task;
+                }
+                pool.failedSteals.increment();
+            }
+            return null;
+        }
+
+        /**
+         * Parks until signalled or until the current timeout runs out, then
+         * doubles the timeout for the next park.
+         */
+        private void park() {
+            parked = true;
+            pool.parked.incrementAndGet();
+            if (!hasWork()) { // Re-check after announcing, see signalWork()
+                pool.parks.increment();
+                LockSupport.parkNanos(this, parkNanos);
+                parkNanos = Math.min(parkNanos << 1, MAX_PARK_NANOS);
+            }
+            pool.parked.decrementAndGet();
+            parked = false;
+        }
+
+        /**
+         * Checks if any deque or the submission queue looks non-empty.
+         *
+         * @return true if there may be work to do, false otherwise
+         */
+        private boolean hasWork() {
+            if (pool.shutdown || !pool.submissions.isEmpty()) {
+                return true;
+            }
+            for (Worker worker : pool.workers) {
+                if (!worker.deque.isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package src;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+import lib.errors.EmptyDequeException;
+import lib.models.*;
+
+/**
+ * A contention benchmark comparing the locked Dequeue with the lock-free
+ * ConcurrentDequeue at 1 to 64 threads.
+ *
+ * Every thread runs the same loop: add an element to one end, then pop one
+ * from the other. The reported figure is the total throughput across all
+ * threads in millions of operations per second (one add or pop counts as one
+ * operation).
+ */
+public class ContentionBenchmark {
+
+    private static final int OPS_PER_THREAD = 200_000; // add/pop pairs per thread
+    private static final int WARMUP_ROUNDS = 3; // Untimed rounds to let the JIT settle
+    private static final int[] THREAD_COUNTS = { 1, 2, 4, 8, 16, 32, 64 };
+
+    /**
+     * The two operations the benchmark loop needs, so both dequeues can run
+     * through the same harness.
+     */
+    private interface Target {
+        void add(Integer value);
+
+        void pop();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.printf("%-8s %20s %20s%n", "threads", "Dequeue (Mops/s)", "Concurrent (Mops/s)");
+
+        for (int threads : THREAD_COUNTS) {
+            double locked = measure(threads, () -> {
+                Dequeue<Integer> dequeue = new Dequeue<>();
+                return new Target() {
+                    public void add(Integer value) { dequeue.addLast(value); }
+                    public void pop() { dequeue.popFirst(); }
+                };
+            });
+            double lockFree = measure(threads, () -> {
+                ConcurrentDequeue<Integer> dequeue = new ConcurrentDequeue<>();
+                return new Target() {
+                    public void add(Integer value) { dequeue.addLast(value); }
+                    public void pop() { dequeue.popFirst(); }
+                };
+            });
+            System.out.printf("%-8d %20.2f %20.2f%n", threads, locked, lockFree);
+        }
+    }
+
+    /**
+     * Runs the warmup rounds followed by one timed round against a fresh target.
+     *
+     * @param threads The number of threads hitting the dequeue at once
+     * @param factory Creates a fresh, empty target for each round
+     * @return The throughput of the timed round in millions of operations per second
+     */
+    private static double measure(int threads, Supplier<Target> factory)
+            throws InterruptedException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(threads, factory.get());
+        }
+        long nanos = run(threads, factory.get());
+        double ops = 2.0 * OPS_PER_THREAD * threads;
+        return ops / nanos * 1_000; // ops per ns -> millions of ops per second
+    }
+
+    /**
+     * Starts all threads together and waits for them to finish.
+     *
+     * @return The wall-clock time of the round in nanoseconds
+     */
+    private static long run(int threads, Target target) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        Integer element = 42; // Shared boxed value so allocation is not measured
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        target.add(element);
+                        try {
+                            target.pop();
+                        } catch (EmptyDequeException e) {
+                            // Another thread took our element first; keep going
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown(); // Release all threads at once
+        done.await();
+        return System.nanoTime() - begin;
+    }
+}
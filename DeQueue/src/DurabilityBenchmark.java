@@ -0,0 +1,281 @@
+package src;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import lib.models.Dequeue;
+import lib.persistent.*;
+
+/**
+ * Checks and times PersistentDequeue.
+ *
+ * 1. Random adds and pops at both ends on small segments, so segments are
+ * compacted and recycled, compared step by step with an ArrayDeque, then
+ * closed, reopened and compared again.
+ * 2. Add/pop throughput of Dequeue and of PersistentDequeue with a 10 ms
+ * group commit, then of PersistentDequeue committing every operation with
+ * 1 and 8 threads sharing the commits.
+ * 3. A child JVM adds elements and reports each sync(); it is killed with
+ * SIGKILL (kill -9), and the dequeue is reopened and checked for every synced
+ * element, in order.
+ * 4. A child JVM syncs [A, C], then pops both and adds D at the position C
+ * had, without syncing, and is killed. The reopened dequeue must hold a state
+ * the child went through, never C's position with D in it.
+ *
+ * Usage: java src.DurabilityBenchmark [directory]   (default: a temporary directory)
+ */
+public class DurabilityBenchmark {
+
+    private static final int OPS = 2_000_000; // Add/pop pairs per throughput round
+    private static final int SYNC_OPS = 2_000; // Add/pop pairs per thread when every operation commits
+    private static final int ROUNDS = 3; // The first rounds warm up the JIT
+    private static final int SYNCED_BEFORE_KILL = 200_000; // Elements the child syncs before it is killed
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("--child")) {
+            child(Paths.get(args[1]));
+            return;
+        }
+        if (args.length == 2 && args[0].equals("--reuse-child")) {
+            reuseChild(Paths.get(args[1]));
+            return;
+        }
+        Path root = args.length > 0 ? Paths.get(args[0]) : Files.createTempDirectory("persistent-dequeue");
+        try {
+            boolean ok = checkAgainstArrayDeque(root.resolve("check"));
+            System.out.println("model check " + (ok ? "PASSED" : "FAILED"));
+            ok &= throughput(root.resolve("throughput"));
+            ok &= crashRecovery(root.resolve("crash"));
+            ok &= reusedPositionRecovery(root.resolve("reuse"));
+            if (!ok) {
+                System.exit(1);
+            }
+        } finally {
+            if (args.length == 0) {
+                delete(root);
+            }
+        }
+    }
+
+    /**
+     * Runs random operations against a PersistentDequeue and an ArrayDeque
+     * and compares every result, then reopens the directory.
+     */
+    private static boolean checkAgainstArrayDeque(Path directory) throws IOException {
+        Random random = new Random(42);
+        ArrayDeque<String> model = new ArrayDeque<>();
+        int segmentBytes = 256 * 1024; // Compacted often under this churn
+        try (PersistentDequeue<String> dequeue = new PersistentDequeue<>(directory, Serializer.strings(), 5,
+                segmentBytes)) {
+            for (int i = 0; i < 1_000_000; i++) {
+                int op = random.nextInt(10);
+                if (op < 3) {
+                    String value = "first-" + i;
+                    dequeue.addFirst(value);
+                    model.addFirst(value);
+                } else if (op < 6) {
+                    String value = "last-" + i;
+                    dequeue.addLast(value);
+                    model.addLast(value);
+                } else if (!model.isEmpty()) {
+                    String expected = op < 8 ? model.pollFirst() : model.pollLast();
+                    String actual = op < 8 ? dequeue.popFirst() : dequeue.popLast();
+                    if (!expected.equals(actual) || dequeue.size() != model.size()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        try (PersistentDequeue<String> reopened = new PersistentDequeue<>(directory, Serializer.strings(), 5,
+                segmentBytes)) {
+            if (reopened.size() != model.size()) {
+                return false;
+            }
+            while (!model.isEmpty()) {
+                if (!model.pollFirst().equals(reopened.popFirst())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Times add/pop pairs on the in-memory and the persistent dequeue.
+     */
+    private static boolean throughput(Path directory) throws Exception {
+        System.out.printf("%-34s %12s%n", "dequeue", "Mops/s");
+        Dequeue<Long> memory = new Dequeue<>();
+        try (PersistentDequeue<Long> batched = new PersistentDequeue<>(directory.resolve("batched"),
+                Serializer.longs())) {
+            for (int round = 0; round < ROUNDS; round++) {
+                boolean last = round == ROUNDS - 1;
+                long start = System.nanoTime();
+                for (long i = 0; i < OPS; i++) {
+                    memory.addLast(i);
+                    memory.popFirst();
+                }
+                long memoryNanos = System.nanoTime() - start;
+                report("Dequeue", 2L * OPS, memoryNanos, last);
+                start = System.nanoTime();
+                for (long i = 0; i < OPS; i++) {
+                    batched.addLast(i);
+                    batched.popFirst();
+                }
+                long batchedNanos = System.nanoTime() - start;
+                report("PersistentDequeue, 10 ms commits", 2L * OPS, batchedNanos, last);
+                if (last) {
+                    System.out.printf("%-34s %11.1fx%n", "  slower than Dequeue by", (double) batchedNanos / memoryNanos);
+                }
+            }
+        }
+        for (int threads : new int[] { 1, 8 }) {
+            try (PersistentDequeue<Long> synced = new PersistentDequeue<>(directory.resolve("sync-" + threads),
+                    Serializer.longs(), 0)) {
+                Thread[] workers = new Thread[threads];
+                long start = System.nanoTime();
+                for (int t = 0; t < threads; t++) {
+                    workers[t] = new Thread(() -> {
+                        for (long i = 0; i < SYNC_OPS; i++) {
+                            synced.addLast(i);
+                            synced.popFirst();
+                        }
+                    });
+                    workers[t].start();
+                }
+                for (Thread worker : workers) {
+                    worker.join();
+                }
+                report("PersistentDequeue, sync, " + threads + " thr", 2L * SYNC_OPS * threads,
+                        System.nanoTime() - start, true);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Kills a child JVM that is adding elements, reopens its dequeue and
+     * checks that every element it synced is there, in order.
+     */
+    private static boolean crashRecovery(Path directory) throws Exception {
+        Process process = startChild("--child", directory);
+        long synced = 0;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while (synced < SYNCED_BEFORE_KILL && (line = out.readLine()) != null) {
+                if (line.startsWith("synced ")) {
+                    synced = Long.parseLong(line.substring("synced ".length()));
+                }
+            }
+            process.destroyForcibly(); // SIGKILL on Linux and macOS
+            process.waitFor();
+        }
+
+        long start = System.nanoTime();
+        try (PersistentDequeue<Long> recovered = new PersistentDequeue<>(directory, Serializer.longs())) {
+            long recoveryNanos = System.nanoTime() - start;
+            int size = recovered.size();
+            boolean ok = size >= synced;
+            for (long i = 0; ok && i < size; i++) {
+                ok = recovered.popFirst() == i;
+            }
+            System.out.printf("killed after %d synced elements: recovered %d in %.1f ms, %s%n", synced, size,
+                    recoveryNanos / 1e6, ok ? "PASSED" : "FAILED");
+            return ok;
+        }
+    }
+
+    /**
+     * Kills a child JVM that reused a popped position without syncing, and
+     * checks that the reopened dequeue holds one of the states the child
+     * went through. Repointing the index before a commit used to give [A, D].
+     */
+    private static boolean reusedPositionRecovery(Path directory) throws Exception {
+        Process process = startChild("--reuse-child", directory);
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = out.readLine()) != null && !line.equals("reused")) {
+                // Wait until the child has added D
+            }
+            process.destroyForcibly();
+            process.waitFor();
+        }
+
+        List<String> contents = new ArrayList<>();
+        try (PersistentDequeue<String> recovered = new PersistentDequeue<>(directory, Serializer.strings())) {
+            while (!recovered.isEmpty()) {
+                contents.add(recovered.popFirst());
+            }
+        }
+        boolean ok = List.of(List.of("A", "C"), List.of("A"), List.of(), List.of("D")).contains(contents);
+        System.out.printf("killed after reusing a popped position: recovered %s, %s%n", contents,
+                ok ? "PASSED" : "FAILED");
+        return ok;
+    }
+
+    private static Process startChild(String mode, Path directory) throws IOException {
+        return new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(), "-cp",
+                System.getProperty("java.class.path"), DurabilityBenchmark.class.getName(), mode,
+                directory.toString()).redirectErrorStream(true).start();
+    }
+
+    /**
+     * Body of the child JVM: adds 0, 1, 2, ... and prints the count after
+     * each sync() until it is killed.
+     */
+    private static void child(Path directory) throws IOException {
+        try (PersistentDequeue<Long> dequeue = new PersistentDequeue<>(directory, Serializer.longs())) {
+            for (long i = 0;; i++) {
+                dequeue.addLast(i);
+                if ((i + 1) % 10_000 == 0) {
+                    dequeue.sync();
+                    System.out.println("synced " + (i + 1));
+                    System.out.flush();
+                }
+            }
+        }
+    }
+
+    /**
+     * Body of the reuse child JVM: syncs [A, C], then pops C and A and adds D
+     * at the position C had, with no sync and a commit interval long enough
+     * that only a commit made by the add itself can happen before the kill.
+     */
+    private static void reuseChild(Path directory) throws Exception {
+        try (PersistentDequeue<String> dequeue = new PersistentDequeue<>(directory, Serializer.strings(),
+                TimeUnit.HOURS.toMillis(1))) {
+            dequeue.addLast("A");
+            dequeue.addLast("C");
+            dequeue.sync();
+            dequeue.popLast();
+            dequeue.popFirst();
+            dequeue.addLast("D");
+            System.out.println("reused");
+            System.out.flush();
+            Thread.sleep(Long.MAX_VALUE); // Killed here
+        }
+    }
+
+    private static void report(String name, long ops, long nanos, boolean print) {
+        if (print) {
+            System.out.printf("%-34s %12.3f%n", name, ops * 1e3 / nanos);
+        }
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
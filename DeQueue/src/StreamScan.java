@@ -0,0 +1,99 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import lib.models.*;
+
+/**
+ * Checks and times the iterators and streams of Dequeue.
+ *
+ * First it checks that iterator(), descendingIterator(), stream() and
+ * parallelStream() see every element of a quiet dequeue in the right order.
+ * Then it sums a large dequeue with a sequential and a parallel stream while a
+ * writer thread keeps adding to the tail and popping from the head, and
+ * reports how many writes went through during the scans.
+ *
+ * Usage: java src.StreamScan [elements]   (default 2,000,000)
+ */
+public class StreamScan {
+
+    private static final int ROUNDS = 5; // The first rounds warm up the JIT
+
+    public static void main(String[] args) throws InterruptedException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Dequeue<Long> dequeue = new Dequeue<>();
+        List<Long> values = new ArrayList<>(n);
+        for (long i = 0; i < n; i++) {
+            values.add(i);
+        }
+        dequeue.addAllLast(values);
+        long expected = (long) n * (n - 1) / 2;
+
+        boolean ok = check(dequeue, n, expected);
+        System.out.println("quiet checks " + (ok ? "PASSED" : "FAILED"));
+        if (!ok) {
+            System.exit(1);
+        }
+
+        // A writer moves elements from the head to the tail, keeping the size and the sum
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong writes = new AtomicLong();
+        Thread writer = new Thread(() -> {
+            while (running.get()) {
+                dequeue.addLast(dequeue.popFirst());
+                writes.incrementAndGet();
+            }
+        });
+        writer.start();
+
+        System.out.printf("%-10s %10s %14s%n", "stream", "ms", "writes/scan");
+        for (int round = 0; round < ROUNDS; round++) {
+            boolean last = round == ROUNDS - 1;
+            scan("sequential", last, writes, () -> dequeue.stream().mapToLong(Long::longValue).sum());
+            scan("parallel", last, writes, () -> dequeue.parallelStream().mapToLong(Long::longValue).sum());
+        }
+        running.set(false);
+        writer.join();
+    }
+
+    /**
+     * Checks every traversal against the expected contents of a quiet dequeue
+     * holding 0 to n - 1 in order.
+     */
+    private static boolean check(Dequeue<Long> dequeue, int n, long expected) {
+        long previous = -1;
+        int count = 0;
+        for (Long value : dequeue) {
+            if (value != previous + 1) {
+                return false;
+            }
+            previous = value;
+            count++;
+        }
+        Iterator<Long> descending = dequeue.descendingIterator();
+        boolean ordered = count == n && descending.hasNext() && descending.next() == n - 1;
+        return ordered
+                && dequeue.stream().mapToLong(Long::longValue).sum() == expected
+                && dequeue.parallelStream().mapToLong(Long::longValue).sum() == expected
+                && dequeue.parallelStream().count() == n;
+    }
+
+    /**
+     * Runs one scan and prints its time and the writes that overlapped it if
+     * this is the measured round.
+     */
+    private static void scan(String name, boolean print, AtomicLong writes, LongSupplier sum) {
+        long before = writes.get();
+        long start = System.nanoTime();
+        sum.getAsLong();
+        long nanos = System.nanoTime() - start;
+        if (print) {
+            System.out.printf("%-10s %10.1f %14d%n", name, nanos / 1e6, writes.get() - before);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package src;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongSupplier;
+
+import lib.scheduler.*;
+
+/**
+ * Runs the same recursive divide-and-conquer workload on a WorkStealingPool
+ * and on a ForkJoinPool of the same size, checks that both get the right
+ * answer, and reports the times along with the steal, failed steal and park
+ * counters of the WorkStealingPool.
+ *
+ * The workload is the naive recursive Fibonacci: every call above the cutoff
+ * forks fib(n - 1) and computes fib(n - 2) itself, so the task tree is deep and
+ * lopsided and the workers have to steal to stay busy.
+ *
+ * Usage: java src.WorkStealingReport [n] [threads]   (default 34, all processors)
+ */
+public class WorkStealingReport {
+
+    private static final int CUTOFF = 16; // Below this fib(n) runs sequentially
+    private static final int ROUNDS = 5; // The first rounds warm up the JIT
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 34;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long expected = sequentialFib(n);
+
+        boolean checked = checkJoinOrder(threads) && checkShutdown();
+        System.out.println("join and shutdown checks " + (checked ? "PASSED" : "FAILED"));
+        if (!checked) {
+            System.exit(1);
+        }
+
+        try (WorkStealingPool pool = new WorkStealingPool(threads)) {
+            ForkJoinPool forkJoinPool = new ForkJoinPool(threads);
+            System.out.printf("fib(%d) on %d threads%n", n, threads);
+            System.out.printf("%-18s %10s %12s %14s %10s%n", "pool", "ms", "steals", "failed steals", "parks");
+            boolean ok = true;
+            for (int round = 0; round < ROUNDS; round++) {
+                boolean last = round == ROUNDS - 1;
+                pool.resetCounters();
+                ok &= run("WorkStealingPool", last, expected, () -> pool.invoke(new PoolFib(n)));
+                if (last) {
+                    System.out.printf(" %12d %14d %10d%n", pool.stealCount(), pool.failedStealCount(),
+                            pool.parkCount());
+                }
+                ok &= run("ForkJoinPool", last, expected, () -> forkJoinPool.invoke(new ForkJoinFib(n)));
+                if (last) {
+                    System.out.printf(" %12d %14s %10s%n", forkJoinPool.getStealCount(), "-", "-");
+                }
+            }
+            forkJoinPool.shutdown();
+            System.out.println("results " + (ok ? "PASSED" : "FAILED"));
+            if (!ok) {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Runs the workload once, prints its time if this is the measured round,
+     * and returns whether the result was right.
+     */
+    private static boolean run(String name, boolean print, long expected, LongSupplier fib) {
+        long start = System.nanoTime();
+        long result = fib.getAsLong();
+        long nanos = System.nanoTime() - start;
+        if (print) {
+            System.out.printf("%-18s %10.1f", name, nanos / 1e6);
+        }
+        return result == expected;
+    }
+
+    /**
+     * Forks both halves of every split and joins them in the order they were
+     * forked, so the first join finds its task under the second one. Runs on a
+     * single worker, where nobody can steal, and on the full pool.
+     */
+    private static boolean checkJoinOrder(int threads) {
+        long expected = sequentialFib(24);
+        for (int parallelism : new int[] { 1, threads }) {
+            try (WorkStealingPool pool = new WorkStealingPool(parallelism)) {
+                PoolTask<Long> task = pool.submit(new ForkBothFib(24));
+                if (task.join() != expected) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shuts down a single-worker pool while the worker is busy and a second
+     * submission is still queued, and checks that joining the queued task
+     * throws instead of waiting forever.
+     */
+    private static boolean checkShutdown() {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (WorkStealingPool pool = new WorkStealingPool(1)) {
+            PoolTask<Long> busy = pool.submit(new PoolTask<Long>() {
+                @Override
+                protected Long compute() {
+                    started.countDown();
+                    awaitUninterruptibly(release);
+                    return 1L;
+                }
+            });
+            PoolTask<Long> queued = pool.submit(new PoolFib(CUTOFF));
+            awaitUninterruptibly(started);
+            pool.shutdown();
+            release.countDown();
+            try {
+                queued.join();
+                return false;
+            } catch (IllegalStateException e) {
+                // Expected: the pool shut down before the task ran
+            }
+            return busy.join() == 1L; // The running task still finishes
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException e) {
+                // Keep waiting
+            }
+        }
+    }
+
+    private static long sequentialFib(int n) {
+        return n < 2 ? n : sequentialFib(n - 1) + sequentialFib(n - 2);
+    }
+
+    /**
+     * fib(n) as a WorkStealingPool task.
+     */
+    private static final class PoolFib extends PoolTask<Long> {
+        private final int n;
+
+        PoolFib(int n) {
+            this.n = n;
+        }
+
+        @Override
+        protected Long compute() {
+            if (n < CUTOFF) {
+                return sequentialFib(n);
+            }
+            PoolFib left = new PoolFib(n - 1);
+            left.fork();
+            long right = new PoolFib(n - 2).compute();
+            return left.join() + right;
+        }
+    }
+
+    /**
+     * fib(n) as a WorkStealingPool task that forks both halves and joins the
+     * first one it forked first.
+     */
+    private static final class ForkBothFib extends PoolTask<Long> {
+        private final int n;
+
+        ForkBothFib(int n) {
+            this.n = n;
+        }
+
+        @Override
+        protected Long compute() {
+            if (n < 2) {
+                return (long) n;
+            }
+            ForkBothFib left = new ForkBothFib(n - 1);
+            ForkBothFib right = new ForkBothFib(n - 2);
+            left.fork();
+            right.fork();
+            return left.join() + right.join();
+        }
+    }
+
+    /**
+     * fib(n) as a ForkJoinPool task, split the same way as PoolFib.
+     */
+    private static final class ForkJoinFib extends RecursiveTask<Long> {
+        private final int n;
+
+        ForkJoinFib(int n) {
+            this.n = n;
+        }
+
+        @Override
+        protected Long compute() {
+            if (n < CUTOFF) {
+                return sequentialFib(n);
+            }
+            ForkJoinFib left = new ForkJoinFib(n - 1);
+            left.fork();
+            long right = new ForkJoinFib(n - 2).compute();
+            return left.join() + right;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Implements a doubly linked list whose nodes are handed out to the caller.
+ *
+ * Each node links to its neighbours in both directions:
+ *
+ * [ null <- 1 <-> 2 <-> 3 <-> 4 -> null ]
+ *
+ * addFirst() and addLast() return the new node. A caller that keeps the node
+ * (in a hash map, say) can later remove it or move it to the front in O(1),
+ * with no scan for its element. java.util.LinkedList and Dequeue keep their
+ * nodes private, so the same operations cost O(n) there.
+ *
+ * This class is not thread-safe.
+ *
+ * @param <E> the type of elements held in this list.
+ */
+public class DoublyLinkedList<E> implements Iterable<E> {
+
+    /**
+     * A node of the list, handed out by addFirst() and addLast().
+     *
+     * @param <E> the type of the element held in this node.
+     */
+    public static final class Node<E> {
+        private final E element; // The element this node holds
+        private Node<E> prev; // Previous node, null at the head
+        private Node<E> next; // Next node, null at the tail
+        private DoublyLinkedList<E> list; // The list the node belongs to, null once removed
+
+        private Node(E element, DoublyLinkedList<E> list) {
+            this.element = element;
+            this.list = list;
+        }
+
+        /**
+         * Returns the element held in this node.
+         *
+         * @return the element.
+         */
+        public E element() {
+            return element;
+        }
+
+        /**
+         * Checks whether the node is still part of a list.
+         *
+         * @return true until the node is removed.
+         */
+        public boolean isLinked() {
+            return list != null;
+        }
+    }
+
+    private Node<E> head; // First node, null when empty
+    private Node<E> tail; // Last node, null when empty
+    private int size; // Number of elements in the list
+    private int modCount; // Structural changes, so iterators can fail fast
+
+    /**
+     * Constructs an empty list.
+     */
+    public DoublyLinkedList() {
+    }
+
+    /**
+     * Inserts an element at the beginning of the list.
+     *
+     * @param element the element to add.
+     * @return the node holding the element.
+     */
+    public Node<E> addFirst(E element) {
+        Node<E> n = new Node<>(element, this);
+        linkFirst(n);
+        size++;
+        modCount++;
+        return n;
+    }
+
+    /**
+     * Appends an element to the end of the list.
+     *
+     * @param element the element to add.
+     * @return the node holding the element.
+     */
+    public Node<E> addLast(E element) {
+        Node<E> n = new Node<>(element, this);
+        n.prev = tail;
+        if (tail == null) {
+            head = n;
+        } else {
+            tail.next = n;
+        }
+        tail = n;
+        size++;
+        modCount++;
+        return n;
+    }
+
+    /**
+     * Removes a node from the list in O(1).
+     *
+     * @param n a node returned by this list.
+     * @return the element the node held.
+     * @throws IllegalArgumentException if the node does not belong to this list.
+     */
+    public E remove(Node<E> n) {
+        checkOwner(n);
+        unlink(n);
+        n.list = null;
+        size--;
+        modCount++;
+        return n.element;
+    }
+
+    /**
+     * Moves a node to the beginning of the list in O(1). Does not allocate.
+     *
+     * @param n a node returned by this list.
+     * @throws IllegalArgumentException if the node does not belong to this list.
+     */
+    public void moveToFront(Node<E> n) {
+        checkOwner(n);
+        if (n == head) {
+            return;
+        }
+        unlink(n);
+        linkFirst(n);
+        modCount++;
+    }
+
+    /**
+     * Removes and returns the first element of the list.
+     *
+     * @return the first element.
+     * @throws NoSuchElementException if the list is empty.
+     */
+    public E removeFirst() {
+        if (head == null) {
+            throw new NoSuchElementException("Cannot remove from an empty list");
+        }
+        return remove(head);
+    }
+
+    /**
+     * Removes and returns the last element of the list.
+     *
+     * @return the last element.
+     * @throws NoSuchElementException if the list is empty.
+     */
+    public E removeLast() {
+        if (tail == null) {
+            throw new NoSuchElementException("Cannot remove from an empty list");
+        }
+        return remove(tail);
+    }
+
+    /**
+     * Returns the first node of the list.
+     *
+     * @return the first node, or null if the list is empty.
+     */
+    public Node<E> first() {
+        return head;
+    }
+
+    /**
+     * Returns the last node of the list.
+     *
+     * @return the last node, or null if the list is empty.
+     */
+    public Node<E> last() {
+        return tail;
+    }
+
+    /**
+     * Returns the number of elements in the list.
+     *
+     * @return the number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the list contains no elements.
+     *
+     * @return true if the list is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every element from the list. Outstanding nodes become unlinked.
+     */
+    public void clear() {
+        for (Node<E> n = head; n != null; ) {
+            Node<E> next = n.next;
+            n.prev = null;
+            n.next = null;
+            n.list = null;
+            n = next;
+        }
+        head = tail = null;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns an iterator over the elements, from head to tail.
+     *
+     * @return an iterator over the elements.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private Node<E> next = head; // Next node to return
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public E next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                E element = next.element;
+                next = next.next;
+                return element;
+            }
+        };
+    }
+
+    /**
+     * Prints the elements of the list in a human-readable format.
+     */
+    public void print() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[ null <- ");
+        for (Node<E> n = head; n != null; n = n.next) {
+            sb.append(n.element).append(n.next == null ? " -> " : " <-> ");
+        }
+        sb.append("null ]");
+        System.out.println(sb.toString());
+    }
+
+    private void checkOwner(Node<E> n) {
+        if (n.list != this) {
+            throw new IllegalArgumentException("Node is not part of this list");
+        }
+    }
+
+    /**
+     * Links a detached node in front of the head.
+     */
+    private void linkFirst(Node<E> n) {
+        n.prev = null;
+        n.next = head;
+        if (head == null) {
+            tail = n;
+        } else {
+            head.prev = n;
+        }
+        head = n;
+    }
+
+    /**
+     * Detaches a node from its neighbours, leaving its own links unset.
+     */
+    private void unlink(Node<E> n) {
+        if (n.prev == null) {
+            head = n.next;
+        } else {
+            n.prev.next = n.next;
+        }
+        if (n.next == null) {
+            tail = n.prev;
+        } else {
+            n.next.prev = n.prev;
+        }
+        n.prev = null;
+        n.next = null;
+    }
+}
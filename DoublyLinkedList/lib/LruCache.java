@@ -0,0 +1,283 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Implements a least-recently-used cache bounded by total weight.
+ *
+ * Entries are kept in a HashMap for lookup and in a DoublyLinkedList ordered
+ * from most to least recently used. Each entry holds its list node, so:
+ *
+ * - get() finds the entry in the map and moves its node to the front. Both
+ *   steps are O(1) and allocate nothing, so hits create no garbage.
+ * - put() adds the entry at the front, then evicts from the back until the
+ *   total weight fits under the bound again.
+ *
+ * Every entry weighs what the weigher says (1 by default), so the bound can
+ * be a number of entries or, say, a number of bytes. Eviction listeners are
+ * told about every entry evicted to stay under the bound. They run after the
+ * cache lock has been released, so they may call back into the cache.
+ *
+ * All operations take a single lock. Null keys and values are not allowed.
+ *
+ * @param <K> the type of keys in this cache.
+ * @param <V> the type of values in this cache.
+ */
+public class LruCache<K, V> {
+
+    /**
+     * A cached entry and its position in the recency list.
+     */
+    private static final class Entry<K, V> {
+        private final K key;
+        private V value;
+        private int weight;
+        private DoublyLinkedList.Node<Entry<K, V>> node;
+
+        Entry(K key, V value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private final long maxWeight; // Bound on the total weight of all entries
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+    private final HashMap<K, Entry<K, V>> map = new HashMap<>();
+    private final DoublyLinkedList<Entry<K, V>> recency = new DoublyLinkedList<>(); // Most recent first
+    private final List<BiConsumer<? super K, ? super V>> listeners = new CopyOnWriteArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long weight; // Total weight of all entries
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs an empty cache in which every entry weighs 1, so the bound
+     * is a number of entries.
+     *
+     * @param maxEntries the largest number of entries the cache holds.
+     */
+    public LruCache(long maxEntries) {
+        this(maxEntries, (key, value) -> 1);
+    }
+
+    /**
+     * Constructs an empty cache bounded by total weight.
+     *
+     * @param maxWeight the largest total weight of the entries.
+     * @param weigher   computes the weight of an entry; must not be negative.
+     * @throws IllegalArgumentException if the bound is not positive.
+     */
+    public LruCache(long maxWeight, ToIntBiFunction<? super K, ? super V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Invalid maximum weight: " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Registers a listener that is called with the key and value of every
+     * entry evicted to keep the cache under its bound. Entries removed with
+     * remove() or replaced by put() are not reported.
+     *
+     * @param listener the listener to call.
+     */
+    public void addEvictionListener(BiConsumer<? super K, ? super V> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Returns the value cached for the key and marks the entry as most
+     * recently used. O(1), and does not allocate.
+     *
+     * @param key the key to look up.
+     * @return the cached value, or null on a miss.
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            Entry<K, V> e = map.get(key);
+            if (e == null) {
+                misses++;
+                return null;
+            }
+            recency.moveToFront(e.node);
+            hits++;
+            return e.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caches the value for the key as the most recently used entry,
+     * replacing any previous value, then evicts least recently used entries
+     * until the total weight fits under the bound. An entry heavier than the
+     * bound is evicted right away.
+     *
+     * @param key   the key, not null.
+     * @param value the value, not null.
+     * @return the previous value, or null if the key was not cached.
+     * @throws NullPointerException     if the key or value is null.
+     * @throws IllegalArgumentException if the weigher returns a negative weight.
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException("Null keys and values are not allowed");
+        }
+        int w = weigher.applyAsInt(key, value);
+        if (w < 0) {
+            throw new IllegalArgumentException("Negative weight: " + w);
+        }
+        V previous = null;
+        List<Entry<K, V>> evicted = null;
+        lock.lock();
+        try {
+            Entry<K, V> e = map.get(key);
+            if (e != null) {
+                previous = e.value;
+                weight += w - e.weight;
+                e.value = value;
+                e.weight = w;
+                recency.moveToFront(e.node);
+            } else {
+                e = new Entry<>(key, value, w);
+                e.node = recency.addFirst(e);
+                map.put(key, e);
+                weight += w;
+            }
+            while (weight > maxWeight) {
+                Entry<K, V> victim = recency.removeLast();
+                map.remove(victim.key);
+                weight -= victim.weight;
+                evictions++;
+                if (!listeners.isEmpty()) {
+                    if (evicted == null) {
+                        evicted = new ArrayList<>();
+                    }
+                    evicted.add(victim);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (evicted != null) {
+            notifyEvicted(evicted);
+        }
+        return previous;
+    }
+
+    /**
+     * Removes the key from the cache.
+     *
+     * @param key the key to remove.
+     * @return the removed value, or null if the key was not cached.
+     */
+    public V remove(K key) {
+        lock.lock();
+        try {
+            Entry<K, V> e = map.remove(key);
+            if (e == null) {
+                return null;
+            }
+            recency.remove(e.node);
+            weight -= e.weight;
+            return e.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return map.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total weight of the cached entries.
+     *
+     * @return the total weight.
+     */
+    public long weight() {
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the bound on the total weight.
+     *
+     * @return the maximum weight.
+     */
+    public long maxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Returns the number of get() calls that found a value.
+     *
+     * @return the hit count.
+     */
+    public long hitCount() {
+        lock.lock();
+        try {
+            return hits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of get() calls that found nothing.
+     *
+     * @return the miss count.
+     */
+    public long missCount() {
+        lock.lock();
+        try {
+            return misses;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of entries evicted to stay under the bound.
+     *
+     * @return the eviction count.
+     */
+    public long evictionCount() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void notifyEvicted(List<Entry<K, V>> evicted) {
+        for (Entry<K, V> e : evicted) {
+            for (BiConsumer<? super K, ? super V> listener : listeners) {
+                listener.accept(e.key, e.value);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Demonstrates DoublyLinkedList and LruCache, then measures the time and
+ * heap allocation of LruCache.get() hits.
+ *
+ * Usage: java Main [entries]   (default 100,000 entries)
+ */
+public class Main {
+
+    private static final int LOOKUPS = 20_000_000;
+
+    public static void main(String[] args) {
+        DoublyLinkedList<String> list = new DoublyLinkedList<>();
+        list.addLast("b");
+        DoublyLinkedList.Node<String> c = list.addLast("c");
+        list.addFirst("a");
+        list.print(); // Output: [ null <- a <-> b <-> c -> null ]
+        list.moveToFront(c);
+        list.print(); // Output: [ null <- c <-> a <-> b -> null ]
+
+        // A cache bounded by total value length, with a listener for evictions
+        LruCache<String, String> text = new LruCache<>(10, (key, value) -> value.length());
+        text.addEvictionListener((key, value) -> System.out.println("evicted " + key + "=" + value));
+        text.put("one", "1111");
+        text.put("two", "2222");
+        text.get("one"); // "one" is now the most recent, so "two" goes first
+        text.put("three", "3333"); // Output: evicted two=2222
+        System.out.println("weight " + text.weight() + " of " + text.maxWeight());
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Integer[] keys = new Integer[n]; // Boxed once up front, so lookups box nothing
+        LruCache<Integer, Object> cache = new LruCache<>(n);
+        Object value = new Object();
+        for (int i = 0; i < n; i++) {
+            keys[i] = i;
+            cache.put(keys[i], value);
+        }
+
+        for (int round = 0; round < 3; round++) { // The first rounds warm up the JIT
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                if (cache.get(keys[(int) ((i * 2654435761L) % n)]) == null) {
+                    throw new IllegalStateException("Unexpected miss");
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            bytes = allocatedBytes() - bytes;
+            System.out.printf("%nround %d: %.1f ns/get, %.3f bytes allocated/get", round,
+                    (double) nanos / LOOKUPS, (double) bytes / LOOKUPS);
+        }
+        System.out.println();
+    }
+
+    /**
+     * Returns the number of heap bytes the current thread has allocated so
+     * far, as counted by the JVM.
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
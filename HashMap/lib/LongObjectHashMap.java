@@ -0,0 +1,250 @@
+import java.util.Arrays;
+
+/**
+ * Implements a hash map from primitive long keys to object values using open
+ * addressing.
+ * Unlike java.util.HashMap&lt;Long, V&gt;, keys are never boxed and no entry node
+ * is allocated per mapping: keys and values live in two parallel arrays, and
+ * slot i holds the mapping keys[i] -&gt; values[i]. A null value marks a free
+ * slot, so null values cannot be stored.
+ *
+ * Collisions are resolved by linear probing: a key that hashes to an occupied
+ * slot goes into the next free slot after it. The array length is always a
+ * power of two so the home slot is (hash &amp; mask), and the table doubles once
+ * the number of mappings exceeds capacity * loadFactor.
+ *
+ * Removal uses backward-shift deletion instead of tombstones: after a slot is
+ * emptied, later entries of the same probe run are moved back into the gap.
+ * Probe runs therefore never contain dead slots, and lookups never slow down
+ * after many removals.
+ *
+ * get, put on an existing key, containsKey and remove never allocate.
+ *
+ * @param <V> the type of values held in this map.
+ */
+public class LongObjectHashMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final float loadFactor; // Fraction of slots that may be in use before growing
+    private long[] keys; // keys[i] is the key stored in slot i
+    private Object[] values; // values[i] is the value stored in slot i, null if the slot is free
+    private int mask; // keys.length - 1
+    private int size; // Number of mappings
+    private int resizeAt; // Size above which the table doubles
+
+    /**
+     * Constructs an empty map with the default capacity and load factor (0.5).
+     */
+    public LongObjectHashMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty map with room for the expected number of mappings
+     * before it has to grow.
+     *
+     * @param expectedSize the number of mappings to reserve room for.
+     * @param loadFactor   the fraction of slots that may be in use, between 0 and 1.
+     * @throws IllegalArgumentException if expectedSize is negative or loadFactor is out of range.
+     */
+    public LongObjectHashMap(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Invalid expected size: " + expectedSize);
+        }
+        if (!(loadFactor > 0f && loadFactor < 1f)) {
+            throw new IllegalArgumentException("Invalid load factor: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        allocate(tableSizeFor((long) Math.ceil(expectedSize / (double) loadFactor) + 1));
+    }
+
+    /**
+     * Returns the value mapped to the key.
+     *
+     * @param key the key to look up.
+     * @return the mapped value, or null if the key is not in the map.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            Object value = values[i];
+            if (value == null) {
+                return null; // Reached the end of the probe run
+            }
+            if (keys[i] == key) {
+                return (V) value;
+            }
+        }
+    }
+
+    /**
+     * Checks if the key is in the map.
+     *
+     * @param key the key to look up.
+     * @return true if the key is mapped to a value.
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps the key to the value, replacing any previous value.
+     *
+     * @param key   the key.
+     * @param value the value, not null.
+     * @return the previous value, or null if the key was not in the map.
+     * @throws NullPointerException if the value is null.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Cannot map a key to null");
+        }
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value; // Existing key: replace in place
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key; // First free slot of the probe run
+        values[i] = value;
+        if (++size > resizeAt) {
+            grow();
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping for the key and closes the gap with backward-shift
+     * deletion.
+     *
+     * @param key the key to remove.
+     * @return the removed value, or null if the key was not in the map.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                shiftBack(i);
+                size--;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of mappings in the map.
+     *
+     * @return the number of mappings.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return true if the map contains no mappings.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every mapping. The table keeps its capacity.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Returns the number of slots in the table.
+     *
+     * @return the length of the key and value arrays.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Empties slot i, then walks the rest of its probe run and moves back every
+     * entry whose home slot lies at or before the gap, so no lookup ever has
+     * to step over an empty slot to reach its key.
+     *
+     * @param gap the slot to empty.
+     */
+    private void shiftBack(int gap) {
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) {
+                break; // End of the probe run
+            }
+            int home = slot(keys[i]);
+            // Move the entry if the gap lies cyclically between its home and its slot
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        values[gap] = null;
+    }
+
+    /**
+     * Doubles the table and reinserts every mapping.
+     */
+    private void grow() {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Map is full");
+        }
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(keys.length << 1);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j]);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+    /**
+     * Returns the home slot of a key. The key is mixed first so that keys
+     * differing only in their high bits, or forming arithmetic sequences, do
+     * not cluster in the low bits used by the mask.
+     */
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int tableSizeFor(long n) {
+        if (n >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Math.max(DEFAULT_CAPACITY, Integer.highestOneBit((int) n - 1) << 1);
+    }
+}
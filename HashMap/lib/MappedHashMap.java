@@ -0,0 +1,444 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implements a persistent hash map from fixed-width byte[] keys to
+ * variable-length byte[] values, stored off-heap in memory-mapped files.
+ *
+ * The map lives in two files:
+ *
+ * - The index file (the given path) holds a 64-byte header followed by an
+ *   open-addressing slot table. Each slot stores the key bytes, the offset of
+ *   the value in the data file and the value length. A zero offset marks a
+ *   free slot. Collisions are resolved by linear probing, and removals use
+ *   backward-shift deletion, as in LongObjectHashMap.
+ * - The data file (the given path plus ".data") holds the value bytes,
+ *   appended one after another. It is mapped in fixed-size segments, and a
+ *   new segment is mapped whenever the data outgrows the existing ones.
+ *
+ * Because the on-disk layout is the in-memory layout, reopening an existing
+ * map only maps the files and reads the header; there is no deserialization
+ * pass, so a map with millions of entries is usable within milliseconds.
+ *
+ * When the slot table passes its load factor, a table of twice the size is
+ * written to a temporary file, forced to disk and atomically renamed over the
+ * index file, then mapped in place of the old one. Values are never moved.
+ * Overwritten and removed values stay in the data file as garbage.
+ *
+ * Changes reach the page cache immediately, but are only guaranteed to
+ * survive a crash after force() returns. This class is not thread-safe.
+ */
+public class MappedHashMap implements Closeable {
+
+    private static final int MAGIC = 0x4D484D31; // "MHM1"
+    private static final int HEADER_SIZE = 64;
+    private static final int SEGMENT_SIZE = 1 << 26; // 64 MB per data mapping, also the largest value
+    private static final long DATA_START = 8; // Offset 0 is reserved so that 0 can mean "free slot"
+    private static final float LOAD_FACTOR = 0.7f;
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    // Header field offsets in the index file
+    private static final int MAGIC_AT = 0;
+    private static final int KEY_SIZE_AT = 4;
+    private static final int CAPACITY_AT = 8;
+    private static final int SIZE_AT = 12;
+    private static final int DATA_END_AT = 16;
+
+    private final Path indexPath;
+    private final Path dataPath;
+    private final int keySize; // Width of every key in bytes
+    private final int slotSize; // keySize + 8 bytes of value offset + 4 bytes of value length
+    private final byte[] scratch; // Reused when moving slots during deletion
+    private final FileChannel dataChannel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>(); // Data file mappings
+    private MappedByteBuffer index; // Header and slot table
+    private int capacity; // Number of slots, a power of two
+    private int mask; // capacity - 1
+    private int size; // Number of entries
+    private long dataEnd; // Offset in the data file where the next value goes
+
+    /**
+     * Opens the map stored at the given path, or creates an empty one.
+     *
+     * @param path    the index file; values go into a sibling file with ".data" appended.
+     * @param keySize the width of every key in bytes.
+     * @throws IOException              if the files cannot be opened or created.
+     * @throws IllegalArgumentException if an existing map was created with a different key size.
+     */
+    public MappedHashMap(Path path, int keySize) throws IOException {
+        this(path, keySize, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Opens the map stored at the given path, or creates an empty one with
+     * room for the expected number of entries before its index has to grow.
+     *
+     * @param path         the index file; values go into a sibling file with ".data" appended.
+     * @param keySize      the width of every key in bytes.
+     * @param expectedSize the number of entries to reserve room for in a new map.
+     * @throws IOException              if the files cannot be opened or created.
+     * @throws IllegalArgumentException if an existing map was created with a different key size.
+     */
+    public MappedHashMap(Path path, int keySize, int expectedSize) throws IOException {
+        if (keySize <= 0) {
+            throw new IllegalArgumentException("Invalid key size: " + keySize);
+        }
+        this.indexPath = path;
+        this.dataPath = path.resolveSibling(path.getFileName() + ".data");
+        this.keySize = keySize;
+        this.slotSize = keySize + 12;
+        this.scratch = new byte[slotSize];
+        this.dataChannel = FileChannel.open(dataPath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (Files.exists(indexPath) && Files.size(indexPath) >= HEADER_SIZE) {
+            index = mapIndex(indexPath);
+            if (index.getInt(MAGIC_AT) != MAGIC) {
+                throw new IOException("Not a MappedHashMap index file: " + indexPath);
+            }
+            if (index.getInt(KEY_SIZE_AT) != keySize) {
+                throw new IllegalArgumentException("Map was created with key size " + index.getInt(KEY_SIZE_AT));
+            }
+            capacity = index.getInt(CAPACITY_AT);
+            size = index.getInt(SIZE_AT);
+            dataEnd = index.getLong(DATA_END_AT);
+        } else {
+            capacity = tableSizeFor((long) Math.ceil(Math.max(1, expectedSize) / (double) LOAD_FACTOR));
+            index = createIndex(indexPath, capacity);
+            size = 0;
+            dataEnd = DATA_START;
+            writeHeader();
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * Returns a copy of the value mapped to the key.
+     *
+     * @param key the key, exactly keySize bytes.
+     * @return the mapped value, or null if the key is not in the map.
+     */
+    public byte[] get(byte[] key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        int pos = slotPos(slot);
+        return readValue(index.getLong(pos + keySize), index.getInt(pos + keySize + 8));
+    }
+
+    /**
+     * Checks if the key is in the map.
+     *
+     * @param key the key, exactly keySize bytes.
+     * @return true if the key is mapped to a value.
+     */
+    public boolean containsKey(byte[] key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Maps the key to the value, replacing any previous value. The value is
+     * appended to the data file; a replaced value stays there as garbage.
+     *
+     * @param key   the key, exactly keySize bytes.
+     * @param value the value, at most 64 MB.
+     * @return true if the key was new, false if an existing value was replaced.
+     * @throws UncheckedIOException if the data file or index cannot grow.
+     */
+    public boolean put(byte[] key, byte[] value) {
+        checkKey(key);
+        if (value.length > SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Value too large: " + value.length + " bytes");
+        }
+        int i = hash(key) & mask;
+        boolean added = true;
+        while (index.getLong(slotPos(i) + keySize) != 0) {
+            if (keyEquals(slotPos(i), key)) {
+                added = false; // Existing key: point its slot at the new value
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+
+        long offset = appendValue(value);
+        int pos = slotPos(i);
+        if (added) {
+            index.put(pos, key);
+        }
+        index.putLong(pos + keySize, offset);
+        index.putInt(pos + keySize + 8, value.length);
+        if (added) {
+            size++;
+        }
+        writeHeader();
+        if (size > capacity * LOAD_FACTOR) {
+            grow();
+        }
+        return added;
+    }
+
+    /**
+     * Removes the mapping for the key and closes the gap in the slot table
+     * with backward-shift deletion.
+     *
+     * @param key the key, exactly keySize bytes.
+     * @return true if the key was in the map.
+     */
+    public boolean remove(byte[] key) {
+        int gap = find(key);
+        if (gap < 0) {
+            return false;
+        }
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (index.getLong(slotPos(i) + keySize) == 0) {
+                break; // End of the probe run
+            }
+            int home = hashAt(slotPos(i)) & mask;
+            // Move the entry if the gap lies cyclically between its home and its slot
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                index.get(slotPos(i), scratch);
+                index.put(slotPos(gap), scratch);
+                gap = i;
+            }
+        }
+        index.putLong(slotPos(gap) + keySize, 0L); // Free the last moved-from slot
+        size--;
+        writeHeader();
+        return true;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return true if the map contains no entries.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Writes every change made so far to the storage device. The data file
+     * is forced before the index, so a forced index never points at values
+     * that did not reach the disk.
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        index.force();
+    }
+
+    /**
+     * Forces all changes to disk and closes the data file. The mappings are
+     * released once they are garbage collected.
+     *
+     * @throws IOException if the data file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        dataChannel.close();
+    }
+
+    /**
+     * Looks for the key in the slot table.
+     *
+     * @return the slot holding the key, or -1 if the key is not in the map.
+     */
+    private int find(byte[] key) {
+        checkKey(key);
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int pos = slotPos(i);
+            if (index.getLong(pos + keySize) == 0) {
+                return -1; // Reached the end of the probe run
+            }
+            if (keyEquals(pos, key)) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Appends a value to the data file, starting a new segment if the value
+     * does not fit in the rest of the current one.
+     *
+     * @return the offset of the value in the data file.
+     */
+    private long appendValue(byte[] value) {
+        long within = dataEnd % SEGMENT_SIZE;
+        if (within + value.length > SEGMENT_SIZE) {
+            dataEnd += SEGMENT_SIZE - within; // Values never straddle two segments
+            within = 0;
+        }
+        long offset = dataEnd;
+        segment(offset).put((int) within, value);
+        dataEnd += value.length;
+        return offset;
+    }
+
+    private byte[] readValue(long offset, int length) {
+        byte[] value = new byte[length];
+        segment(offset).get((int) (offset % SEGMENT_SIZE), value);
+        return value;
+    }
+
+    /**
+     * Returns the mapping of the data segment holding the offset, mapping
+     * more of the data file (and thereby growing it) if needed.
+     */
+    private MappedByteBuffer segment(long offset) {
+        int n = (int) (offset / SEGMENT_SIZE);
+        try {
+            while (segments.size() <= n) {
+                long start = (long) segments.size() * SEGMENT_SIZE;
+                segments.add(dataChannel.map(FileChannel.MapMode.READ_WRITE, start, SEGMENT_SIZE));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return segments.get(n);
+    }
+
+    /**
+     * Doubles the slot table. The new table is built in a temporary file,
+     * forced and atomically renamed over the index file, so a crash leaves
+     * either the old or the new index, never a half-written one.
+     */
+    private void grow() {
+        int newCapacity = capacity << 1;
+        if ((long) HEADER_SIZE + (long) newCapacity * slotSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Index cannot grow beyond 2 GB");
+        }
+        Path tmp = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        try {
+            MappedByteBuffer grown = createIndex(tmp, newCapacity);
+            int newMask = newCapacity - 1;
+            byte[] slot = new byte[slotSize];
+            for (int j = 0; j < capacity; j++) {
+                int pos = slotPos(j);
+                if (index.getLong(pos + keySize) == 0) {
+                    continue;
+                }
+                int i = hashAt(pos) & newMask;
+                while (grown.getLong(HEADER_SIZE + i * slotSize + keySize) != 0) {
+                    i = (i + 1) & newMask;
+                }
+                index.get(pos, slot);
+                grown.put(HEADER_SIZE + i * slotSize, slot);
+            }
+            force(); // Values must be on disk before an index that points at them
+
+            index = grown;
+            capacity = newCapacity;
+            mask = newMask;
+            writeHeader();
+            index.force();
+            Files.move(tmp, indexPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeHeader() {
+        index.putInt(MAGIC_AT, MAGIC);
+        index.putInt(KEY_SIZE_AT, keySize);
+        index.putInt(CAPACITY_AT, capacity);
+        index.putInt(SIZE_AT, size);
+        index.putLong(DATA_END_AT, dataEnd);
+    }
+
+    private MappedByteBuffer createIndex(Path path, int slots) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // A fresh mapping of a grown file reads as zeros, i.e. every slot is free
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slots * slotSize);
+        }
+    }
+
+    private static MappedByteBuffer mapIndex(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+    }
+
+    private int slotPos(int slot) {
+        return HEADER_SIZE + slot * slotSize;
+    }
+
+    private void checkKey(byte[] key) {
+        if (key.length != keySize) {
+            throw new IllegalArgumentException("Key must be " + keySize + " bytes, got " + key.length);
+        }
+    }
+
+    /**
+     * Compares the key stored at the slot position with the given key
+     * without copying it out of the mapping.
+     */
+    private boolean keyEquals(int pos, byte[] key) {
+        for (int k = 0; k < keySize; k++) {
+            if (index.get(pos + k) != key[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hashes a key (FNV-1a followed by a final mix, so the low bits used by
+     * the mask depend on every key byte).
+     */
+    private static int hash(byte[] key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            h = (h ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * Hashes the key stored at the slot position; same result as hash(byte[]).
+     */
+    private int hashAt(int pos) {
+        long h = 0xcbf29ce484222325L;
+        for (int k = 0; k < keySize; k++) {
+            h = (h ^ (index.get(pos + k) & 0xff)) * 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static int mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int tableSizeFor(long n) {
+        if (n >= 1 << 30) {
+            return 1 << 30;
+        }
+        return Math.max(16, Integer.highestOneBit((int) Math.max(1, n - 1)) << 1);
+    }
+}
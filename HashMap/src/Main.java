@@ -0,0 +1,102 @@
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+/**
+ * Compares LongObjectHashMap with java.util.HashMap&lt;Long, V&gt; on memory per
+ * entry and lookup speed.
+ *
+ * Usage: java -Xmx4g Main [keys]   (default 10,000,000 keys)
+ */
+public class Main {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        long[] keys = randomKeys(n);
+        String value = "value"; // One shared value, so only the per-entry overhead is measured
+
+        LongObjectHashMap<String> map = new LongObjectHashMap<String>();
+        map.put(1L, "one");
+        map.put(2L, "two");
+        map.remove(1L);
+        System.out.println("\nget(2): " + map.get(2L) + ", get(1): " + map.get(1L) + ", size: " + map.size());
+
+        System.out.printf("%n%d random long keys%n", n);
+        System.out.printf("%-20s %14s %14s%n", "map", "bytes/entry", "ns/lookup");
+
+        long before = usedMemory();
+        LongObjectHashMap<String> primitive = new LongObjectHashMap<String>();
+        for (long key : keys) {
+            primitive.put(key, value);
+        }
+        long primitiveBytes = usedMemory() - before;
+        double primitiveLookup = timeLookups(keys, key -> primitive.get(key));
+        System.out.printf("%-20s %14.1f %14.1f%n", "LongObjectHashMap",
+                (double) primitiveBytes / primitive.size(), primitiveLookup);
+
+        before = usedMemory();
+        HashMap<Long, String> boxed = new HashMap<Long, String>();
+        for (long key : keys) {
+            boxed.put(key, value);
+        }
+        long boxedBytes = usedMemory() - before;
+        double boxedLookup = timeLookups(keys, key -> boxed.get(key));
+        System.out.printf("%-20s %14.1f %14.1f%n", "HashMap<Long, V>",
+                (double) boxedBytes / boxed.size(), boxedLookup);
+
+        // Keep both maps reachable until both measurements are done
+        if (primitive.size() != boxed.size()) {
+            throw new IllegalStateException("Maps disagree on the number of keys");
+        }
+    }
+
+    /**
+     * A lookup function over long keys, so both maps can run through the same
+     * timing loop without boxing on the caller's side.
+     */
+    private interface Lookup {
+        Object get(long key);
+    }
+
+    /**
+     * Looks up every key a few times and returns the best average time per
+     * lookup.
+     */
+    private static double timeLookups(long[] keys, Lookup lookup) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            int hits = 0;
+            long start = System.nanoTime();
+            for (long key : keys) {
+                if (lookup.get(key) != null) {
+                    hits++;
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            if (hits == 0) {
+                throw new IllegalStateException("No key found");
+            }
+            best = Math.min(best, (double) nanos / keys.length);
+        }
+        return best;
+    }
+
+    private static long[] randomKeys(int n) {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextLong();
+        }
+        return keys;
+    }
+
+    /**
+     * Runs the garbage collector a few times and returns the heap in use.
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
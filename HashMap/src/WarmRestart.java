@@ -0,0 +1,59 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Fills a MappedHashMap, closes it, then measures how long reopening the
+ * files takes and checks that every entry survived.
+ *
+ * Usage: java WarmRestart [entries] [dir]   (default 1,000,000 entries in a temporary directory)
+ */
+public class WarmRestart {
+
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path dir = args.length > 1 ? Path.of(args[1]) : Files.createTempDirectory("mapped");
+        Path file = dir.resolve("lookup.idx");
+
+        long start = System.nanoTime();
+        try (MappedHashMap map = new MappedHashMap(file, Long.BYTES)) {
+            for (long i = 0; i < n; i++) {
+                map.put(key(i), value(i));
+            }
+            map.remove(key(0));
+        }
+        System.out.printf("%nbuilt %d entries in %.1f ms%n", n, (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        try (MappedHashMap map = new MappedHashMap(file, Long.BYTES)) {
+            long opened = System.nanoTime() - start;
+            byte[] first = map.get(key(1));
+            long firstGet = System.nanoTime() - start;
+            System.out.printf("reopened in %.2f ms, first get after %.2f ms, size %d%n",
+                    opened / 1e6, firstGet / 1e6, map.size());
+
+            if (map.get(key(0)) != null || !Arrays.equals(first, value(1))) {
+                throw new IllegalStateException("Map lost or resurrected an entry");
+            }
+            for (long i = 1; i < n; i++) {
+                if (!Arrays.equals(map.get(key(i)), value(i))) {
+                    throw new IllegalStateException("Wrong value for key " + i);
+                }
+            }
+            System.out.println("all " + map.size() + " entries verified");
+        }
+        System.out.printf("index %d bytes, data %d bytes%n",
+                Files.size(file), Files.size(dir.resolve("lookup.idx.data")));
+    }
+
+    private static byte[] key(long i) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(i * 0x9E3779B97F4A7C15L).array();
+    }
+
+    private static byte[] value(long i) {
+        return ("value-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+}
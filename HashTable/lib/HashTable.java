@@ -0,0 +1,384 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implements a concurrent hash table with lock striping, lock-free reads and
+ * incremental resizing.
+ * java.util.Hashtable guards the whole table with one lock and rehashes every
+ * entry inside a single put once it fills up. This table avoids both:
+ *
+ * - Writes lock only one of a fixed number of stripes. A bucket's stripe is
+ *   chosen by the low bits of its index, so the two buckets an old bucket
+ *   splits into during a resize share its stripe.
+ * - Reads take no lock at all. Bucket heads are published with volatile
+ *   writes and nodes are never relinked in a way that hides live entries
+ *   from a concurrent reader.
+ * - When the table fills up, a table of twice the size is allocated and
+ *   every subsequent write migrates a few buckets (MIGRATE_BATCH) from the
+ *   old table to the new one. A migrated bucket is replaced by a forwarding
+ *   node that sends readers and writers to the new table. No single put ever
+ *   rehashes more than a handful of buckets. The put that starts a resize
+ *   still pays for allocating the doubled table, which the JVM zeroes in
+ *   O(capacity) time, but that is a bulk memory clear rather than a rehash
+ *   of every entry, so put latency stays far flatter than with Hashtable.
+ *
+ * Null keys and values are not allowed.
+ *
+ * @param <K> the type of keys in this table.
+ * @param <V> the type of values in this table.
+ */
+public class HashTable<K, V> {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int DEFAULT_STRIPES = 64;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int MIGRATE_BATCH = 8; // Buckets migrated by each write during a resize
+    private static final int MOVED = -1; // Hash of forwarding nodes; real hashes are non-negative
+
+    /**
+     * An entry in a bucket chain. The key and hash never change; the value
+     * and next link are volatile so readers see updates without locking.
+     */
+    private static class Node<K, V> {
+        private final int hash;
+        private final K key;
+        private volatile V value;
+        private volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Placed in a bucket of the old table once the bucket has been migrated;
+     * points at the table that now holds its entries.
+     */
+    private static final class ForwardingNode<K, V> extends Node<K, V> {
+        private final AtomicReferenceArray<Node<K, V>> nextTable;
+
+        ForwardingNode(AtomicReferenceArray<Node<K, V>> nextTable) {
+            super(MOVED, null, null, null);
+            this.nextTable = nextTable;
+        }
+    }
+
+    /**
+     * Progress of one incremental resize from oldTable to newTable.
+     */
+    private static final class Resize<K, V> {
+        private final AtomicReferenceArray<Node<K, V>> oldTable;
+        private final AtomicReferenceArray<Node<K, V>> newTable;
+        private final ForwardingNode<K, V> forward;
+        private final AtomicInteger claimed = new AtomicInteger(); // Next bucket to hand out
+        private final AtomicInteger migrated = new AtomicInteger(); // Buckets finished so far
+
+        Resize(AtomicReferenceArray<Node<K, V>> oldTable) {
+            this.oldTable = oldTable;
+            // Allocating and zeroing the doubled table is the one O(capacity) step of a resize
+            this.newTable = new AtomicReferenceArray<>(oldTable.length() << 1);
+            this.forward = new ForwardingNode<>(newTable);
+        }
+    }
+
+    private final ReentrantLock[] stripes; // Write locks, one per group of buckets
+    private final int stripeMask; // stripes.length - 1
+    private final LongAdder count = new LongAdder(); // Number of entries
+    private volatile AtomicReferenceArray<Node<K, V>> table; // Current table
+    private volatile Resize<K, V> resize; // Resize in progress, or null
+
+    /**
+     * Constructs an empty table with the default capacity and number of lock
+     * stripes.
+     */
+    public HashTable() {
+        this(DEFAULT_CAPACITY, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructs an empty table.
+     *
+     * @param initialCapacity the number of buckets to start with; rounded up to a power of two.
+     * @param stripes         the number of write locks; rounded up to a power of two.
+     * @throws IllegalArgumentException if either argument is not positive.
+     */
+    public HashTable(int initialCapacity, int stripes) {
+        if (initialCapacity <= 0 || stripes <= 0) {
+            throw new IllegalArgumentException("Invalid capacity or stripes: " + initialCapacity + ", " + stripes);
+        }
+        int stripeCount = powerOfTwo(stripes);
+        // Every table must have at least one bucket per stripe, so that a
+        // bucket and the two buckets it splits into map to the same stripe
+        int capacity = Math.max(powerOfTwo(initialCapacity), stripeCount);
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.stripeMask = stripeCount - 1;
+        this.table = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Returns the value mapped to the key. Never blocks.
+     *
+     * @param key the key to look up.
+     * @return the mapped value, or null if the key is not in the table.
+     */
+    public V get(Object key) {
+        int h = hash(key);
+        AtomicReferenceArray<Node<K, V>> t = table;
+        while (true) {
+            Node<K, V> n = t.get(h & (t.length() - 1));
+            if (n instanceof ForwardingNode) {
+                t = ((ForwardingNode<K, V>) n).nextTable; // Bucket already migrated
+                continue;
+            }
+            for (; n != null; n = n.next) {
+                if (n.hash == h && n.key.equals(key)) {
+                    return n.value;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Checks if the key is in the table. Never blocks.
+     *
+     * @param key the key to look up.
+     * @return true if the key is mapped to a value.
+     */
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps the key to the value, replacing any previous value. Locks only
+     * the key's stripe, and helps an ongoing resize by migrating a few
+     * buckets.
+     *
+     * @param key   the key, not null.
+     * @param value the value, not null.
+     * @return the previous value, or null if the key was not in the table.
+     * @throws NullPointerException if the key or value is null.
+     */
+    public V put(K key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Cannot map a key to null");
+        }
+        int h = hash(key);
+        V previous = null;
+        boolean added = false;
+        AtomicReferenceArray<Node<K, V>> t = table;
+        while (true) {
+            int i = h & (t.length() - 1);
+            ReentrantLock lock = stripes[i & stripeMask];
+            lock.lock();
+            try {
+                Node<K, V> first = t.get(i);
+                if (first instanceof ForwardingNode) {
+                    t = ((ForwardingNode<K, V>) first).nextTable; // Retry in the newer table
+                    continue;
+                }
+                Node<K, V> n = first;
+                for (; n != null; n = n.next) {
+                    if (n.hash == h && n.key.equals(key)) {
+                        previous = n.value;
+                        n.value = value; // Existing key: replace in place
+                        break;
+                    }
+                }
+                if (n == null) {
+                    t.set(i, new Node<>(h, key, value, first)); // Publish at the head of the chain
+                    added = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+            break;
+        }
+        if (added) {
+            count.increment();
+        }
+        helpResize(t, added);
+        return previous;
+    }
+
+    /**
+     * Removes the mapping for the key. Locks only the key's stripe, and helps
+     * an ongoing resize by migrating a few buckets.
+     *
+     * @param key the key to remove.
+     * @return the removed value, or null if the key was not in the table.
+     */
+    public V remove(Object key) {
+        int h = hash(key);
+        V previous = null;
+        AtomicReferenceArray<Node<K, V>> t = table;
+        while (true) {
+            int i = h & (t.length() - 1);
+            ReentrantLock lock = stripes[i & stripeMask];
+            lock.lock();
+            try {
+                Node<K, V> first = t.get(i);
+                if (first instanceof ForwardingNode) {
+                    t = ((ForwardingNode<K, V>) first).nextTable; // Retry in the newer table
+                    continue;
+                }
+                Node<K, V> prev = null;
+                for (Node<K, V> n = first; n != null; prev = n, n = n.next) {
+                    if (n.hash == h && n.key.equals(key)) {
+                        previous = n.value;
+                        // Unlink; a reader standing on n still finds its way down the chain
+                        if (prev == null) {
+                            t.set(i, n.next);
+                        } else {
+                            prev.next = n.next;
+                        }
+                        break;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            break;
+        }
+        if (previous != null) {
+            count.decrement();
+        }
+        helpResize(t, false);
+        return previous;
+    }
+
+    /**
+     * Returns the number of entries in the table. Since writers do not stop
+     * while it is computed, the result is only a snapshot.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        long sum = count.sum();
+        return sum < 0 ? 0 : (int) Math.min(sum, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Checks if the table is empty.
+     *
+     * @return true if the table contains no entries.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Checks whether entries are currently being migrated to a larger table.
+     *
+     * @return true while a resize is in progress.
+     */
+    public boolean isResizing() {
+        return resize != null;
+    }
+
+    /**
+     * Returns the number of buckets of the current table (the old table while
+     * a resize is in progress).
+     *
+     * @return the current number of buckets.
+     */
+    public int capacity() {
+        return table.length();
+    }
+
+    /**
+     * Called after every write. Starts a resize when the table is too full,
+     * and migrates the next few buckets while a resize is in progress.
+     *
+     * @param written the table the write went into.
+     * @param added   whether the write added an entry (and may have overfilled the table).
+     */
+    private void helpResize(AtomicReferenceArray<Node<K, V>> written, boolean added) {
+        Resize<K, V> r = resize;
+        if (r == null) {
+            if (!added) {
+                return; // The table cannot have become too full
+            }
+            AtomicReferenceArray<Node<K, V>> t = table;
+            if (written != t || count.sum() <= (long) (t.length() * LOAD_FACTOR) || t.length() >= MAX_CAPACITY) {
+                return;
+            }
+            synchronized (this) { // Only one thread allocates the new table
+                if (resize != null || table != t) {
+                    return;
+                }
+                r = new Resize<>(t);
+                resize = r;
+            }
+        }
+
+        int length = r.oldTable.length();
+        int start = r.claimed.getAndAdd(MIGRATE_BATCH);
+        if (start >= length) {
+            return; // Every bucket has been handed out already
+        }
+        int end = Math.min(start + MIGRATE_BATCH, length);
+        for (int j = start; j < end; j++) {
+            migrate(r, j);
+        }
+        if (r.migrated.addAndGet(end - start) == length) {
+            table = r.newTable; // Last bucket done: the new table takes over
+            resize = null;
+        }
+    }
+
+    /**
+     * Moves the entries of bucket j of the old table into buckets j and
+     * j + oldLength of the new table, then leaves a forwarding node behind.
+     * The old chain is copied rather than relinked, so readers still walking
+     * it are unaffected.
+     */
+    private void migrate(Resize<K, V> r, int j) {
+        int length = r.oldTable.length();
+        ReentrantLock lock = stripes[j & stripeMask];
+        lock.lock();
+        try {
+            Node<K, V> low = null; // Entries staying at index j
+            Node<K, V> high = null; // Entries moving to index j + length
+            for (Node<K, V> n = r.oldTable.get(j); n != null; n = n.next) {
+                if ((n.hash & length) == 0) {
+                    low = new Node<>(n.hash, n.key, n.value, low);
+                } else {
+                    high = new Node<>(n.hash, n.key, n.value, high);
+                }
+            }
+            r.newTable.set(j, low);
+            r.newTable.set(j + length, high);
+            r.oldTable.set(j, r.forward); // Published last, after the new chains
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Spreads the key's hash code so that keys differing only in their high
+     * bits land in different buckets, and clears the sign bit, which is
+     * reserved for forwarding nodes.
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & 0x7fffffff;
+    }
+
+    private static int powerOfTwo(int n) {
+        if (n >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        int p = Integer.highestOneBit(n);
+        return p < n ? p << 1 : p;
+    }
+}
@@ -0,0 +1,77 @@
+import java.util.Arrays;
+import java.util.Hashtable;
+
+/**
+ * Measures put latency while a table grows from 1,000 entries to the given
+ * size, for HashTable (incremental resize) and java.util.Hashtable (rehashes
+ * everything inside one put). For HashTable the percentiles are also reported
+ * separately for the puts made while a resize was in progress.
+ *
+ * Usage: java -Xmx4g Main [entries]   (default 10,000,000 entries)
+ */
+public class Main {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Integer[] keys = new Integer[n]; // Boxed up front so boxing is not timed
+        for (int i = 0; i < n; i++) {
+            keys[i] = i * 31 + 7;
+        }
+        Integer value = 1;
+
+        HashTable<Integer, Integer> table = new HashTable<Integer, Integer>(1_000, 64);
+        table.put(1, 10);
+        System.out.println("\nget(1): " + table.get(1) + ", remove(1): " + table.remove(1) + ", size: " + table.size());
+
+        for (int round = 0; round < 2; round++) { // First round warms up the JIT
+            table = new HashTable<Integer, Integer>(1_000, 64);
+            long[] all = new long[n];
+            long[] resizing = new long[n];
+            int resizingCount = 0;
+            for (int i = 0; i < n; i++) {
+                boolean during = table.isResizing();
+                long start = System.nanoTime();
+                table.put(keys[i], value);
+                long nanos = System.nanoTime() - start;
+                all[i] = nanos;
+                if (during || table.isResizing()) {
+                    resizing[resizingCount++] = nanos;
+                }
+            }
+
+            Hashtable<Integer, Integer> jdk = new Hashtable<Integer, Integer>(1_000);
+            long[] jdkAll = new long[n];
+            for (int i = 0; i < n; i++) {
+                long start = System.nanoTime();
+                jdk.put(keys[i], value);
+                jdkAll[i] = System.nanoTime() - start;
+            }
+
+            if (round == 1) {
+                System.out.printf("%nput latency (ns), growing from 1,000 to %,d entries%n", n);
+                System.out.printf("%-30s %10s %10s %10s %12s%n", "", "p50", "p99", "p99.9", "max");
+                report("HashTable (all puts)", all, n);
+                report("HashTable (during resize)", resizing, resizingCount);
+                report("java.util.Hashtable", jdkAll, n);
+            }
+        }
+    }
+
+    /**
+     * Prints the percentiles of the first count latencies.
+     */
+    private static void report(String name, long[] latencies, int count) {
+        if (count == 0) {
+            System.out.printf("%-30s %10s%n", name, "no samples");
+            return;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        System.out.printf("%-30s %10d %10d %10d %12d%n", name,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999), sorted[count - 1]);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+}
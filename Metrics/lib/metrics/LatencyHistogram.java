@@ -0,0 +1,124 @@
+package lib.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Metrics/lib/metrics/LatencyHistogram.java
+
+/**
+ * A histogram of durations in nanoseconds with power-of-two buckets.
+ *
+ * Bucket 0 counts durations of 0 ns and bucket i counts durations in
+ * [2^(i-1), 2^i) ns, so 65 buckets cover every non-negative long. Recording
+ * is a leading-zero count and a few array writes, with no allocation.
+ *
+ * The histogram has a single writer at a time: LockMetrics records into it
+ * only while the instrumented lock is held, and the lock orders the writes of
+ * successive holders. Writes are therefore plain read-modify-write sequences
+ * published with opaque stores, with no CAS, and readers on other threads
+ * (such as a JMX client) see each counter as a whole value, possibly a little
+ * stale.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 65; // Bucket 0 plus one per bit of a long
+    private static final int COUNT = 0; // Index of the number of recorded durations
+    private static final int SUM = 1; // Index of the sum of recorded durations
+    private static final int MAX = 2; // Index of the largest recorded duration
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS); // Counts per bucket
+    private final AtomicLongArray totals = new AtomicLongArray(3); // Count, sum and max
+
+    /**
+     * Records a duration. Must only be called by the current lock holder.
+     *
+     * @param nanos The duration in nanoseconds, negative values count as 0
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0; // nanoTime is monotonic, but be safe
+        }
+        int bucket = 64 - Long.numberOfLeadingZeros(nanos);
+        buckets.setOpaque(bucket, buckets.getPlain(bucket) + 1);
+        totals.setOpaque(COUNT, totals.getPlain(COUNT) + 1);
+        totals.setOpaque(SUM, totals.getPlain(SUM) + nanos);
+        if (nanos > totals.getPlain(MAX)) {
+            totals.setOpaque(MAX, nanos);
+        }
+    }
+
+    /**
+     * @return The number of recorded durations
+     */
+    public long count() {
+        return totals.getOpaque(COUNT);
+    }
+
+    /**
+     * @return The sum of the recorded durations in nanoseconds
+     */
+    public long totalNanos() {
+        return totals.getOpaque(SUM);
+    }
+
+    /**
+     * @return The largest recorded duration in nanoseconds
+     */
+    public long maxNanos() {
+        return totals.getOpaque(MAX);
+    }
+
+    /**
+     * Estimates a percentile from the buckets. The result is the upper bound
+     * of the bucket holding the percentile, capped at the recorded maximum, so
+     * it is never more than twice the true value.
+     *
+     * @param percentile The percentile to estimate, between 0 and 100
+     * @return The estimated duration in nanoseconds, 0 if nothing was recorded
+     */
+    public long percentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        }
+        long[] counts = buckets();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long upper = i == 0 ? 0 : i == 64 ? Long.MAX_VALUE : (1L << i) - 1;
+                return Math.min(upper, maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+
+    /**
+     * @return A copy of the bucket counts; index i holds durations in [2^(i-1), 2^i) ns
+     */
+    public long[] buckets() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = buckets.getOpaque(i);
+        }
+        return copy;
+    }
+
+    /**
+     * Clears every bucket and total. A duration recorded while the reset is
+     * running may survive it.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.setOpaque(i, 0);
+        }
+        for (int i = 0; i < 3; i++) {
+            totals.setOpaque(i, 0);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package lib.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Metrics/lib/metrics/LockContentionEvent.java
+
+/**
+ * A JFR event for one lock acquisition of an instrumented structure that had to
+ * wait at least LockMetrics.EVENT_THRESHOLD_NANOS for the lock. Uncontended
+ * acquisitions are not recorded, so a recording shows only the operations
+ * that queued behind another thread. Every structure emits the same event;
+ * the type field tells them apart.
+ */
+@Name("datastructures.LockContention")
+@Label("Lock Contention")
+@Category({ "Data Structures", "Locks" })
+@Description("An operation on a data structure that waited for its lock")
+@StackTrace(true)
+public class LockContentionEvent extends jdk.jfr.Event {
+
+    @Label("Type")
+    public String type;
+
+    @Label("Name")
+    public String name;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Wait Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long waitTime;
+
+    @Label("Hold Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long holdTime;
+
+    @Label("Queued Threads")
+    @Description("Threads still waiting for the lock when this one acquired it")
+    public int queuedThreads;
+
+    @Label("Size")
+    public int size;
+}
@@ -0,0 +1,300 @@
+package lib.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Metrics/lib/metrics/LockMetrics.java
+
+/**
+ * Lock and operation metrics for a lock-guarded data structure: calls per
+ * operation, lock wait and hold time histograms, the number of threads queued
+ * for the lock, and the high-water mark of the structure's size.
+ *
+ * The structure calls three methods around every instrumented operation:
+ *
+ * <pre>
+ * long entered = metrics.enter();        // before taking the lock
+ * lock.lock();
+ * long acquired = metrics.acquired(entered);
+ * ...                                    // the operation itself
+ * metrics.exit(Operation.X, acquired, size);
+ * lock.unlock();
+ * </pre>
+ *
+ * The lock may be a Lock, as in Dequeue, or a monitor entered with
+ * synchronized, as in LinkedStack; only the order of the calls matters.
+ *
+ * acquired() and exit() run while the lock is held, so everything they record
+ * has a single writer at a time and needs no CAS. Only the queued-thread
+ * counter, updated before the lock is taken, is a contended atomic.
+ *
+ * The metrics can be published as an MXBean with register(), and every
+ * acquisition that waited at least EVENT_THRESHOLD_NANOS is also emitted as a
+ * LockContentionEvent when a JFR recording is running.
+ *
+ * @param <O> The enum naming the operations of the structure
+ */
+public class LockMetrics<O extends Enum<O>> implements LockMetricsMXBean {
+    /** Shortest lock wait that is reported as a JFR event. */
+    public static final long EVENT_THRESHOLD_NANOS = 100_000;
+
+    private static final String DOMAIN = "datastructures"; // JMX domain of registered metrics
+
+    private final String type; // Kind of structure, such as "Dequeue" or "LinkedStack"
+    private final O[] operations; // Every operation, indexed by ordinal
+    private final AtomicLongArray operationCounts; // Calls per operation, indexed by ordinal
+    private final LatencyHistogram waitTimes = new LatencyHistogram(); // Time from enter() to acquired()
+    private final LatencyHistogram holdTimes = new LatencyHistogram(); // Time from acquired() to exit()
+    private final AtomicInteger queued = new AtomicInteger(); // Threads between enter() and acquired()
+
+    private volatile int peakQueued; // Most threads seen queued, written by the lock holder
+    private volatile int highWaterMark; // Largest size seen, written by the lock holder
+    private long lastWaitNanos; // Wait of the current lock holder, for its event
+    private int lastQueued; // Threads queued behind the current lock holder
+
+    private volatile String name; // Name registered under, null until registered
+    private ObjectName objectName; // JMX name while registered, guarded by this
+
+    /**
+     * @param type      The kind of structure being measured, such as "Dequeue" or "LinkedStack"
+     * @param operation The enum naming its operations
+     */
+    public LockMetrics(String type, Class<O> operation) {
+        this.type = type;
+        this.operations = operation.getEnumConstants();
+        this.operationCounts = new AtomicLongArray(operations.length);
+    }
+
+    /**
+     * Marks that the calling thread is about to take the lock.
+     *
+     * @return The time the thread started waiting, to pass to acquired()
+     */
+    public long enter() {
+        queued.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the wait of the thread that has just taken the lock. Must be
+     * called while holding the lock.
+     *
+     * @param enteredAt The time returned by enter()
+     * @return The time the lock was acquired, to pass to exit()
+     */
+    public long acquired(long enteredAt) {
+        long now = System.nanoTime();
+        int behind = queued.decrementAndGet();
+        lastWaitNanos = now - enteredAt;
+        lastQueued = behind;
+        waitTimes.record(lastWaitNanos);
+        if (behind > peakQueued) {
+            peakQueued = behind;
+        }
+        return now;
+    }
+
+    /**
+     * Marks that a thread which called enter() gave up on the lock without
+     * acquiring it, for example because it was interrupted.
+     */
+    public void abandoned() {
+        queued.decrementAndGet();
+    }
+
+    /**
+     * Records one call of the operation and the time the lock was held. Must
+     * be called while still holding the lock.
+     *
+     * @param operation  The operation that ran
+     * @param acquiredAt The time returned by acquired()
+     * @param size       The size of the structure after the operation
+     */
+    public void exit(O operation, long acquiredAt, int size) {
+        long holdNanos = System.nanoTime() - acquiredAt;
+        holdTimes.record(holdNanos);
+        int i = operation.ordinal();
+        operationCounts.setOpaque(i, operationCounts.getPlain(i) + 1);
+        if (size > highWaterMark) {
+            highWaterMark = size;
+        }
+        if (lastWaitNanos >= EVENT_THRESHOLD_NANOS) {
+            LockContentionEvent event = new LockContentionEvent();
+            if (event.isEnabled()) {
+                event.type = type;
+                event.name = getName();
+                event.operation = operation.name();
+                event.waitTime = lastWaitNanos;
+                event.holdTime = holdNanos;
+                event.queuedThreads = lastQueued;
+                event.size = size;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Publishes the metrics on the platform MBean server as
+     * datastructures:type=&lt;type&gt;,name=&lt;name&gt;.
+     *
+     * @param name A name that tells this structure apart from others of its type
+     * @throws JMException if the name is malformed or already registered
+     * @throws IllegalStateException if the metrics are already registered
+     */
+    public synchronized void register(String name) throws JMException {
+        if (objectName != null) {
+            throw new IllegalStateException("Already registered as " + objectName);
+        }
+        ObjectName on = new ObjectName(DOMAIN + ":type=" + type
+                + ",name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+        this.name = name;
+        this.objectName = on;
+    }
+
+    /**
+     * Removes the metrics from the platform MBean server. Does nothing if
+     * they are not registered.
+     *
+     * @throws JMException if the MBean server rejects the removal
+     */
+    public synchronized void unregister() throws JMException {
+        if (objectName == null) {
+            return;
+        }
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        objectName = null;
+    }
+
+    @Override
+    public String getType() {
+        return type;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (O operation : operations) {
+            counts.put(operation.name(), operationCounts.getOpaque(operation.ordinal()));
+        }
+        return counts;
+    }
+
+    /**
+     * @param operation The operation to look up
+     * @return The number of calls of the operation since the last reset
+     */
+    public long operationCount(O operation) {
+        return operationCounts.getOpaque(operation.ordinal());
+    }
+
+    @Override
+    public long getAcquisitions() {
+        return waitTimes.count();
+    }
+
+    @Override
+    public long getTotalWaitTime() {
+        return waitTimes.totalNanos();
+    }
+
+    @Override
+    public long getMaxWaitTime() {
+        return waitTimes.maxNanos();
+    }
+
+    @Override
+    public long getWaitTimeP50() {
+        return waitTimes.percentileNanos(50);
+    }
+
+    @Override
+    public long getWaitTimeP99() {
+        return waitTimes.percentileNanos(99);
+    }
+
+    @Override
+    public long[] getWaitTimeHistogram() {
+        return waitTimes.buckets();
+    }
+
+    @Override
+    public long getTotalHoldTime() {
+        return holdTimes.totalNanos();
+    }
+
+    @Override
+    public long getMaxHoldTime() {
+        return holdTimes.maxNanos();
+    }
+
+    @Override
+    public long getHoldTimeP50() {
+        return holdTimes.percentileNanos(50);
+    }
+
+    @Override
+    public long getHoldTimeP99() {
+        return holdTimes.percentileNanos(99);
+    }
+
+    @Override
+    public long[] getHoldTimeHistogram() {
+        return holdTimes.buckets();
+    }
+
+    /**
+     * @return The lock wait time histogram, for percentiles other than p50/p99
+     */
+    public LatencyHistogram waitTimes() {
+        return waitTimes;
+    }
+
+    /**
+     * @return The lock hold time histogram, for percentiles other than p50/p99
+     */
+    public LatencyHistogram holdTimes() {
+        return holdTimes;
+    }
+
+    @Override
+    public int getQueuedThreads() {
+        return queued.get();
+    }
+
+    @Override
+    public int getPeakQueuedThreads() {
+        return peakQueued;
+    }
+
+    @Override
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Clears every counter and histogram. Operations that run while the reset
+     * is in progress may or may not be counted.
+     */
+    @Override
+    public void reset() {
+        for (int i = 0; i < operations.length; i++) {
+            operationCounts.setOpaque(i, 0);
+        }
+        waitTimes.reset();
+        holdTimes.reset();
+        peakQueued = 0;
+        highWaterMark = 0;
+    }
+}
@@ -0,0 +1,79 @@
+package lib.metrics;
+
+import java.util.Map;
+
+// Metrics/lib/metrics/LockMetricsMXBean.java
+
+/**
+ * The JMX view of a LockMetrics instance. Every attribute is read without
+ * taking the instrumented lock, so reading the metrics never slows down the
+ * structure being measured. Times are in nanoseconds.
+ */
+public interface LockMetricsMXBean {
+
+    /**
+     * @return The kind of structure being measured, such as "Dequeue" or "LinkedStack"
+     */
+    String getType();
+
+    /**
+     * @return The name the metrics were registered under, or null
+     */
+    String getName();
+
+    /**
+     * @return The number of calls per operation since the last reset
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * @return The number of lock acquisitions since the last reset
+     */
+    long getAcquisitions();
+
+    long getTotalWaitTime();
+
+    long getMaxWaitTime();
+
+    long getWaitTimeP50();
+
+    long getWaitTimeP99();
+
+    /**
+     * @return Lock wait times; index i counts waits in [2^(i-1), 2^i) ns
+     */
+    long[] getWaitTimeHistogram();
+
+    long getTotalHoldTime();
+
+    long getMaxHoldTime();
+
+    long getHoldTimeP50();
+
+    long getHoldTimeP99();
+
+    /**
+     * @return Lock hold times; index i counts holds in [2^(i-1), 2^i) ns
+     */
+    long[] getHoldTimeHistogram();
+
+    /**
+     * @return The number of threads waiting for the lock right now
+     */
+    int getQueuedThreads();
+
+    /**
+     * @return The most threads seen waiting for the lock since the last reset
+     */
+    int getPeakQueuedThreads();
+
+    /**
+     * @return The largest size of the structure since the last reset
+     */
+    int getHighWaterMark();
+
+    /**
+     * Clears every counter and histogram.
+     */
+    void reset();
+}
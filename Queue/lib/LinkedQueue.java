@@ -1,3 +1,177 @@
-public class LinkedQueue {
-    // TODO: Implement Final Queue class;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implements a non-blocking, multi-producer/multi-consumer queue using the
+ * Michael-Scott algorithm.
+ * The queue is a singly linked list that always starts with a dummy node.
+ * Producers append at the tail and consumers advance the head, each with a
+ * single compare-and-set (CAS), so producers only contend with each other on
+ * the tail and consumers only on the head. No thread ever blocks: a thread
+ * that finds the tail lagging behind (because another producer linked a node
+ * but has not swung the tail yet) helps by swinging it itself.
+ *
+ * Null elements are not allowed, since poll() and peek() return null to
+ * signal an empty queue.
+ *
+ * @param <T> the type of elements held in this queue.
+ */
+public class LinkedQueue<T> implements Queue<T> {
+
+    /**
+     * Private inner class representing a node in the queue.
+     * Each node holds an element and a reference to the next node.
+     */
+    private static class Node<T> {
+        private volatile T item;       // The element, null once the node becomes the dummy
+        private volatile Node<T> next; // Reference to the next node in the queue
+
+        /**
+         * Constructs a new node with a specified element.
+         * 
+         * @param item the element to store in this node.
+         */
+        public Node(T item) {
+            this.item = item;
+        }
+    }
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(LinkedQueue.class, "head", Node.class);
+            TAIL = lookup.findVarHandle(LinkedQueue.class, "tail", Node.class);
+            NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Node<T> head; // Dummy node; the first element is head.next
+    private volatile Node<T> tail; // Last node, or a node shortly before it
+    private final LongAdder count = new LongAdder(); // Striped counter for the number of elements
+
+    /**
+     * Constructs an empty LinkedQueue.
+     */
+    public LinkedQueue() {
+        Node<T> dummy = new Node<>(null);
+        head = dummy;
+        tail = dummy;
+    }
+
+    /**
+     * Adds an element to the tail of the queue. Never blocks and, since the
+     * queue is unbounded, always succeeds.
+     * 
+     * @param n the element to add to the queue.
+     * @return true.
+     * @throws NullPointerException if the element is null.
+     */
+    @Override
+    public boolean offer(T n) {
+        if (n == null) {
+            throw new NullPointerException("Cannot add null to the queue");
+        }
+        Node<T> node = new Node<>(n);
+        while (true) {
+            Node<T> t = tail;
+            Node<T> next = t.next;
+            if (t != tail) {
+                continue; // Tail moved while we were reading it
+            }
+            if (next == null) {
+                if (NEXT.compareAndSet(t, null, node)) { // Link the node after the last one
+                    TAIL.compareAndSet(this, t, node); // Swing the tail; failing is fine, someone helped
+                    count.increment();
+                    return true;
+                }
+            } else {
+                TAIL.compareAndSet(this, t, next); // Tail is lagging: help swing it forward
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the element at the head of the queue.
+     * 
+     * @return the element at the head of the queue, or null if the queue is empty.
+     */
+    @Override
+    public T poll() {
+        while (true) {
+            Node<T> h = head;
+            Node<T> t = tail;
+            Node<T> first = h.next;
+            if (h != head) {
+                continue; // Head moved while we were reading it
+            }
+            if (h == t) {
+                if (first == null) {
+                    return null; // Only the dummy is left: empty
+                }
+                TAIL.compareAndSet(this, t, first); // Tail is lagging: help swing it forward
+            } else {
+                T item = first.item;
+                if (HEAD.compareAndSet(this, h, first)) { // first becomes the new dummy
+                    first.item = null; // Let the element be collected
+                    count.decrement();
+                    return item;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the element at the head of the queue without removing it.
+     * 
+     * @return the element at the head of the queue, or null if the queue is empty.
+     */
+    @Override
+    public T peek() {
+        while (true) {
+            Node<T> h = head;
+            Node<T> first = h.next;
+            if (first == null) {
+                return null;
+            }
+            T item = first.item;
+            if (item != null && h == head) {
+                return item;
+            }
+            // The node was polled while we were reading it; look again
+        }
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     * The count is a snapshot of a striped counter; a poll may be counted a
+     * moment before the matching offer is, so it is clamped to the valid range.
+     * 
+     * @return the number of elements in the queue.
+     */
+    @Override
+    public int size() {
+        long sum = count.sum();
+        if (sum <= 0) {
+            return 0;
+        }
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+
+    /**
+     * Checks if the queue is empty.
+     * 
+     * @return true if the queue is empty, false otherwise.
+     */
+    @Override
+    public boolean isEmpty() {
+        return head.next == null;
+    }
+
 }
@@ -0,0 +1,131 @@
+import java.util.function.Supplier;
+
+/**
+ * Implements a bounded queue for any number of producer threads and exactly
+ * one consumer thread.
+ * Producers claim a sequence number with a compare-and-set (CAS) on the
+ * producer sequence, then publish their element into the claimed slot with an
+ * ordered (release) store. The single consumer needs no CAS: it reads slots in
+ * order and treats a null slot as empty, which also covers a slot that has
+ * been claimed but not yet written.
+ *
+ * To decide whether the queue is full, producers compare against a cached
+ * copy of the consumer sequence and only re-read the real one (a cache line
+ * written by the consumer) when the cached copy says the queue might be full.
+ *
+ * The ring buffer is allocated by the constructor, so offers and polls never
+ * allocate. Calling poll, peek or drain from more than one thread corrupts the
+ * queue.
+ *
+ * @param <T> the type of elements held in this queue.
+ */
+public class MpscArrayQueue<T> extends PaddedArrayQueue<T> {
+
+    private volatile long consumerIndexCache; // Producers' stale view of the consumer sequence
+
+    /**
+     * Constructs an empty queue holding at least capacity elements.
+     *
+     * @param capacity the minimum number of elements the queue can hold; rounded
+     *                 up to a power of two.
+     */
+    public MpscArrayQueue(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * Adds an element to the tail of the queue. May be called from any
+     * number of producer threads.
+     *
+     * @param n the element to add to the queue.
+     * @return true if the element was added, false if the queue is full.
+     * @throws NullPointerException if the element is null.
+     */
+    @Override
+    public boolean offer(T n) {
+        if (n == null) {
+            throw new NullPointerException("Cannot add null to the queue");
+        }
+        long p = claim(1);
+        if (p < 0) {
+            return false; // Full
+        }
+        storeRelease((int) p & mask, n); // Publish the element to the consumer
+        return true;
+    }
+
+    /**
+     * Adds up to limit elements taken from the supplier, stopping early when
+     * the queue is full. The slots for the whole batch are claimed with a
+     * single CAS. May be called from any number of producer threads.
+     *
+     * Every claimed slot must be filled before the consumer can move past it.
+     * If the supplier returns null or throws, the slots it did not fill are
+     * published as skipped, which the consumer passes over, before the
+     * exception propagates.
+     *
+     * @param supplier provides the elements; it is only called for claimed slots.
+     * @param limit    the maximum number of elements to add.
+     * @return the number of elements added.
+     * @throws NullPointerException if the supplier returns null.
+     */
+    @Override
+    public int fill(Supplier<? extends T> supplier, int limit) {
+        if (limit <= 0) {
+            return 0;
+        }
+        long p;
+        int batch;
+        while (true) {
+            p = producerIndex();
+            long free = buffer.length - (p - consumerIndexCache);
+            if (free <= 0) {
+                consumerIndexCache = consumerIndex(); // Refresh the stale view
+                free = buffer.length - (p - consumerIndexCache);
+                if (free <= 0) {
+                    return 0; // Full
+                }
+            }
+            batch = (int) Math.min(free, limit);
+            if (casProducerIndex(p, p + batch)) {
+                break; // Slots p .. p + batch - 1 are ours
+            }
+        }
+        int done = 0;
+        try {
+            for (; done < batch; done++) {
+                T e = supplier.get();
+                if (e == null) {
+                    throw new NullPointerException("Cannot add null to the queue");
+                }
+                storeRelease((int) (p + done) & mask, e);
+            }
+        } finally {
+            for (int i = done; i < batch; i++) {
+                storeRelease((int) (p + i) & mask, SKIP); // Lets the consumer move past the unfilled slots
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Claims count consecutive sequence numbers for a producer.
+     *
+     * @param count the number of slots to claim.
+     * @return the first claimed sequence, or -1 if there is not enough room.
+     */
+    private long claim(int count) {
+        while (true) {
+            long p = producerIndex();
+            if (p + count - consumerIndexCache > buffer.length) {
+                consumerIndexCache = consumerIndex(); // Refresh the stale view
+                if (p + count - consumerIndexCache > buffer.length) {
+                    return -1;
+                }
+            }
+            if (casProducerIndex(p, p + count)) {
+                return p;
+            }
+        }
+    }
+}
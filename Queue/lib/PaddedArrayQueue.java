@@ -0,0 +1,277 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Base class of the bounded, array-backed queues (SpscArrayQueue and
+ * MpscArrayQueue).
+ * Elements live in a preallocated ring buffer whose length is a power of two,
+ * so the slot of a sequence number is (sequence & mask) and nothing is
+ * allocated once the queue is constructed. The producer and consumer each
+ * advance their own sequence counter; a slot holds null while it is free and
+ * the element while it is full.
+ *
+ * The two counters are written by different threads, so if they shared a
+ * cache line, every write by one side would evict the line from the other
+ * side's core (false sharing). The classes below this one wrap each counter
+ * in 64 bytes of unused long fields on both sides; the JVM lays out
+ * superclass fields before subclass fields, which keeps the counters on
+ * separate cache lines.
+ *
+ * @param <T> the type of elements held in this queue.
+ */
+abstract class PaddedArrayQueue<T> extends ArrayQueueConsumerIndex implements Queue<T> {
+
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    /**
+     * Published by MpscArrayQueue.fill into claimed slots that never got an
+     * element because the supplier failed. The consumer frees such a slot
+     * and moves past it without returning anything; until it does, size()
+     * counts the slot.
+     */
+    protected static final Object SKIP = new Object();
+
+    protected final Object[] buffer; // Ring buffer, length is a power of two
+    protected final int mask; // buffer.length - 1, maps a sequence to its slot
+
+    /**
+     * Constructs an empty queue holding at least capacity elements.
+     *
+     * @param capacity the minimum number of elements the queue can hold.
+     * @throws IllegalArgumentException if capacity is not positive or too large.
+     */
+    protected PaddedArrayQueue(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int length = Integer.highestOneBit(capacity); // Round up to a power of two
+        if (length < capacity) {
+            length <<= 1;
+        }
+        buffer = new Object[length];
+        mask = length - 1;
+    }
+
+    /**
+     * Adds up to limit elements taken from the supplier, stopping early when
+     * the queue is full.
+     *
+     * @param supplier provides the elements; it is only called when there is room.
+     * @param limit    the maximum number of elements to add.
+     * @return the number of elements added.
+     * @throws NullPointerException if the supplier returns null.
+     */
+    public abstract int fill(Supplier<? extends T> supplier, int limit);
+
+    /**
+     * Removes up to limit elements and hands each to the consumer, stopping
+     * early when the queue is empty. May only be called from the consumer
+     * thread.
+     *
+     * @param consumer receives the removed elements in FIFO order.
+     * @param limit    the maximum number of elements to remove.
+     * @return the number of elements removed.
+     */
+    public int drain(Consumer<? super T> consumer, int limit) {
+        long start = consumerIndex();
+        long c = start;
+        int done = 0;
+        try {
+            while (done < limit) {
+                int slot = (int) c & mask;
+                T e = loadAcquire(slot);
+                if (e == null) {
+                    break; // Nothing published in this slot yet: empty
+                }
+                storeRelease(slot, null); // Hand the slot back to the producers
+                c++;
+                if (e != SKIP) {
+                    done++;
+                    consumer.accept(e);
+                }
+            }
+        } finally {
+            if (c != start) {
+                setConsumerIndexRelease(c); // Also when the consumer throws, so freed slots are released
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Removes and returns the element at the head of the queue. May only be
+     * called from the consumer thread.
+     *
+     * @return the element at the head of the queue, or null if the queue is empty.
+     */
+    @Override
+    public T poll() {
+        while (true) {
+            long c = consumerIndex();
+            int slot = (int) c & mask;
+            T e = loadAcquire(slot);
+            if (e == null) {
+                return null;
+            }
+            storeRelease(slot, null); // Hand the slot back to the producers
+            setConsumerIndexRelease(c + 1);
+            if (e != SKIP) {
+                return e;
+            }
+        }
+    }
+
+    /**
+     * Returns the element at the head of the queue without removing it. May
+     * only be called from the consumer thread.
+     *
+     * @return the element at the head of the queue, or null if the queue is empty.
+     */
+    @Override
+    public T peek() {
+        while (true) {
+            long c = consumerIndex();
+            int slot = (int) c & mask;
+            T e = loadAcquire(slot);
+            if (e != SKIP) {
+                return e;
+            }
+            storeRelease(slot, null); // Drop the skipped slot, as poll would
+            setConsumerIndexRelease(c + 1);
+        }
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     *
+     * @return the number of elements in the queue.
+     */
+    @Override
+    public int size() {
+        while (true) {
+            long c = consumerIndex();
+            long p = producerIndex();
+            if (c == consumerIndex()) { // Consistent pair of reads
+                return (int) Math.max(0L, Math.min(p - c, (long) buffer.length));
+            }
+        }
+    }
+
+    /**
+     * Checks if the queue is empty.
+     *
+     * @return true if the queue is empty, false otherwise.
+     */
+    @Override
+    public boolean isEmpty() {
+        return consumerIndex() >= producerIndex();
+    }
+
+    /**
+     * Returns the number of elements the queue can hold.
+     *
+     * @return the length of the ring buffer.
+     */
+    public int capacity() {
+        return buffer.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected final T loadAcquire(int slot) {
+        return (T) SLOT.getAcquire(buffer, slot);
+    }
+
+    protected final Object loadPlain(int slot) {
+        return SLOT.get(buffer, slot);
+    }
+
+    /**
+     * Ordered (lazy) store: everything written before it is visible to a
+     * thread that reads the slot with loadAcquire, without the cost of a full
+     * volatile write.
+     */
+    protected final void storeRelease(int slot, Object e) {
+        SLOT.setRelease(buffer, slot, e);
+    }
+}
+
+/**
+ * Cache-line padding in front of the producer sequence.
+ */
+abstract class ArrayQueuePad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+/**
+ * Holds the producer sequence: the number of elements ever claimed by
+ * producers.
+ */
+abstract class ArrayQueueProducerIndex extends ArrayQueuePad0 {
+
+    private static final VarHandle PRODUCER_INDEX;
+
+    static {
+        try {
+            PRODUCER_INDEX = MethodHandles.lookup()
+                    .findVarHandle(ArrayQueueProducerIndex.class, "producerIndex", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long producerIndex;
+
+    final long producerIndex() {
+        return producerIndex;
+    }
+
+    final long producerIndexPlain() {
+        return (long) PRODUCER_INDEX.get(this);
+    }
+
+    final void setProducerIndexRelease(long value) {
+        PRODUCER_INDEX.setRelease(this, value);
+    }
+
+    final boolean casProducerIndex(long expected, long value) {
+        return PRODUCER_INDEX.compareAndSet(this, expected, value);
+    }
+}
+
+/**
+ * Cache-line padding between the producer and consumer sequences.
+ */
+abstract class ArrayQueuePad1 extends ArrayQueueProducerIndex {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+/**
+ * Holds the consumer sequence: the number of elements ever removed by the
+ * consumer.
+ */
+abstract class ArrayQueueConsumerIndex extends ArrayQueuePad1 {
+
+    private static final VarHandle CONSUMER_INDEX;
+
+    static {
+        try {
+            CONSUMER_INDEX = MethodHandles.lookup()
+                    .findVarHandle(ArrayQueueConsumerIndex.class, "consumerIndex", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long consumerIndex;
+    long p20, p21, p22, p23, p24, p25, p26, p27; // Padding behind the consumer sequence
+
+    final long consumerIndex() {
+        return consumerIndex;
+    }
+
+    final void setConsumerIndexRelease(long value) {
+        CONSUMER_INDEX.setRelease(this, value);
+    }
+}
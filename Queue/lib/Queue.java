@@ -1,6 +1,52 @@
 
+/**
+ * Defines the operations for a queue data structure.
+ * A queue is a collection of elements that supports the First In, First Out
+ * (FIFO) principle: elements are added at the tail and removed from the head.
+ * This interface defines the basic operations such as offer, poll, peek, and
+ * methods to query the queue's size and emptiness.
+ *
+ * @param <T> the type of elements held in this queue.
+ */
 public interface Queue<T> {
 
-    // TODO: Implement Queue Interface;
- 
+    /**
+     * Adds an element to the tail of the queue.
+     * Bounded implementations may reject the element when they are full.
+     * 
+     * @param n the element to add to the queue.
+     * @return true if the element was added, false if the queue is full.
+     * @throws NullPointerException if the element is null.
+     */
+    boolean offer(T n);
+
+    /**
+     * Removes and returns the element at the head of the queue.
+     * 
+     * @return the element at the head of the queue, or null if the queue is empty.
+     */
+    T poll();
+
+    /**
+     * Returns the element at the head of the queue without removing it.
+     * 
+     * @return the element at the head of the queue, or null if the queue is empty.
+     */
+    T peek();
+
+    /**
+     * Returns the number of elements in the queue.
+     * Concurrent implementations may return a value that is already stale.
+     * 
+     * @return the number of elements in the queue.
+     */
+    int size();
+
+    /**
+     * Checks if the queue is empty.
+     * 
+     * @return true if the queue contains no elements, false otherwise.
+     */
+    boolean isEmpty();
+    
 }
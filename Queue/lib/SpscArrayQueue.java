@@ -0,0 +1,88 @@
+import java.util.function.Supplier;
+
+/**
+ * Implements a bounded queue for exactly one producer thread and one consumer
+ * thread.
+ * With a single thread on each side no compare-and-set (CAS) or lock is
+ * needed at all: the producer owns the producer sequence and the consumer owns
+ * the consumer sequence. The producer learns that a slot is free when it reads
+ * null there, and the consumer learns that a slot is full when it reads an
+ * element there, so neither side has to read the other side's sequence on the
+ * fast path. All publishing writes are ordered (release) stores rather than
+ * full volatile writes.
+ *
+ * The ring buffer is allocated by the constructor, so offers and polls never
+ * allocate. Calling offer or fill from more than one thread, or poll, peek or
+ * drain from more than one thread, corrupts the queue.
+ *
+ * @param <T> the type of elements held in this queue.
+ */
+public class SpscArrayQueue<T> extends PaddedArrayQueue<T> {
+
+    /**
+     * Constructs an empty queue holding at least capacity elements.
+     *
+     * @param capacity the minimum number of elements the queue can hold; rounded
+     *                 up to a power of two.
+     */
+    public SpscArrayQueue(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * Adds an element to the tail of the queue. May only be called from the
+     * producer thread.
+     *
+     * @param n the element to add to the queue.
+     * @return true if the element was added, false if the queue is full.
+     * @throws NullPointerException if the element is null.
+     */
+    @Override
+    public boolean offer(T n) {
+        if (n == null) {
+            throw new NullPointerException("Cannot add null to the queue");
+        }
+        long p = producerIndexPlain(); // Only this thread writes it
+        int slot = (int) p & mask;
+        if (loadAcquire(slot) != null) {
+            return false; // The consumer has not freed this slot yet: full
+        }
+        storeRelease(slot, n); // Publish the element to the consumer
+        setProducerIndexRelease(p + 1);
+        return true;
+    }
+
+    /**
+     * Adds up to limit elements taken from the supplier, stopping early when
+     * the queue is full. May only be called from the producer thread.
+     *
+     * @param supplier provides the elements; it is only called when there is room.
+     * @param limit    the maximum number of elements to add.
+     * @return the number of elements added.
+     * @throws NullPointerException if the supplier returns null.
+     */
+    @Override
+    public int fill(Supplier<? extends T> supplier, int limit) {
+        long p = producerIndexPlain();
+        int done = 0;
+        try {
+            while (done < limit) {
+                int slot = (int) (p + done) & mask;
+                if (loadAcquire(slot) != null) {
+                    break; // Full
+                }
+                T e = supplier.get();
+                if (e == null) {
+                    throw new NullPointerException("Cannot add null to the queue");
+                }
+                storeRelease(slot, e);
+                done++;
+            }
+        } finally {
+            if (done > 0) {
+                setProducerIndexRelease(p + done); // One ordered store for the whole batch
+            }
+        }
+        return done;
+    }
+}
@@ -1,6 +1,296 @@
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
 public class Main {
 
-    public static void main(String[] args) {
-        // TODO: Implement Test Cases For Queue;
+    private static final int PRODUCERS = 4;
+    private static final int CONSUMERS = 4;
+    private static final int ITEMS_PER_PRODUCER = 250_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        LinkedQueue<Integer> queue = new LinkedQueue<Integer>();
+        queue.offer(10);
+        queue.offer(20);
+        System.out.println("\nPeek: " + queue.peek()); // Outputs: Peek: 10
+        System.out.println("Poll: " + queue.poll()); // Outputs: Poll: 10
+        System.out.println("Is Empty: " + queue.isEmpty()); // Outputs: Is Empty: false
+        System.out.println("Size: " + queue.size()); // Outputs: Size: 1
+
+        boolean passed = stressTest(new LinkedQueue<Integer>());
+        System.out.println("\nStress test: " + (passed ? "PASSED" : "FAILED"));
+
+        double mops = throughput(new LinkedQueue<Integer>());
+        System.out.printf("Throughput: %.2f million offers+polls per second (%d producers, %d consumers)%n",
+                mops, PRODUCERS, CONSUMERS);
+
+        boolean spscPassed = singleConsumerTest(new SpscArrayQueue<Integer>(1024), 1);
+        boolean mpscPassed = singleConsumerTest(new MpscArrayQueue<Integer>(1024), PRODUCERS);
+        System.out.println("\nSpscArrayQueue stress test: " + (spscPassed ? "PASSED" : "FAILED"));
+        System.out.println("MpscArrayQueue stress test: " + (mpscPassed ? "PASSED" : "FAILED"));
+        boolean recovered = failureTest(new SpscArrayQueue<Integer>(16)) && failureTest(new MpscArrayQueue<Integer>(16));
+        System.out.println("fill/drain failure test: " + (recovered ? "PASSED" : "FAILED"));
+        passed &= spscPassed && mpscPassed && recovered;
+
+        System.out.printf("SpscArrayQueue handoffs: %.2f million per second (offer/poll)%n",
+                handoffs(new SpscArrayQueue<Integer>(1024), false));
+        System.out.printf("SpscArrayQueue handoffs: %.2f million per second (fill/drain)%n",
+                handoffs(new SpscArrayQueue<Integer>(1024), true));
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs producers and consumers concurrently and checks that every element
+     * is consumed exactly once and that each consumer sees the elements of any
+     * one producer in the order they were offered.
+     *
+     * @return true if the queue passed.
+     */
+    static boolean stressTest(Queue<Integer> queue) throws InterruptedException {
+        int total = PRODUCERS * ITEMS_PER_PRODUCER;
+        AtomicIntegerArray seen = new AtomicIntegerArray(total); // How often each value was consumed
+        AtomicLong consumed = new AtomicLong();
+        boolean[] inOrder = { true };
+        Thread[] threads = new Thread[PRODUCERS + CONSUMERS];
+
+        for (int p = 0; p < PRODUCERS; p++) {
+            int base = p * ITEMS_PER_PRODUCER; // Values base .. base + ITEMS_PER_PRODUCER - 1
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < ITEMS_PER_PRODUCER; i++) {
+                    queue.offer(base + i);
+                }
+            });
+        }
+        for (int c = 0; c < CONSUMERS; c++) {
+            threads[PRODUCERS + c] = new Thread(() -> {
+                int[] last = new int[PRODUCERS]; // Last value seen from each producer
+                Arrays.fill(last, -1);
+                while (consumed.get() < total) {
+                    Integer value = queue.poll();
+                    if (value == null) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    int producer = value / ITEMS_PER_PRODUCER;
+                    if (value <= last[producer]) {
+                        inOrder[0] = false; // FIFO order broken for this producer
+                    }
+                    last[producer] = value;
+                    seen.incrementAndGet(value);
+                    consumed.incrementAndGet();
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < total; i++) {
+            if (seen.get(i) != 1) {
+                return false; // Lost or duplicated
+            }
+        }
+        return inOrder[0] && queue.isEmpty() && queue.poll() == null;
+    }
+
+    /**
+     * Measures how fast the producers and consumers move elements through
+     * the queue.
+     *
+     * @return the throughput in millions of offers plus polls per second.
+     */
+    static double throughput(Queue<Integer> queue) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(PRODUCERS + CONSUMERS);
+        AtomicLong remaining = new AtomicLong((long) PRODUCERS * ITEMS_PER_PRODUCER);
+        Integer element = 42; // Shared boxed value so boxing is not measured
+
+        for (int p = 0; p < PRODUCERS; p++) {
+            new Thread(() -> {
+                await(start);
+                for (int i = 0; i < ITEMS_PER_PRODUCER; i++) {
+                    queue.offer(element);
+                }
+                done.countDown();
+            }).start();
+        }
+        for (int c = 0; c < CONSUMERS; c++) {
+            new Thread(() -> {
+                await(start);
+                while (remaining.get() > 0) {
+                    if (queue.poll() != null) {
+                        remaining.decrementAndGet();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long nanos = System.nanoTime() - begin;
+        return 2.0 * PRODUCERS * ITEMS_PER_PRODUCER / nanos * 1_000;
+    }
+
+    /**
+     * Runs the given number of producers against a single consumer that uses
+     * both poll and drain, and checks that every element is consumed exactly
+     * once, in order per producer.
+     *
+     * @return true if the queue passed.
+     */
+    static boolean singleConsumerTest(PaddedArrayQueue<Integer> queue, int producers) throws InterruptedException {
+        int total = producers * ITEMS_PER_PRODUCER;
+        int[] seen = new int[total]; // Only the consumer thread touches these
+        int[] last = new int[producers];
+        Arrays.fill(last, -1);
+        boolean[] inOrder = { true };
+        Thread[] threads = new Thread[producers];
+
+        for (int p = 0; p < producers; p++) {
+            int base = p * ITEMS_PER_PRODUCER;
+            threads[p] = new Thread(() -> {
+                int[] next = { base };
+                while (next[0] < base + ITEMS_PER_PRODUCER) {
+                    if ((next[0] & 1) == 0) {
+                        if (!queue.offer(next[0])) {
+                            Thread.onSpinWait(); // Full; wait for the consumer
+                            continue;
+                        }
+                        next[0]++;
+                    } else {
+                        int limit = Math.min(16, base + ITEMS_PER_PRODUCER - next[0]);
+                        queue.fill(() -> next[0]++, limit);
+                    }
+                }
+            });
+            threads[p].start();
+        }
+
+        Consumer<Integer> check = value -> {
+            int producer = value / ITEMS_PER_PRODUCER;
+            if (value <= last[producer]) {
+                inOrder[0] = false;
+            }
+            last[producer] = value;
+            seen[value]++;
+        };
+        int consumed = 0;
+        while (consumed < total) {
+            Integer value = queue.poll();
+            if (value != null) {
+                check.accept(value);
+                consumed++;
+            }
+            consumed += queue.drain(check, 32);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int count : seen) {
+            if (count != 1) {
+                return false;
+            }
+        }
+        return inOrder[0] && queue.isEmpty() && queue.size() == 0;
+    }
+
+    /**
+     * Lets a supplier of fill and a consumer of drain throw halfway through
+     * a batch and checks that the queue keeps working afterwards: no element
+     * is lost or reordered and every slot can be used again.
+     *
+     * @return true if the queue passed.
+     */
+    static boolean failureTest(PaddedArrayQueue<Integer> queue) {
+        int[] next = { 0 };
+        try {
+            queue.fill(() -> {
+                if (next[0] == 2) {
+                    throw new IllegalStateException("supplier failed");
+                }
+                return next[0]++;
+            }, 6);
+            return false;
+        } catch (IllegalStateException e) {
+            // Expected: elements 0 and 1 were added
+        }
+        for (int i = 2; i < 6; i++) {
+            queue.offer(i);
+        }
+        try {
+            queue.drain(value -> {
+                if (value == 3) {
+                    throw new IllegalStateException("consumer failed");
+                }
+            }, 6);
+            return false;
+        } catch (IllegalStateException e) {
+            // Expected: elements 0 to 3 were removed
+        }
+        if (queue.peek() == null || queue.peek() != 4 || queue.poll() != 4 || queue.poll() != 5
+                || queue.poll() != null) {
+            return false;
+        }
+        for (int i = 0; i < queue.capacity(); i++) {
+            if (!queue.offer(i)) {
+                return false; // Slots were leaked
+            }
+        }
+        return queue.drain(value -> { }, queue.capacity()) == queue.capacity() && queue.isEmpty();
+    }
+
+    /**
+     * Measures how fast one producer thread hands elements to one consumer
+     * thread.
+     *
+     * @param batched true to move elements with fill/drain, false for offer/poll.
+     * @return the throughput in millions of handoffs per second.
+     */
+    static double handoffs(PaddedArrayQueue<Integer> queue, boolean batched) throws InterruptedException {
+        int total = 20_000_000;
+        Integer element = 42; // Shared boxed value so boxing is not measured
+        Thread producer = new Thread(() -> {
+            int sent = 0;
+            while (sent < total) {
+                int moved = batched ? queue.fill(() -> element, Math.min(256, total - sent))
+                        : queue.offer(element) ? 1 : 0;
+                if (moved == 0) {
+                    Thread.yield(); // Full; let the consumer run
+                }
+                sent += moved;
+            }
+        });
+
+        long begin = System.nanoTime();
+        producer.start();
+        int received = 0;
+        while (received < total) {
+            int moved = batched ? queue.drain(e -> { }, 256) : queue.poll() != null ? 1 : 0;
+            if (moved == 0) {
+                Thread.yield(); // Empty; let the producer run
+            }
+            received += moved;
+        }
+        long nanos = System.nanoTime() - begin;
+        producer.join();
+        return (double) total / nanos * 1_000;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
@@ -0,0 +1,507 @@
+package lib;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConcurrentSortedSkipList is the thread-safe variant of SortedSkipList.
+ * It has the same levels of singly linked lists and the same expected
+ * O(log n) insert, contains, remove, floor, ceiling and range, but no locks:
+ * every link is changed with a compare-and-set (CAS), and a thread whose
+ * CAS fails retries instead of blocking.
+ *
+ * Removing a node takes two steps, as in Harris's lock-free linked list:
+ *
+ * - First the node is marked deleted on each of its levels, from the top
+ *   down, by swinging its own next link on that level to a Marker that
+ *   wraps the successor. A marked link never changes again, so no thread
+ *   can insert after a node that is being removed. Marking level 0 is the
+ *   moment the element leaves the set, and only one remover can win it.
+ * - Then the node is unlinked from each level by CASing its predecessor's
+ *   link past it. Any thread that meets a marked node while searching does
+ *   this for it, so a remover never waits for anybody.
+ *
+ * Inserting links the new node into level 0 with one CAS, which is the
+ * moment it joins the set, and then into the higher levels one by one; the
+ * higher levels only speed up searches, so they may lag behind.
+ *
+ * Searches that do not change the list (contains, floor, ceiling, first,
+ * last and the iterators) step over marked nodes without unlinking them.
+ * The iterators are weakly consistent: they never throw
+ * ConcurrentModificationException and see each element at most once.
+ * size() adds up a striped counter, so it is a snapshot that may be stale
+ * by the time it is returned.
+ *
+ * @param <E> The type of elements held in the list.
+ */
+public class ConcurrentSortedSkipList<E> extends AbstractSet<E> implements SortedSequence<E> {
+
+    private static final int MAX_LEVEL = SortedSkipList.MAX_LEVEL;
+    private static final VarHandle NEXT = MethodHandles.arrayElementVarHandle(Node[].class); // CAS access to links
+
+    /**
+     * A node linked into levels 0 to next.length - 1.
+     */
+    private static class Node<E> {
+        private final E element; // The element, null in the head and in markers
+        private final Node<E>[] next; // The next node on each level, null in markers; accessed through NEXT
+
+        @SuppressWarnings("unchecked")
+        Node(E element, int levels) {
+            this.element = element;
+            this.next = levels > 0 ? (Node<E>[]) new Node<?>[levels] : null;
+        }
+    }
+
+    /**
+     * Stands in a node's next link on a level to mark the node deleted there.
+     */
+    private static final class Marker<E> extends Node<E> {
+        private final Node<E> successor; // The next node the link held when it was marked
+
+        Marker(Node<E> successor) {
+            super(null, 0);
+            this.successor = successor;
+        }
+    }
+
+    private final Comparator<? super E> comparator; // The order of the elements
+    private final Node<E> head = new Node<>(null, MAX_LEVEL); // Sentinel before the first node of every level
+    private final LongAdder count = new LongAdder(); // Striped counter for the number of elements
+
+    /**
+     * Constructs an empty list ordered by the natural order of its elements.
+     */
+    public ConcurrentSortedSkipList() {
+        this(null);
+    }
+
+    /**
+     * Constructs an empty list ordered by the given comparator.
+     *
+     * @param comparator The order of the elements, or null for the natural order.
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentSortedSkipList(Comparator<? super E> comparator) {
+        this.comparator = comparator != null ? comparator : (Comparator<? super E>) Comparator.naturalOrder();
+    }
+
+    /**
+     * Inserts an element at its place in the order.
+     *
+     * @param element The element to insert.
+     * @return True if it was inserted, false if the list already held it.
+     */
+    @Override
+    public boolean insert(E element) {
+        Objects.requireNonNull(element);
+        Node<E>[] preds = newPath();
+        Node<E>[] succs = newPath();
+        int height = SortedSkipList.randomLevel();
+        Node<E> node;
+        while (true) {
+            find(element, preds, succs);
+            if (succs[0] != null && comparator.compare(succs[0].element, element) == 0) {
+                return false;
+            }
+            node = new Node<>(element, height);
+            for (int i = 0; i < height; i++) {
+                node.next[i] = succs[i]; // Published by the CAS below
+            }
+            if (casLink(preds[0], 0, succs[0], node)) {
+                break; // The element is in the set from here on
+            }
+        }
+        count.increment();
+        for (int i = 1; i < height; i++) {
+            while (true) {
+                Node<E> succ = link(node, i);
+                if (succ instanceof Marker) {
+                    return true; // Already being removed, stop building it up
+                }
+                if (succ != succs[i] && !casLink(node, i, succ, succs[i])) {
+                    continue; // Marked meanwhile, the check above ends it
+                }
+                if (casLink(preds[i], i, succs[i], node)) {
+                    break;
+                }
+                find(element, preds, succs); // The level changed around us, look again
+                if (succs[0] != node) {
+                    return true; // Removed meanwhile
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Inserts an element, as insert(element) does.
+     *
+     * @param element The element to insert.
+     * @return True if it was inserted, false if the list already held it.
+     */
+    @Override
+    public boolean add(E element) {
+        return insert(element);
+    }
+
+    /**
+     * Checks whether the list holds an element, in expected O(log n) time.
+     *
+     * @param o The element to look for.
+     * @return True if the list holds it.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        Node<E> node = ceilingNode((E) Objects.requireNonNull(o));
+        return node != null && comparator.compare(node.element, (E) o) == 0;
+    }
+
+    /**
+     * Removes an element: marks its node on every level, then unlinks it.
+     *
+     * @param o The element to remove.
+     * @return True if this call removed it, false if the list did not hold
+     *         it or another thread removed it first.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        E element = (E) Objects.requireNonNull(o);
+        Node<E>[] preds = newPath();
+        Node<E>[] succs = newPath();
+        find(element, preds, succs);
+        Node<E> node = succs[0];
+        if (node == null || comparator.compare(node.element, element) != 0) {
+            return false;
+        }
+        for (int i = node.next.length - 1; i > 0; i--) {
+            Node<E> succ = link(node, i);
+            while (!(succ instanceof Marker)) {
+                casLink(node, i, succ, new Marker<>(succ));
+                succ = link(node, i);
+            }
+        }
+        Node<E> succ = link(node, 0);
+        while (!(succ instanceof Marker)) {
+            if (casLink(node, 0, succ, new Marker<>(succ))) {
+                count.decrement();
+                find(element, preds, succs); // Unlinks the node on the way
+                return true;
+            }
+            succ = link(node, 0);
+        }
+        return false; // Another remover marked level 0 first
+    }
+
+    /**
+     * Returns the greatest element less than or equal to the given one.
+     *
+     * @param element The element to compare with.
+     * @return The greatest element not after it, or null if there is none.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E floor(E element) {
+        Objects.requireNonNull(element);
+        while (true) {
+            Node<E> pred = head;
+            for (int i = MAX_LEVEL - 1; i >= 0; i--) {
+                Node<E> curr = successor(pred, i);
+                while (curr != null) {
+                    Node<E> succ = link(curr, i);
+                    if (succ instanceof Marker) {
+                        curr = ((Marker<E>) succ).successor; // Step over a deleted node
+                    } else if (comparator.compare(curr.element, element) <= 0) {
+                        pred = curr;
+                        curr = succ;
+                    } else {
+                        break;
+                    }
+                }
+            }
+            if (pred == head) {
+                return null;
+            }
+            if (!isDeleted(pred, 0)) {
+                return pred.element;
+            }
+            // The node was removed after we stepped onto it on a higher level; search again
+        }
+    }
+
+    /**
+     * Returns the least element greater than or equal to the given one.
+     *
+     * @param element The element to compare with.
+     * @return The least element not before it, or null if there is none.
+     */
+    @Override
+    public E ceiling(E element) {
+        Node<E> node = ceilingNode(Objects.requireNonNull(element));
+        return node == null ? null : node.element;
+    }
+
+    /**
+     * Returns the least element.
+     *
+     * @return The first element of the list.
+     * @throws NoSuchElementException if the list is empty.
+     */
+    @Override
+    public E first() {
+        Node<E> node = live(successor(head, 0));
+        if (node == null) {
+            throw new NoSuchElementException();
+        }
+        return node.element;
+    }
+
+    /**
+     * Returns the greatest element, running along the top levels to reach it.
+     *
+     * @return The last element of the list.
+     * @throws NoSuchElementException if the list is empty.
+     */
+    @Override
+    public E last() {
+        while (true) {
+            Node<E> pred = head;
+            for (int i = MAX_LEVEL - 1; i >= 0; i--) {
+                for (Node<E> curr = successor(pred, i); curr != null; curr = successor(curr, i)) {
+                    if (!isDeleted(curr, i)) {
+                        pred = curr;
+                    }
+                }
+            }
+            if (pred == head) {
+                throw new NoSuchElementException();
+            }
+            if (!isDeleted(pred, 0)) {
+                return pred.element;
+            }
+        }
+    }
+
+    /**
+     * Returns the elements from fromElement (inclusive) to toElement
+     * (exclusive) in ascending order, weakly consistent like iterator().
+     *
+     * @param fromElement The low end of the range, inclusive.
+     * @param toElement   The high end of the range, exclusive.
+     * @return The elements of the range, iterable once or many times.
+     */
+    @Override
+    public Iterable<E> range(E fromElement, E toElement) {
+        Objects.requireNonNull(fromElement);
+        Objects.requireNonNull(toElement);
+        return () -> new Itr(ceilingNode(fromElement), toElement);
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the elements in ascending
+     * order. It reflects some of the changes made after it was created.
+     *
+     * @return An iterator over the elements of the list.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr(successor(head, 0), null);
+    }
+
+    /**
+     * Returns the number of elements in the list. An insert may be counted a
+     * moment after the matching remove is, so the counter is clamped to the
+     * valid range.
+     *
+     * @return The number of elements in the list.
+     */
+    @Override
+    public int size() {
+        long sum = count.sum();
+        if (sum <= 0) {
+            return 0;
+        }
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return live(successor(head, 0)) == null;
+    }
+
+    /**
+     * Prints the elements of the list in a human-readable format.
+     */
+    @Override
+    public void print() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[ ");
+        for (E element : this) {
+            sb.append(element).append(" -> ");
+        }
+        sb.append("null");
+        sb.append(" ]");
+        System.out.println(sb.toString());
+    }
+
+    /**
+     * Descends from the top level to level 0, recording on every level the
+     * last node before the element and the first node not before it, and
+     * unlinking the marked nodes it meets. If a predecessor turns out to be
+     * marked itself, its link can no longer be changed, so the search starts
+     * over from the head.
+     *
+     * @param element The element to search for.
+     * @param preds   Receives the predecessor on each level.
+     * @param succs   Receives the successor on each level.
+     */
+    @SuppressWarnings("unchecked")
+    private void find(E element, Node<E>[] preds, Node<E>[] succs) {
+        retry:
+        while (true) {
+            Node<E> pred = head;
+            for (int i = MAX_LEVEL - 1; i >= 0; i--) {
+                Node<E> curr = link(pred, i);
+                while (true) {
+                    if (curr instanceof Marker) {
+                        continue retry; // pred was marked on this level
+                    }
+                    if (curr == null) {
+                        break;
+                    }
+                    Node<E> succ = link(curr, i);
+                    if (succ instanceof Marker) {
+                        Node<E> s = ((Marker<E>) succ).successor;
+                        if (!casLink(pred, i, curr, s)) {
+                            continue retry;
+                        }
+                        curr = s; // Unlinked curr on this level
+                    } else if (comparator.compare(curr.element, element) < 0) {
+                        pred = curr;
+                        curr = succ;
+                    } else {
+                        break;
+                    }
+                }
+                preds[i] = pred;
+                succs[i] = curr;
+            }
+            return;
+        }
+    }
+
+    /**
+     * Returns the first live node not before the element, stepping over
+     * marked nodes without unlinking them.
+     */
+    @SuppressWarnings("unchecked")
+    private Node<E> ceilingNode(E element) {
+        Node<E> pred = head;
+        Node<E> curr = null;
+        for (int i = MAX_LEVEL - 1; i >= 0; i--) {
+            curr = successor(pred, i);
+            while (curr != null) {
+                Node<E> succ = link(curr, i);
+                if (succ instanceof Marker) {
+                    curr = ((Marker<E>) succ).successor;
+                } else if (comparator.compare(curr.element, element) < 0) {
+                    pred = curr;
+                    curr = succ;
+                } else {
+                    break;
+                }
+            }
+        }
+        return curr;
+    }
+
+    /**
+     * Returns the next node of a node on a level, looking through a marker.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> Node<E> successor(Node<E> node, int level) {
+        Node<E> succ = link(node, level);
+        return succ instanceof Marker ? ((Marker<E>) succ).successor : succ;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Node<E> link(Node<E> node, int level) {
+        return (Node<E>) NEXT.getAcquire(node.next, level);
+    }
+
+    private static <E> boolean casLink(Node<E> node, int level, Node<E> expected, Node<E> update) {
+        return NEXT.compareAndSet(node.next, level, expected, update);
+    }
+
+    private static <E> boolean isDeleted(Node<E> node, int level) {
+        return link(node, level) instanceof Marker;
+    }
+
+    /**
+     * Returns the first node from the given one on that is not deleted.
+     */
+    private static <E> Node<E> live(Node<E> node) {
+        while (node != null && isDeleted(node, 0)) {
+            node = successor(node, 0);
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<E>[] newPath() {
+        return (Node<E>[]) new Node<?>[MAX_LEVEL];
+    }
+
+    /**
+     * Walks level 0 from a node up to an exclusive bound, skipping deleted
+     * nodes.
+     */
+    private final class Itr implements Iterator<E> {
+        private Node<E> next; // The node to return next, or null at the end
+        private final E toElement; // Exclusive bound, or null for none
+        private E lastReturned; // For remove(), null if there is nothing to remove
+
+        Itr(Node<E> first, E toElement) {
+            this.toElement = toElement;
+            this.next = bounded(live(first));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next.element;
+            next = bounded(live(successor(next, 0)));
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            ConcurrentSortedSkipList.this.remove(lastReturned);
+            lastReturned = null;
+        }
+
+        private Node<E> bounded(Node<E> node) {
+            return node == null || (toElement != null && comparator.compare(node.element, toElement) >= 0)
+                    ? null
+                    : node;
+        }
+    }
+}
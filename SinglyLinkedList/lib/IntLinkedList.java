@@ -0,0 +1,469 @@
+package lib;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * IntLinkedList is a primitive-specialized singly linked list of int values.
+ *
+ * It offers the same public methods as SinglyLinkedList (add, addFirst,
+ * addLast, removeFirst, removeLast, peek, peekFirst, peekLast, reverse, sort,
+ * isPalindrome, print) without ever boxing a value into an Integer.
+ *
+ * Instead of one node object per element, the nodes live in a pool made of
+ * two parallel int arrays: values[i] holds the element of node i, and next[i]
+ * holds the index of the node after it (or NIL at the end of the list). A
+ * node therefore costs 8 bytes, compared with roughly 40 bytes for a boxed
+ * Integer plus a LinkedList.Node. Removed nodes are chained into a free list
+ * through the same next array and reused by later adds.
+ *
+ * Just like SinglyLinkedList, each node only points to its right-most
+ * neighbor:
+ *
+ * [ 1 -> 2 -> 3 -> 4 -> null ]
+ *
+ * so removeLast(), get(index) and add(index, element) walk the list from the
+ * head, while everything that touches the head or appends at the tail is O(1).
+ *
+ * * Example usage:
+ *
+ * <pre>{@code
+ * IntLinkedList list = new IntLinkedList();
+ * list.add(1);
+ * list.add(2);
+ * list.addFirst(0);
+ * list.print(); // Output: [ 0 -> 1 -> 2 -> null ]
+ * }</pre>
+ *
+ */
+public class IntLinkedList {
+
+    private static final int NIL = -1; // Index meaning "no node"
+    private static final int DEFAULT_CAPACITY = 16; // Initial pool size when none is given
+
+    private int[] values; // values[i] is the element stored in node i
+    private int[] next; // next[i] is the index of the node after node i
+    private int head = NIL; // Index of the first node
+    private int tail = NIL; // Index of the last node
+    private int size; // Number of elements in the list
+    private int used; // Number of pool slots handed out so far
+    private int free = NIL; // Head of the chain of removed, reusable slots
+
+    /**
+     * Constructs an empty list.
+     */
+    public IntLinkedList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty list whose node pool has room for the given number
+     * of elements before it has to grow.
+     *
+     * @param initialCapacity The number of nodes to preallocate.
+     */
+    public IntLinkedList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + initialCapacity);
+        }
+        values = new int[initialCapacity];
+        next = new int[initialCapacity];
+    }
+
+    /**
+     * Adds an element to the end of the list.
+     *
+     * @param n The element to add.
+     */
+    public void add(int n) {
+        addLast(n);
+    }
+
+    /**
+     * Inserts the specified element at the specified position in the list.
+     *
+     * @param index   The index at which the specified element is to be inserted.
+     * @param element The element to be inserted.
+     */
+    public void add(int index, int element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Invalid index: " + index);
+        }
+        if (index == 0) {
+            addFirst(element);
+        } else if (index == size) {
+            addLast(element);
+        } else {
+            int prev = node(index - 1); // Walk to the node before the insertion point
+            int n = allocate(element);
+            next[n] = next[prev];
+            next[prev] = n;
+            size++;
+        }
+    }
+
+    /**
+     * Inserts the specified element at the beginning of the list.
+     *
+     * @param element The element to add.
+     */
+    public void addFirst(int element) {
+        int n = allocate(element);
+        next[n] = head;
+        head = n;
+        if (tail == NIL) {
+            tail = n;
+        }
+        size++;
+    }
+
+    /**
+     * Appends the specified element to the end of the list.
+     *
+     * @param element The element to add.
+     */
+    public void addLast(int element) {
+        int n = allocate(element);
+        next[n] = NIL;
+        if (tail == NIL) {
+            head = n;
+        } else {
+            next[tail] = n;
+        }
+        tail = n;
+        size++;
+    }
+
+    /**
+     * Removes and returns the first element from the list.
+     *
+     * @return The first element of the list.
+     */
+    public int removeFirst() {
+        if (size == 0) { // Check if the list is empty
+            throw new IllegalStateException("Cannot remove from an empty list");
+        }
+        int n = head;
+        int value = values[n];
+        head = next[n];
+        if (head == NIL) {
+            tail = NIL;
+        }
+        release(n);
+        size--;
+        return value;
+    }
+
+    /**
+     * Removes and returns the last element from the list.
+     * Since nodes only point forward, this walks the list to find the node
+     * before the tail.
+     *
+     * @return The last element of the list.
+     */
+    public int removeLast() {
+        if (size == 0) { // Check if the list is empty
+            throw new IllegalStateException("Cannot remove from an empty list");
+        }
+        if (size == 1) {
+            return removeFirst();
+        }
+        int prev = node(size - 2); // The node that becomes the new tail
+        int n = tail;
+        int value = values[n];
+        next[prev] = NIL;
+        tail = prev;
+        release(n);
+        size--;
+        return value;
+    }
+
+    /**
+     * Retrieves, but does not remove, the first element of the list.
+     *
+     * @return The first element of the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public int peek() {
+        return peekFirst();
+    }
+
+    /**
+     * Retrieves, but does not remove, the first element of the list.
+     *
+     * @return The first element of the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public int peekFirst() {
+        if (size == 0) { // Check if the list is empty
+            throw new IllegalStateException("Cannot peek into an empty list");
+        }
+        return values[head];
+    }
+
+    /**
+     * Retrieves, but does not remove, the last element of the list.
+     *
+     * @return The last element of the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public int peekLast() {
+        if (size == 0) { // Check if the list is empty
+            throw new IllegalStateException("Cannot peek into an empty list");
+        }
+        return values[tail];
+    }
+
+    /**
+     * Returns the element at the specified position in the list.
+     *
+     * @param index The index of the element to return.
+     * @return The element at the specified position.
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Invalid index: " + index);
+        }
+        return values[node(index)];
+    }
+
+    /**
+     * Returns the number of elements in the list.
+     *
+     * @return The number of elements in the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the list contains no elements.
+     *
+     * @return True if the list is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every element from the list. The node pool keeps its capacity.
+     */
+    public void clear() {
+        head = tail = free = NIL;
+        size = used = 0;
+    }
+
+    /**
+     * Reverses the order of the list in a single pass by flipping each
+     * node's next link.
+     */
+    public void reverse() {
+        if (size == 0) { // Check if the list is empty
+            throw new IllegalStateException("Cannot reverse an empty list");
+        }
+        tail = head;
+        head = reverseFrom(head);
+    }
+
+    /**
+     * Sorts the list in ascending order in place and returns it.
+     *
+     * This is a bottom-up merge sort that relinks nodes instead of moving
+     * values, so it runs in O(n log n) time with O(1) extra memory and never
+     * allocates.
+     *
+     * @return This list, now sorted.
+     */
+    public IntLinkedList sort() {
+        if (size == 0) {
+            throw new IllegalStateException("Cannot sort an empty list");
+        }
+
+        for (int width = 1; width < size; width <<= 1) {
+            int rest = head; // Unmerged remainder of the list
+            int last = NIL; // Tail of the part already merged in this pass
+            head = NIL;
+            while (rest != NIL) {
+                int left = rest; // First run of up to width nodes
+                int right = cut(left, width); // Second run starts after the first
+                rest = cut(right, width); // Whatever follows the second run
+
+                // Merge the two runs, taking from the left on ties to stay stable
+                while (left != NIL || right != NIL) {
+                    int n;
+                    if (right == NIL || (left != NIL && values[left] <= values[right])) {
+                        n = left;
+                        left = next[left];
+                    } else {
+                        n = right;
+                        right = next[right];
+                    }
+                    if (last == NIL) {
+                        head = n;
+                    } else {
+                        next[last] = n;
+                    }
+                    last = n;
+                }
+            }
+            next[last] = NIL;
+            tail = last;
+        }
+        return this;
+    }
+
+    /**
+     * Checks whether the list reads the same forwards and backwards.
+     *
+     * Since nodes only point forward, the second half is reversed in place,
+     * compared against the first half, then reversed back. This takes O(n)
+     * time and O(1) extra memory, and leaves the list unchanged.
+     *
+     * @return True if the list is palindromatic.
+     */
+    public boolean isPalindrome() {
+        if (size < 2) {
+            return true;
+        }
+        int middle = node((size - 1) / 2); // Last node of the first half
+        int second = reverseFrom(next[middle]); // Second half, now read back to front
+
+        boolean palindrome = true;
+        for (int left = head, right = second; right != NIL; left = next[left], right = next[right]) {
+            if (values[left] != values[right]) {
+                palindrome = false;
+                break;
+            }
+        }
+
+        next[middle] = reverseFrom(second); // Restore the original order
+        return palindrome;
+    }
+
+    /**
+     * Performs the given action on every element, from head to tail, without
+     * boxing.
+     *
+     * @param action The action to perform on each element.
+     */
+    public void forEach(IntConsumer action) {
+        for (int n = head; n != NIL; n = next[n]) {
+            action.accept(values[n]);
+        }
+    }
+
+    /**
+     * Copies the elements into a new array, from head to tail.
+     *
+     * @return An array holding every element of the list.
+     */
+    public int[] toArray() {
+        int[] out = new int[size];
+        int i = 0;
+        for (int n = head; n != NIL; n = next[n]) {
+            out[i++] = values[n];
+        }
+        return out;
+    }
+
+    /**
+     * Prints the elements of the list in a human-readable format.
+     */
+    public void print() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[ ");
+        for (int n = head; n != NIL; n = next[n]) {
+            sb.append(values[n]).append(" -> ");
+        }
+        sb.append("null");
+        sb.append(" ]");
+        System.out.println(sb.toString());
+    }
+
+    /**
+     * Walks from the head to the node at the given position.
+     *
+     * @param index A valid position in the list.
+     * @return The pool index of that node.
+     */
+    private int node(int index) {
+        int n = head;
+        for (int i = 0; i < index; i++) {
+            n = next[n];
+        }
+        return n;
+    }
+
+    /**
+     * Reverses the chain of nodes starting at the given node.
+     *
+     * @param n The first node of the chain.
+     * @return The first node of the reversed chain.
+     */
+    private int reverseFrom(int n) {
+        int prev = NIL;
+        while (n != NIL) {
+            int following = next[n];
+            next[n] = prev; // Point the node back at its predecessor
+            prev = n;
+            n = following;
+        }
+        return prev;
+    }
+
+    /**
+     * Cuts the chain after its first count nodes.
+     *
+     * @param n     The first node of the chain, or NIL.
+     * @param count The number of nodes to keep.
+     * @return The first node after the cut, or NIL if the chain was shorter.
+     */
+    private int cut(int n, int count) {
+        for (int i = 1; n != NIL && i < count; i++) {
+            n = next[n];
+        }
+        if (n == NIL) {
+            return NIL;
+        }
+        int rest = next[n];
+        next[n] = NIL;
+        return rest;
+    }
+
+    /**
+     * Hands out a pool slot for a new node, reusing a removed slot if there is
+     * one and growing the pool by half otherwise.
+     *
+     * @param element The element to store in the node.
+     * @return The pool index of the new node.
+     */
+    private int allocate(int element) {
+        int n;
+        if (free != NIL) {
+            n = free;
+            free = next[n];
+        } else {
+            if (used == values.length) {
+                int grown = Math.max(DEFAULT_CAPACITY, values.length + (values.length >> 1));
+                if (grown < 0) {
+                    throw new OutOfMemoryError("List too large");
+                }
+                values = Arrays.copyOf(values, grown);
+                next = Arrays.copyOf(next, grown);
+            }
+            n = used++;
+        }
+        values[n] = element;
+        return n;
+    }
+
+    /**
+     * Returns a removed node's slot to the free list.
+     *
+     * @param n The pool index of the removed node.
+     */
+    private void release(int n) {
+        next[n] = free;
+        free = n;
+    }
+}
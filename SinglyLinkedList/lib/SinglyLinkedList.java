@@ -1,6 +1,13 @@
 package lib;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.PriorityQueue;
 
 /**
  * SinglyLinkedList extends LinkedList<Integer>
@@ -159,53 +166,102 @@ public class SinglyLinkedList extends LinkedList<Integer> {
     }
 
     /**
-     * Rverses the order of the list using built-in get and set methods
+     * Reverses the order of the list in a single O(n) pass.
+     * 
+     * Two cursors start at opposite ends and walk toward each other, swapping
+     * the elements they pass over through ListIterator.set(), so no element
+     * is ever looked up by index.
      */
     public void reverse() {
         if (this.isEmpty()) { // Check if the list is empty
             throw new IllegalStateException("Cannot reverse an empty list");
         }
 
-        // Use the two-pointer technique to traverse list
-        int min = 0; // Starting index reference
-        int max = size() - 1; // Ending index reference
-        while (min < max) {
-            Integer tmp = get(min); // Get element at index min
-            set(min, get(max)); // Swap the min for the max element
-            set(max, tmp); // swap the max for the min element
-            // Increment and decrement min and max
-            min++;
-            max--;
+        // Use the two-pointer technique with cursors instead of indices
+        ListIterator<Integer> front = listIterator(); // Cursor moving forward from the head
+        ListIterator<Integer> back = listIterator(size()); // Cursor moving backward from the tail
+        for (int i = size() / 2; i > 0; i--) {
+            Integer tmp = front.next(); // Element under the front cursor
+            front.set(back.previous()); // Swap in the element under the back cursor
+            back.set(tmp); // And the front element into the back position
         }
     }
 
     /**
-     * Sorts and creates a newinstance of the list.
+     * Sorts the list in ascending order in place.
      * 
-     * @return A new instance of the sorted list.
+     * @return This list, now sorted.
      */
     public SinglyLinkedList sort() {
-        boolean swapped = false;
+        if (this.isEmpty()) {
+            throw new IllegalStateException("Cannot sort an empty list");
+        }
+        sort(null);
+        return this;
+    }
+
+    /**
+     * Sorts the list in place according to the given comparator, or in
+     * ascending order if the comparator is null.
+     * 
+     * The elements are copied into an array once, sorted there with the stable
+     * O(n log n) merge sort of Arrays.sort, and written back with a single
+     * iterator pass, instead of walking the list for every get(i)/set(i).
+     * 
+     * @param c The comparator that defines the order, or null for ascending.
+     */
+    @Override
+    public void sort(Comparator<? super Integer> c) {
+        Integer[] a = toArray(new Integer[0]);
+        Arrays.sort(a, c == null ? Comparator.naturalOrder() : c);
+        writeBack(a);
+    }
 
+    /**
+     * Sorts the list in ascending order in place, using every core for large
+     * lists.
+     * 
+     * @return This list, now sorted.
+     */
+    public SinglyLinkedList parallelSort() {
         if (this.isEmpty()) {
             throw new IllegalStateException("Cannot sort an empty list");
         }
-        
-        do {
-            swapped = false;
-            for (int i = 0; i < size() - 1; i++) {
-                if (get(i) > get(i + 1)) {
-                    Integer temp = get(i);
-                    set(i, get(i + 1));
-                    set(i + 1, temp);
-                    swapped = true;
-                }
-            }
-        } while (swapped);
+        return parallelSort(null);
+    }
 
+    /**
+     * Sorts the list in place according to the given comparator, or in
+     * ascending order if the comparator is null, using every core for large
+     * lists.
+     * 
+     * The array copy of the list is sorted with Arrays.parallelSort, which
+     * splits it on the common ForkJoinPool, sorts the pieces in parallel and
+     * merges them back. The sort is stable, just like sort(Comparator).
+     * 
+     * @param c The comparator that defines the order, or null for ascending.
+     * @return This list, now sorted.
+     */
+    public SinglyLinkedList parallelSort(Comparator<? super Integer> c) {
+        Integer[] a = toArray(new Integer[0]);
+        Arrays.parallelSort(a, c == null ? Comparator.naturalOrder() : c);
+        writeBack(a);
         return this;
     }
 
+    /**
+     * Overwrites the elements of the list, in order, with those of the array.
+     * 
+     * @param a An array holding exactly size() elements.
+     */
+    private void writeBack(Integer[] a) {
+        ListIterator<Integer> it = listIterator();
+        for (Integer element : a) {
+            it.next();
+            it.set(element);
+        }
+    }
+
     /**
      * Loops through the list and checks whether each
      * corresponding element in the list is equal. We are
@@ -226,24 +282,170 @@ public class SinglyLinkedList extends LinkedList<Integer> {
      * 
      * As you can see, we are using the two pointer technique
      * to traverse the list, allowing us to check various conditions
-     * of the elements in the list in an efficient manner.
+     * of the elements in the list in an efficient manner. The two
+     * pointers are cursors walking in from each end, so the check is
+     * a single O(n) pass.
      * 
      * @return True if the list is palindromatic.
      */
     public boolean isPalindrome() {
-        int min = 0;
-        int max = size() - 1;
-        while (min < max) {
+        Iterator<Integer> min = iterator(); // Cursor moving forward from the head
+        Iterator<Integer> max = descendingIterator(); // Cursor moving backward from the tail
+        for (int i = size() / 2; i > 0; i--) {
             // Check if the two corresponding elements are not equal.
-            if (get(min) != get(max)) {
+            if (!Objects.equals(min.next(), max.next())) {
                 return false; // If so return false.
             }
-            min++; // Increment and decrement the two pointer variables.
-            max--;
         }
         return true; // Else is palindrome, so return true.
     }
 
+    /**
+     * Rotates the list to the right by the given distance, so the last
+     * distance elements move to the front. A negative distance rotates to the
+     * left.
+     * 
+     * [ 1 -> 2 -> 3 -> 4 -> 5 -> null ] rotate(2)
+     * [ 4 -> 5 -> 1 -> 2 -> 3 -> null ]
+     * 
+     * Each step moves one element between the two ends in O(1), and the
+     * rotation takes the shorter way around, so at most size() / 2 elements
+     * move.
+     * 
+     * @param distance The number of positions to rotate to the right.
+     */
+    public void rotate(int distance) {
+        int n = size();
+        if (n < 2) {
+            return;
+        }
+        int right = Math.floorMod(distance, n); // Normalize into [0, n)
+        if (right <= n / 2) {
+            for (int i = 0; i < right; i++) {
+                super.addFirst(super.removeLast()); // Move the tail to the front
+            }
+        } else {
+            for (int i = right; i < n; i++) {
+                super.addLast(super.removeFirst()); // Move the head to the back
+            }
+        }
+    }
+
+    /**
+     * Removes elements that are equal to the element right before them, in a
+     * single pass. On a sorted list this leaves every value exactly once.
+     * 
+     * [ 1 -> 1 -> 2 -> 3 -> 3 -> 3 -> null ] dedupe()
+     * [ 1 -> 2 -> 3 -> null ]
+     * 
+     * @return The number of elements removed.
+     */
+    public int dedupe() {
+        int removed = 0;
+        Iterator<Integer> it = iterator();
+        if (!it.hasNext()) {
+            return 0;
+        }
+        Integer previous = it.next();
+        while (it.hasNext()) {
+            Integer current = it.next();
+            if (Objects.equals(previous, current)) {
+                it.remove(); // Unlink the duplicate under the cursor
+                removed++;
+            } else {
+                previous = current;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Merges another sorted list into this sorted list in a single pass,
+     * leaving the other list empty. Both lists must already be in ascending
+     * order. Elements of this list come before equal elements of the other.
+     * 
+     * A cursor walks this list while elements are moved over from the head
+     * of the other list and inserted at the cursor, so the merge costs
+     * O(n + m) time and no extra memory beyond the moved elements.
+     * 
+     * @param other The sorted list to merge into this one.
+     */
+    public void mergeSorted(SinglyLinkedList other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot merge a list into itself");
+        }
+        ListIterator<Integer> cursor = listIterator();
+        while (!other.isEmpty()) {
+            Integer next = other.peekFirst();
+            // Advance past every element of this list that is not larger
+            while (cursor.hasNext()) {
+                if (cursor.next() > next) {
+                    cursor.previous(); // Step back so the insert lands before it
+                    break;
+                }
+            }
+            cursor.add(other.removeFirst()); // Insert at the cursor
+        }
+    }
+
+    /**
+     * Merges any number of sorted lists into a new sorted list, leaving the
+     * given lists empty. Equal elements keep the order of the lists they came
+     * from.
+     * 
+     * A min-heap holds the current head of each list, so the merge takes
+     * O(n log k) time for n elements in k lists and O(k) extra memory.
+     * 
+     * @param lists The sorted lists to merge.
+     * @return A new list holding every element in ascending order.
+     */
+    public static SinglyLinkedList mergeAll(List<SinglyLinkedList> lists) {
+        // Heap entries are indices into lists, ordered by each list's head, then by index
+        PriorityQueue<Integer> heads = new PriorityQueue<>(Math.max(1, lists.size()),
+                Comparator.<Integer, Integer>comparing(i -> lists.get(i).peekFirst())
+                        .thenComparing(Comparator.naturalOrder()));
+        for (int i = 0; i < lists.size(); i++) {
+            if (!lists.get(i).isEmpty()) {
+                heads.add(i);
+            }
+        }
+
+        SinglyLinkedList merged = new SinglyLinkedList();
+        while (!heads.isEmpty()) {
+            int i = heads.poll(); // The list with the smallest head
+            SinglyLinkedList source = lists.get(i);
+            merged.addLast(source.removeFirst());
+            if (!source.isEmpty()) {
+                heads.add(i); // Re-insert with its new head
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Splits the list at the given index: elements from index onward are
+     * moved, in order, into a new list, and this list keeps the elements
+     * before index.
+     * 
+     * [ 1 -> 2 -> 3 -> 4 -> null ] splitAt(1)
+     * [ 1 -> null ] and [ 2 -> 3 -> 4 -> null ]
+     * 
+     * @param index The position of the first element of the new list.
+     * @return A new list holding the elements from index onward.
+     */
+    public SinglyLinkedList splitAt(int index) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Invalid index: " + index);
+        }
+        SinglyLinkedList tail = new SinglyLinkedList();
+        ListIterator<Integer> cursor = listIterator(index); // Walks from the nearer end
+        while (cursor.hasNext()) {
+            tail.addLast(cursor.next());
+            cursor.remove();
+        }
+        return tail;
+    }
+
     /**
      * Prints the elements of the list in a human-readable format.
      */
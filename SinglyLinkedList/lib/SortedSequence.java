@@ -0,0 +1,69 @@
+package lib;
+
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Defines the operations of a set that keeps its elements in ascending
+ * order as they are inserted, so it never has to be sorted.
+ * SortedSkipList and ConcurrentSortedSkipList implement it.
+ *
+ * @param <E> the type of elements held in the sequence.
+ */
+public interface SortedSequence<E> extends Set<E> {
+
+    /**
+     * Inserts an element at its place in the order.
+     *
+     * @param element the element to insert.
+     * @return true if it was inserted, false if the sequence already held it.
+     */
+    boolean insert(E element);
+
+    /**
+     * Returns the greatest element less than or equal to the given one.
+     *
+     * @param element the element to compare with.
+     * @return the greatest element not after it, or null if there is none.
+     */
+    E floor(E element);
+
+    /**
+     * Returns the least element greater than or equal to the given one.
+     *
+     * @param element the element to compare with.
+     * @return the least element not before it, or null if there is none.
+     */
+    E ceiling(E element);
+
+    /**
+     * Returns the least element.
+     *
+     * @return the first element of the sequence.
+     * @throws NoSuchElementException if the sequence is empty.
+     */
+    E first();
+
+    /**
+     * Returns the greatest element.
+     *
+     * @return the last element of the sequence.
+     * @throws NoSuchElementException if the sequence is empty.
+     */
+    E last();
+
+    /**
+     * Returns the elements from fromElement (inclusive) to toElement
+     * (exclusive) in ascending order.
+     *
+     * @param fromElement the low end of the range, inclusive.
+     * @param toElement   the high end of the range, exclusive.
+     * @return the elements of the range, iterable once or many times.
+     */
+    Iterable<E> range(E fromElement, E toElement);
+
+    /**
+     * Prints the elements of the sequence in a human-readable format.
+     */
+    void print();
+}
@@ -0,0 +1,437 @@
+package lib;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SortedSkipList keeps its elements in ascending order in a stack of singly
+ * linked lists, so it never has to be re-sorted.
+ *
+ * level 2: [ head ------------> 3 ----------------------> null ]
+ * level 1: [ head ------------> 3 ------> 5 ------------> null ]
+ * level 0: [ head -> 1 -> 2 -> 3 -> 4 -> 5 -> 6 -> 7 ----> null ]
+ *
+ * Level 0 is an ordinary sorted singly linked list of every element. Each
+ * node also joins the next level up with probability 1/4, so every level is
+ * an express lane that skips about four nodes of the level below. A search
+ * runs along the top level until the next step would overshoot, drops one
+ * level, and repeats, which visits an expected O(log n) nodes. insert,
+ * contains, remove, floor, ceiling and the start of a range all cost that
+ * one search, and range iteration then walks level 0 in order.
+ *
+ * Like TreeSet, it holds each element at most once, ordered by their
+ * natural order or by a comparator, and rejects null. It is not
+ * thread-safe; ConcurrentSortedSkipList is the variant for concurrent use.
+ *
+ * * Example usage:
+ *
+ * <pre>{@code
+ * SortedSkipList<Integer> list = new SortedSkipList<>();
+ * list.insert(3);
+ * list.insert(1);
+ * list.insert(2);
+ * list.print(); // Output: [ 1 -> 2 -> 3 -> null ]
+ * list.floor(5); // 3
+ * }</pre>
+ *
+ * @param <E> The type of elements held in the list.
+ */
+public class SortedSkipList<E> extends AbstractSet<E> implements SortedSequence<E> {
+
+    static final int MAX_LEVEL = 16; // Enough for 4^16 elements at a promotion chance of 1/4
+
+    /**
+     * A node linked into levels 0 to next.length - 1.
+     */
+    private static final class Node<E> {
+        private final E element; // The element, null in the head
+        private final Node<E>[] next; // The next node on each level of this node
+
+        @SuppressWarnings("unchecked")
+        Node(E element, int levels) {
+            this.element = element;
+            this.next = (Node<E>[]) new Node<?>[levels];
+        }
+    }
+
+    private final Comparator<? super E> comparator; // The order of the elements
+    private final Node<E> head = new Node<>(null, MAX_LEVEL); // Sentinel before the first node of every level
+    private int levels = 1; // Number of levels that hold any node
+    private int size; // Number of elements in the list
+    private int modCount; // Changes made, for the fail-fast iterators
+
+    /**
+     * Constructs an empty list ordered by the natural order of its elements.
+     */
+    public SortedSkipList() {
+        this((Comparator<? super E>) null);
+    }
+
+    /**
+     * Constructs an empty list ordered by the given comparator.
+     *
+     * @param comparator The order of the elements, or null for the natural order.
+     */
+    @SuppressWarnings("unchecked")
+    public SortedSkipList(Comparator<? super E> comparator) {
+        this.comparator = comparator != null ? comparator : (Comparator<? super E>) Comparator.naturalOrder();
+    }
+
+    /**
+     * Constructor that builds a list from the elements of a collection, for
+     * example a SinglyLinkedList. Elements greater than every element so far
+     * are appended in O(1) each, so an input that has been sorted once is
+     * indexed in O(n); the others are inserted with a search.
+     *
+     * @param c The elements to insert.
+     */
+    public SortedSkipList(Collection<? extends E> c) {
+        this((Comparator<? super E>) null);
+        Node<E>[] last = newPath(); // Last node of each level, for appending
+        for (E element : c) {
+            Node<E> tail = last[0];
+            if (tail != head && comparator.compare(tail.element, Objects.requireNonNull(element)) < 0) {
+                append(element, last);
+            } else if (insert(element)) {
+                for (int i = 0; i < MAX_LEVEL; i++) { // The new node may have become the last of a level
+                    if (last[i].next[i] != null) {
+                        last[i] = last[i].next[i];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts an element at its place in the order.
+     *
+     * @param element The element to insert.
+     * @return True if it was inserted, false if the list already held it.
+     */
+    @Override
+    public boolean insert(E element) {
+        Objects.requireNonNull(element);
+        Node<E>[] path = newPath();
+        Node<E> found = search(element, path);
+        if (found != null && comparator.compare(found.element, element) == 0) {
+            return false;
+        }
+        int height = randomLevel();
+        if (height > levels) {
+            levels = height; // The path holds the head for the new levels
+        }
+        Node<E> node = new Node<>(element, height);
+        for (int i = 0; i < height; i++) {
+            node.next[i] = path[i].next[i];
+            path[i].next[i] = node;
+        }
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Inserts an element, as insert(element) does.
+     *
+     * @param element The element to insert.
+     * @return True if it was inserted, false if the list already held it.
+     */
+    @Override
+    public boolean add(E element) {
+        return insert(element);
+    }
+
+    /**
+     * Checks whether the list holds an element, in expected O(log n) time.
+     *
+     * @param o The element to look for.
+     * @return True if the list holds it.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        Node<E> node = ceilingNode((E) Objects.requireNonNull(o));
+        return node != null && comparator.compare(node.element, (E) o) == 0;
+    }
+
+    /**
+     * Removes an element and unlinks its node from every level.
+     *
+     * @param o The element to remove.
+     * @return True if the list held it.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        E element = (E) Objects.requireNonNull(o);
+        Node<E>[] path = newPath();
+        Node<E> node = search(element, path);
+        if (node == null || comparator.compare(node.element, element) != 0) {
+            return false;
+        }
+        for (int i = 0; i < node.next.length; i++) {
+            path[i].next[i] = node.next[i];
+        }
+        while (levels > 1 && head.next[levels - 1] == null) {
+            levels--;
+        }
+        size--;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Returns the greatest element less than or equal to the given one.
+     *
+     * @param element The element to compare with.
+     * @return The greatest element not after it, or null if there is none.
+     */
+    @Override
+    public E floor(E element) {
+        Objects.requireNonNull(element);
+        Node<E> x = head;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].element, element) <= 0) {
+                x = x.next[i];
+            }
+        }
+        return x.element; // Null if x is still the head
+    }
+
+    /**
+     * Returns the least element greater than or equal to the given one.
+     *
+     * @param element The element to compare with.
+     * @return The least element not before it, or null if there is none.
+     */
+    @Override
+    public E ceiling(E element) {
+        Node<E> node = ceilingNode(Objects.requireNonNull(element));
+        return node == null ? null : node.element;
+    }
+
+    /**
+     * Returns the least element.
+     *
+     * @return The first element of the list.
+     * @throws NoSuchElementException if the list is empty.
+     */
+    @Override
+    public E first() {
+        if (head.next[0] == null) {
+            throw new NoSuchElementException();
+        }
+        return head.next[0].element;
+    }
+
+    /**
+     * Returns the greatest element, running along the top levels to reach it.
+     *
+     * @return The last element of the list.
+     * @throws NoSuchElementException if the list is empty.
+     */
+    @Override
+    public E last() {
+        if (head.next[0] == null) {
+            throw new NoSuchElementException();
+        }
+        Node<E> x = head;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (x.next[i] != null) {
+                x = x.next[i];
+            }
+        }
+        return x.element;
+    }
+
+    /**
+     * Returns the elements from fromElement (inclusive) to toElement
+     * (exclusive) in ascending order. Finding the first one is a search; the
+     * rest are read from level 0 one link at a time.
+     *
+     * @param fromElement The low end of the range, inclusive.
+     * @param toElement   The high end of the range, exclusive.
+     * @return The elements of the range, iterable once or many times.
+     */
+    @Override
+    public Iterable<E> range(E fromElement, E toElement) {
+        Objects.requireNonNull(fromElement);
+        Objects.requireNonNull(toElement);
+        return () -> new Itr(ceilingNode(fromElement), toElement);
+    }
+
+    /**
+     * Returns an iterator over the elements in ascending order.
+     *
+     * @return An iterator over the elements of the list.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr(head.next[0], null);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(head.next, null);
+        levels = 1;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Prints the elements of the list in a human-readable format.
+     */
+    @Override
+    public void print() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[ ");
+        for (E element : this) {
+            sb.append(element).append(" -> ");
+        }
+        sb.append("null");
+        sb.append(" ]");
+        System.out.println(sb.toString());
+    }
+
+    /**
+     * Returns the number of levels that hold any node, for checking that the
+     * height grows with log n.
+     *
+     * @return The number of levels in use.
+     */
+    public int levels() {
+        return levels;
+    }
+
+    /**
+     * Descends from the top level to level 0, recording in path the last node
+     * before the element on every level.
+     *
+     * @param element The element to search for.
+     * @param path    Receives the predecessor on each level; levels above the
+     *                ones in use keep the head that newPath() put there.
+     * @return The first node not before the element, or null if there is none.
+     */
+    private Node<E> search(E element, Node<E>[] path) {
+        Node<E> x = head;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].element, element) < 0) {
+                x = x.next[i];
+            }
+            path[i] = x;
+        }
+        return x.next[0];
+    }
+
+    /**
+     * Returns the first node not before the element, without recording a path.
+     */
+    private Node<E> ceilingNode(E element) {
+        Node<E> x = head;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].element, element) < 0) {
+                x = x.next[i];
+            }
+        }
+        return x.next[0];
+    }
+
+    /**
+     * Links an element greater than all others after the last node of each
+     * of its levels.
+     */
+    private void append(E element, Node<E>[] last) {
+        int height = randomLevel();
+        levels = Math.max(levels, height);
+        Node<E> node = new Node<>(element, height);
+        for (int i = 0; i < height; i++) {
+            last[i].next[i] = node;
+            last[i] = node;
+        }
+        size++;
+        modCount++;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<E>[] newPath() {
+        Node<E>[] path = (Node<E>[]) new Node<?>[MAX_LEVEL];
+        Arrays.fill(path, head);
+        return path;
+    }
+
+    /**
+     * Draws the number of levels of a new node: 1 with probability 3/4, 2
+     * with probability 3/16, and so on, each level a quarter as likely.
+     */
+    static int randomLevel() {
+        int bits = ThreadLocalRandom.current().nextInt() | (1 << (2 * (MAX_LEVEL - 1))); // Caps the result
+        return 1 + Integer.numberOfTrailingZeros(bits) / 2;
+    }
+
+    /**
+     * Walks level 0 from a node up to an exclusive bound.
+     */
+    private final class Itr implements Iterator<E> {
+        private Node<E> next; // The node to return next, or null at the end
+        private final E toElement; // Exclusive bound, or null for none
+        private E lastReturned; // For remove(), null if there is nothing to remove
+        private int expectedModCount = modCount;
+
+        Itr(Node<E> first, E toElement) {
+            this.toElement = toElement;
+            this.next = bounded(first);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next.element;
+            next = bounded(next.next[0]);
+            return lastReturned;
+        }
+
+        /**
+         * Removes the last element returned with one O(log n) remove.
+         */
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            SortedSkipList.this.remove(lastReturned);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+
+        private Node<E> bounded(Node<E> node) {
+            return node == null || (toElement != null && comparator.compare(node.element, toElement) >= 0)
+                    ? null
+                    : node;
+        }
+    }
+}
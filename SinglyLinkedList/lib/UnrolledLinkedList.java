@@ -0,0 +1,859 @@
+package lib;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * UnrolledLinkedList is a singly linked list whose nodes each hold a small
+ * array of elements instead of a single one.
+ *
+ * [ (1 2 3 4) -> (5 6 7 _) -> (8 9 _ _) -> null ]
+ *
+ * A node holds up to nodeCapacity elements (64 by default) in one array, so
+ * a scan reads runs of adjacent references instead of chasing one pointer
+ * per element, and the per-node header and link are shared by the whole run.
+ * get(index) and set(index, element) hop from node to node, skipping a
+ * whole array per step, which costs O(n / nodeCapacity) instead of O(n).
+ *
+ * Splitting and remove(index) leave the nodes they touch at least half full:
+ *
+ * - Inserting into a full node splits it into two half-full nodes first.
+ * - Removing from a node that drops below half full either merges it with
+ *   the next node, if both fit in one, or borrows elements from it.
+ *
+ * Other nodes may hold fewer: addFirst and addLast start a new node with a
+ * single element when the end node is full, and removing through an
+ * iterator only unlinks nodes that become empty. Appending fills the last
+ * node completely before starting a new one, so a list built with add()
+ * uses almost all of its slots.
+ *
+ * It supports the contract of SinglyLinkedList: add(index, element),
+ * addFirst, addLast, removeFirst, removeLast, peek, peekFirst, peekLast,
+ * reverse(), sort(), isPalindrome() and print(), along with the rest of the
+ * List interface through AbstractList.
+ *
+ * * Example usage:
+ *
+ * <pre>{@code
+ * UnrolledLinkedList<Integer> list = new UnrolledLinkedList<>();
+ * list.add(1);
+ * list.add(2);
+ * list.add(1, 5);
+ * list.print(); // Output: [ 1 -> 5 -> 2 -> null ]
+ * }</pre>
+ *
+ * @param <E> The type of elements held in the list.
+ */
+public class UnrolledLinkedList<E> extends AbstractList<E> {
+
+    private static final int DEFAULT_NODE_CAPACITY = 64; // Elements per node when none is given
+
+    /**
+     * A node holding up to nodeCapacity elements in elements[0, count).
+     */
+    private static final class Node {
+        private final Object[] elements; // Slots of this node, the first count are in use
+        private int count; // Number of elements in this node
+        private Node next; // The node after this one, or null at the end
+
+        Node(int capacity) {
+            elements = new Object[capacity];
+        }
+    }
+
+    private final int nodeCapacity; // Maximum elements per node
+    private Node head; // First node, null if the list is empty
+    private Node tail; // Last node, null if the list is empty
+    private int size; // Number of elements in the list
+
+    /**
+     * Constructs an empty list with 64 elements per node.
+     */
+    public UnrolledLinkedList() {
+        this(DEFAULT_NODE_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty list.
+     *
+     * @param nodeCapacity The number of elements per node, at least 2.
+     */
+    public UnrolledLinkedList(int nodeCapacity) {
+        if (nodeCapacity < 2) {
+            throw new IllegalArgumentException("Invalid node capacity: " + nodeCapacity);
+        }
+        this.nodeCapacity = nodeCapacity;
+    }
+
+    /**
+     * Appends the specified element to the end of the list.
+     *
+     * @param element The element to add.
+     * @return true, as specified by List.add.
+     */
+    @Override
+    public boolean add(E element) {
+        addLast(element);
+        return true;
+    }
+
+    /**
+     * Inserts the specified element at the specified position in the list.
+     * If the node holding that position is full, it is split in two first.
+     *
+     * @param index   The index at which the specified element is to be inserted.
+     * @param element The element to be inserted.
+     */
+    @Override
+    public void add(int index, E element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Invalid index: " + index);
+        }
+        if (index == size) {
+            addLast(element);
+            return;
+        }
+        Node node = head;
+        int offset = index;
+        while (offset >= node.count) { // Stops at the node holding index, never at an end
+            offset -= node.count;
+            node = node.next;
+        }
+        if (node.count == nodeCapacity) {
+            Node second = split(node);
+            if (offset > node.count) {
+                offset -= node.count;
+                node = second;
+            }
+        }
+        insert(node, offset, element);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Inserts the specified element at the beginning of the list.
+     *
+     * @param element The element to add.
+     */
+    public void addFirst(E element) {
+        if (head == null || head.count == nodeCapacity) {
+            Node node = new Node(nodeCapacity);
+            node.next = head;
+            head = node;
+            if (tail == null) {
+                tail = node;
+            }
+        }
+        insert(head, 0, element);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Appends the specified element to the end of the list.
+     *
+     * @param element The element to add.
+     */
+    public void addLast(E element) {
+        if (tail == null || tail.count == nodeCapacity) {
+            Node node = new Node(nodeCapacity);
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+        tail.elements[tail.count++] = element;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Returns the element at the specified position in the list.
+     *
+     * @param index The index of the element to return.
+     * @return The element at the specified position.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        if (index >= size - tail.count) {
+            return (E) tail.elements[index - (size - tail.count)];
+        }
+        Node node = head;
+        while (index >= node.count) {
+            index -= node.count;
+            node = node.next;
+        }
+        return (E) node.elements[index];
+    }
+
+    /**
+     * Replaces the element at the specified position in the list.
+     *
+     * @param index   The index of the element to replace.
+     * @param element The element to be stored at the specified position.
+     * @return The element previously at the specified position.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        Objects.checkIndex(index, size);
+        Node node = head;
+        while (index >= node.count) {
+            index -= node.count;
+            node = node.next;
+        }
+        E old = (E) node.elements[index];
+        node.elements[index] = element;
+        return old;
+    }
+
+    /**
+     * Removes the element at the specified position in the list, merging or
+     * rebalancing its node if it drops below half full.
+     *
+     * @param index The index of the element to be removed.
+     * @return The element previously at the specified position.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        Objects.checkIndex(index, size);
+        Node previous = null;
+        Node node = head;
+        while (index >= node.count) {
+            index -= node.count;
+            previous = node;
+            node = node.next;
+        }
+        E old = (E) node.elements[index];
+        delete(node, index);
+        size--;
+        modCount++;
+        rebalance(previous, node);
+        return old;
+    }
+
+    /**
+     * Removes and returns the first element from the list.
+     *
+     * @return The first element of the list.
+     */
+    public E removeFirst() {
+        if (size == 0) { // Check if the list is empty
+            throw new IllegalStateException("Cannot remove from an empty list");
+        }
+        return remove(0);
+    }
+
+    /**
+     * Removes and returns the last element from the list. Since nodes only
+     * point forward, this walks the nodes from the head to find the one
+     * before the tail.
+     *
+     * @return The last element of the list.
+     */
+    public E removeLast() {
+        if (size == 0) { // Check if the list is empty
+            throw new IllegalStateException("Cannot remove from an empty list");
+        }
+        return remove(size - 1);
+    }
+
+    /**
+     * Retrieves, but does not remove, the first element of the list.
+     *
+     * @return The first element of the list.
+     */
+    public E peek() {
+        return peekFirst();
+    }
+
+    /**
+     * Retrieves, but does not remove, the first element of the list.
+     *
+     * @return The first element of the list.
+     */
+    @SuppressWarnings("unchecked")
+    public E peekFirst() {
+        if (size == 0) { // Check if the list is empty
+            throw new IllegalStateException("Cannot remove from an empty list");
+        }
+        return (E) head.elements[0];
+    }
+
+    /**
+     * Retrieves, but does not remove, the last element of the list.
+     *
+     * @return The last element of the list.
+     */
+    @SuppressWarnings("unchecked")
+    public E peekLast() {
+        if (size == 0) { // Check if the list is empty
+            throw new IllegalStateException("Cannot remove from an empty list");
+        }
+        return (E) tail.elements[tail.count - 1];
+    }
+
+    /**
+     * Returns the number of elements in the list.
+     *
+     * @return The number of elements in the list.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every element from the list.
+     */
+    @Override
+    public void clear() {
+        head = null;
+        tail = null;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns an iterator over the elements in order. It walks each node's
+     * array, then follows one link to the next node. Removing through the
+     * iterator deletes empty nodes but does not merge half-empty ones.
+     *
+     * @return An iterator over the elements of the list.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Returns a list iterator starting at the specified position. It walks
+     * each node's array like iterator(), so indexOf, lastIndexOf and equals
+     * take O(n) instead of calling get(i) at every step. Since nodes only
+     * point forward, it first collects the nodes into an array, which takes
+     * O(n / nodeCapacity) time and memory and lets previous() step back a
+     * node. Adding through it splits a full node like add(index, element);
+     * removing through it unlinks empty nodes but does not merge half-empty
+     * ones.
+     *
+     * @param index The index of the first element to be returned by next().
+     * @return A list iterator over the elements of the list.
+     */
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Invalid index: " + index);
+        }
+        return new ListItr(index);
+    }
+
+    /**
+     * Returns an iterator over the elements in reverse order. Since nodes
+     * only point forward, it first collects the nodes into an array, which
+     * takes O(n / nodeCapacity) time and memory.
+     *
+     * @return An iterator over the elements from last to first.
+     */
+    public Iterator<E> descendingIterator() {
+        Node[] nodes = nodes();
+        int expectedModCount = modCount;
+        return new Iterator<E>() {
+            private int n = nodes.length - 1; // Node of the next element
+            private int i = n >= 0 ? nodes[n].count - 1 : -1; // Offset of the next element
+
+            @Override
+            public boolean hasNext() {
+                return n >= 0;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (n < 0) {
+                    throw new NoSuchElementException();
+                }
+                E element = (E) nodes[n].elements[i];
+                if (--i < 0 && --n >= 0) {
+                    i = nodes[n].count - 1;
+                }
+                return element;
+            }
+        };
+    }
+
+    /**
+     * Reverses the order of the list in a single O(n) pass: the node links
+     * are turned around and the elements of each node are reversed in place.
+     */
+    public void reverse() {
+        if (size == 0) { // Check if the list is empty
+            throw new IllegalStateException("Cannot reverse an empty list");
+        }
+        Node previous = null;
+        Node node = head;
+        tail = head;
+        while (node != null) {
+            Object[] a = node.elements;
+            for (int i = 0, j = node.count - 1; i < j; i++, j--) {
+                Object tmp = a[i];
+                a[i] = a[j];
+                a[j] = tmp;
+            }
+            Node next = node.next;
+            node.next = previous;
+            previous = node;
+            node = next;
+        }
+        head = previous;
+        modCount++;
+    }
+
+    /**
+     * Sorts the list in ascending order in place.
+     *
+     * @return This list, now sorted.
+     */
+    public UnrolledLinkedList<E> sort() {
+        if (size == 0) {
+            throw new IllegalStateException("Cannot sort an empty list");
+        }
+        sort(null);
+        return this;
+    }
+
+    /**
+     * Sorts the list in place according to the given comparator, or in the
+     * natural order of the elements if the comparator is null.
+     *
+     * The elements are copied into an array node by node, sorted there with
+     * the stable merge sort of Arrays.sort, and copied back node by node.
+     *
+     * @param c The comparator that defines the order, or null for the natural order.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super E> c) {
+        Object[] a = toArray();
+        Arrays.sort((E[]) a, c == null ? (Comparator<? super E>) Comparator.naturalOrder() : c);
+        int start = 0;
+        for (Node node = head; node != null; node = node.next) {
+            System.arraycopy(a, start, node.elements, 0, node.count);
+            start += node.count;
+        }
+        modCount++;
+    }
+
+    /**
+     * Returns an array holding every element in order, copied a node at a time.
+     *
+     * @return An array of the elements of the list.
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] a = new Object[size];
+        int start = 0;
+        for (Node node = head; node != null; node = node.next) {
+            System.arraycopy(node.elements, 0, a, start, node.count);
+            start += node.count;
+        }
+        return a;
+    }
+
+    /**
+     * Checks whether the list reads the same forwards and backwards, with a
+     * forward and a descending iterator meeting in the middle.
+     *
+     * @return True if the list is palindromatic.
+     */
+    public boolean isPalindrome() {
+        Iterator<E> min = iterator(); // Cursor moving forward from the head
+        Iterator<E> max = descendingIterator(); // Cursor moving backward from the tail
+        for (int i = size / 2; i > 0; i--) {
+            if (!Objects.equals(min.next(), max.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prints the elements of the list in a human-readable format.
+     */
+    public void print() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[ ");
+        for (E element : this) {
+            sb.append(element).append(" -> ");
+        }
+        sb.append("null");
+        sb.append(" ]");
+        System.out.println(sb.toString());
+    }
+
+    /**
+     * Returns the number of nodes, for measuring how full they are.
+     *
+     * @return The number of nodes in the list.
+     */
+    public int nodeCount() {
+        int count = 0;
+        for (Node node = head; node != null; node = node.next) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Moves the upper half of a full node into a new node linked after it.
+     *
+     * @param node The full node.
+     * @return The new node.
+     */
+    private Node split(Node node) {
+        Node second = new Node(nodeCapacity);
+        int keep = node.count / 2;
+        second.count = node.count - keep;
+        System.arraycopy(node.elements, keep, second.elements, 0, second.count);
+        Arrays.fill(node.elements, keep, node.count, null); // Let the moved elements go
+        node.count = keep;
+        second.next = node.next;
+        node.next = second;
+        if (tail == node) {
+            tail = second;
+        }
+        return second;
+    }
+
+    /**
+     * Inserts an element at an offset of a node that has room for it.
+     */
+    private static void insert(Node node, int offset, Object element) {
+        System.arraycopy(node.elements, offset, node.elements, offset + 1, node.count - offset);
+        node.elements[offset] = element;
+        node.count++;
+    }
+
+    /**
+     * Deletes the element at an offset of a node, shifting the rest down.
+     */
+    private static void delete(Node node, int offset) {
+        System.arraycopy(node.elements, offset + 1, node.elements, offset, node.count - offset - 1);
+        node.elements[--node.count] = null;
+    }
+
+    /**
+     * Restores the half-full invariant after a removal from node: unlinks it
+     * if it is empty, merges the next node into it if both fit in one node,
+     * or else moves elements from the next node until both are half full.
+     *
+     * @param previous The node before node, or null if node is the head.
+     * @param node     The node an element was removed from.
+     */
+    private void rebalance(Node previous, Node node) {
+        if (node.count == 0) {
+            unlink(previous, node);
+            return;
+        }
+        Node next = node.next;
+        if (node.count >= nodeCapacity / 2 || next == null) {
+            return;
+        }
+        if (node.count + next.count <= nodeCapacity) {
+            System.arraycopy(next.elements, 0, node.elements, node.count, next.count);
+            node.count += next.count;
+            unlink(node, next);
+        } else {
+            int move = (next.count - node.count) / 2; // Leaves both at least half full
+            System.arraycopy(next.elements, 0, node.elements, node.count, move);
+            node.count += move;
+            System.arraycopy(next.elements, move, next.elements, 0, next.count - move);
+            Arrays.fill(next.elements, next.count - move, next.count, null);
+            next.count -= move;
+        }
+    }
+
+    /**
+     * Unlinks a node from the chain.
+     *
+     * @param previous The node before node, or null if node is the head.
+     * @param node     The node to unlink.
+     */
+    private void unlink(Node previous, Node node) {
+        if (previous == null) {
+            head = node.next;
+        } else {
+            previous.next = node.next;
+        }
+        if (tail == node) {
+            tail = previous;
+        }
+    }
+
+    /**
+     * Collects the nodes into an array, head first.
+     */
+    private Node[] nodes() {
+        Node[] nodes = new Node[nodeCount()];
+        int i = 0;
+        for (Node node = head; node != null; node = node.next) {
+            nodes[i++] = node;
+        }
+        return nodes;
+    }
+
+    /**
+     * Iterator that walks the array of each node in turn.
+     */
+    private final class Itr implements Iterator<E> {
+        private Node previous; // Node before node, for unlinking it when it empties
+        private Node node = head; // Node of the next element
+        private int offset; // Offset of the next element in node
+        private Node lastNode; // Node of the element last returned, null if none
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return node != null && offset < node.count;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            E element = (E) node.elements[offset++];
+            lastNode = node;
+            if (offset == node.count && node.next != null) {
+                previous = node;
+                node = node.next;
+                offset = 0;
+            }
+            return element;
+        }
+
+        @Override
+        public void remove() {
+            if (lastNode == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (lastNode == node) {
+                delete(node, --offset); // Still in the same node
+                if (node.count == 0) {
+                    unlink(previous, node); // Only when node is the last one, see next()
+                    node = null;
+                }
+            } else {
+                // The element was the last of previous; node has moved on
+                delete(lastNode, lastNode.count - 1);
+                if (lastNode.count == 0) {
+                    Node before = predecessor(lastNode);
+                    unlink(before, lastNode);
+                    previous = before;
+                }
+            }
+            lastNode = null;
+            size--;
+            modCount++;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Finds the node before the given one; only needed when a node empties.
+         */
+        private Node predecessor(Node target) {
+            Node before = null;
+            for (Node n = head; n != target; n = n.next) {
+                before = n;
+            }
+            return before;
+        }
+    }
+
+    /**
+     * List iterator over an array of the nodes, with the cursor held as a
+     * node index and an offset in that node.
+     */
+    private final class ListItr implements ListIterator<E> {
+        private Node[] nodes = nodes(); // The nodes in order, kept in step with adds and removes
+        private int n; // Index in nodes of the cursor's node
+        private int offset; // Offset of the cursor in nodes[n], from 0 to its count
+        private int cursor; // Index of the element next() returns
+        private int lastN = -1; // Index in nodes of the element last returned, -1 if none
+        private int lastOffset; // Offset of the element last returned in nodes[lastN]
+        private int expectedModCount = modCount;
+
+        ListItr(int index) {
+            cursor = index;
+            offset = index;
+            while (n < nodes.length - 1 && offset > nodes[n].count) {
+                offset -= nodes[n].count;
+                n++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return cursor > 0;
+        }
+
+        @Override
+        public int nextIndex() {
+            return cursor;
+        }
+
+        @Override
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            checkForComodification();
+            if (cursor >= size) {
+                throw new NoSuchElementException();
+            }
+            if (offset == nodes[n].count) { // Nodes are never empty, so the next one has it
+                n++;
+                offset = 0;
+            }
+            lastN = n;
+            lastOffset = offset++;
+            cursor++;
+            return (E) nodes[n].elements[lastOffset];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E previous() {
+            checkForComodification();
+            if (cursor == 0) {
+                throw new NoSuchElementException();
+            }
+            if (offset == 0) {
+                n--;
+                offset = nodes[n].count;
+            }
+            lastN = n;
+            lastOffset = --offset;
+            cursor--;
+            return (E) nodes[n].elements[lastOffset];
+        }
+
+        @Override
+        public void set(E element) {
+            if (lastN < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            nodes[lastN].elements[lastOffset] = element;
+        }
+
+        @Override
+        public void remove() {
+            if (lastN < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            Node node = nodes[n]; // next() and previous() leave the cursor in the node they read
+            delete(node, lastOffset);
+            if (offset > lastOffset) { // Returned by next(), so the cursor moves back with it
+                offset--;
+                cursor--;
+            }
+            if (node.count == 0) {
+                unlink(n > 0 ? nodes[n - 1] : null, node);
+                removeNode(n);
+                if (n > 0) {
+                    n--;
+                    offset = nodes[n].count;
+                }
+            }
+            lastN = -1;
+            size--;
+            modCount++;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void add(E element) {
+            checkForComodification();
+            if (nodes.length == 0) {
+                addLast(element);
+                nodes = new Node[] { head };
+                offset = 1;
+            } else {
+                Node node = nodes[n];
+                if (node.count == nodeCapacity) {
+                    Node second = split(node);
+                    insertNode(n + 1, second);
+                    if (offset > node.count) {
+                        offset -= node.count;
+                        n++;
+                        node = second;
+                    }
+                }
+                insert(node, offset++, element);
+                size++;
+                modCount++;
+            }
+            cursor++;
+            lastN = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        /**
+         * Inserts a node into the array at index i; only needed after a split.
+         */
+        private void insertNode(int i, Node node) {
+            Node[] more = new Node[nodes.length + 1];
+            System.arraycopy(nodes, 0, more, 0, i);
+            more[i] = node;
+            System.arraycopy(nodes, i, more, i + 1, nodes.length - i);
+            nodes = more;
+        }
+
+        /**
+         * Removes the node at index i from the array; only needed when it empties.
+         */
+        private void removeNode(int i) {
+            Node[] fewer = new Node[nodes.length - 1];
+            System.arraycopy(nodes, 0, fewer, 0, i);
+            System.arraycopy(nodes, i + 1, fewer, i, fewer.length - i);
+            nodes = fewer;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package src;
+
+import lib.SinglyLinkedList;
+
+/**
+ * Times the cursor-based list algorithms on a 1M-element SinglyLinkedList and
+ * compares reverse() and isPalindrome() with the old index-based get/set
+ * loops, which are O(n^2) and are therefore only run on a small list.
+ *
+ * Usage: java src.AlgorithmBenchmark [elements] [indexBasedElements]
+ */
+public class AlgorithmBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int small = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        System.out.printf("Cursor-based, %d elements:%n", n);
+        SinglyLinkedList list = palindrome(n);
+        time("reverse()", () -> list.reverse());
+        time("isPalindrome()", () -> list.isPalindrome());
+        time("rotate(n / 3)", () -> list.rotate(n / 3));
+        time("dedupe()", () -> list.dedupe());
+        SinglyLinkedList other = ascending(n);
+        list.sort();
+        time("mergeSorted()", () -> list.mergeSorted(other));
+        time("splitAt(size / 2)", () -> list.splitAt(list.size() / 2));
+
+        System.out.printf("%nIndex-based vs cursor-based, %d elements:%n", small);
+        SinglyLinkedList smallList = palindrome(small);
+        time("index reverse", () -> indexReverse(smallList));
+        time("cursor reverse()", () -> smallList.reverse());
+        time("index isPalindrome", () -> indexIsPalindrome(smallList));
+        time("cursor isPalindrome()", () -> smallList.isPalindrome());
+    }
+
+    /**
+     * Runs the action once and prints how long it took.
+     */
+    private static void time(String name, Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        System.out.printf("  %-22s %10.2f ms%n", name, (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Builds a palindromic list of n elements, the worst case for isPalindrome().
+     */
+    private static SinglyLinkedList palindrome(int n) {
+        SinglyLinkedList list = new SinglyLinkedList();
+        for (int i = 0; i < n; i++) {
+            list.add(Math.min(i, n - 1 - i));
+        }
+        return list;
+    }
+
+    /**
+     * Builds the list [ 0 -> 1 -> ... -> n - 1 ].
+     */
+    private static SinglyLinkedList ascending(int n) {
+        SinglyLinkedList list = new SinglyLinkedList();
+        for (int i = 0; i < n; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    /**
+     * The previous reverse(): swaps elements by index with get and set.
+     */
+    private static void indexReverse(SinglyLinkedList list) {
+        int min = 0;
+        int max = list.size() - 1;
+        while (min < max) {
+            Integer tmp = list.get(min);
+            list.set(min, list.get(max));
+            list.set(max, tmp);
+            min++;
+            max--;
+        }
+    }
+
+    /**
+     * The previous isPalindrome(): compares elements by index with get.
+     */
+    private static boolean indexIsPalindrome(SinglyLinkedList list) {
+        int min = 0;
+        int max = list.size() - 1;
+        while (min < max) {
+            if (!list.get(min).equals(list.get(max))) {
+                return false;
+            }
+            min++;
+            max--;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package src;
+
+import lib.IntLinkedList;
+import lib.SinglyLinkedList;
+
+/**
+ * Compares the heap used per element by SinglyLinkedList (boxed Integers in
+ * LinkedList nodes) and IntLinkedList (int arrays with index links).
+ *
+ * Usage: java src.MemoryFootprint [elements]
+ */
+public class MemoryFootprint {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+
+        long before = usedMemory();
+        SinglyLinkedList boxed = new SinglyLinkedList();
+        for (int i = 0; i < n; i++) {
+            boxed.add(i); // Large values so the Integer cache does not hide boxing
+        }
+        long boxedBytes = usedMemory() - before;
+        System.out.printf("SinglyLinkedList: %6.1f bytes/element (%d elements)%n",
+                (double) boxedBytes / boxed.size(), boxed.size());
+        boxed = null;
+
+        before = usedMemory();
+        IntLinkedList primitive = new IntLinkedList(n);
+        for (int i = 0; i < n; i++) {
+            primitive.add(i);
+        }
+        long primitiveBytes = usedMemory() - before;
+        System.out.printf("IntLinkedList:    %6.1f bytes/element (%d elements)%n",
+                (double) primitiveBytes / primitive.size(), primitive.size());
+        System.out.printf("Reduction:        %6.1fx%n", (double) boxedBytes / primitiveBytes);
+    }
+
+    /**
+     * Runs the garbage collector a few times and returns the heap in use.
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
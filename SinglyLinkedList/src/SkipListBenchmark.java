@@ -0,0 +1,325 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import lib.ConcurrentSortedSkipList;
+import lib.SinglyLinkedList;
+import lib.SortedSequence;
+import lib.SortedSkipList;
+
+/**
+ * Checks SortedSkipList and ConcurrentSortedSkipList against a TreeSet, then
+ * compares keeping a sorted SinglyLinkedList up to date (insert a batch, then
+ * sort(); find by linear scan) with keeping a SortedSkipList up to date, and
+ * measures the throughput of the concurrent variant under a mixed workload.
+ *
+ * Usage: java src.SkipListBenchmark [elements] [threads]   (default 1,000,000 and 4)
+ *
+ * For the 10,000,000-element case give the JVM room for both lists:
+ * java -Xmx4g -cp bin src.SkipListBenchmark 10000000
+ */
+public class SkipListBenchmark {
+
+    private static final int BATCH = 1_000; // Inserts between two sort() calls of the linked list
+    private static final int BATCHES = 3; // Batches timed on the linked list
+    private static final int SCANS = 50; // Lookups timed on the linked list
+    private static final int OPS = 200_000; // Operations timed on the skip list
+    private static final int ROUNDS = 3; // The first rounds warm up the JIT
+    private static final long MIXED_NANOS = 1_000_000_000L; // Duration of each throughput run
+
+    public static void main(String[] args) throws InterruptedException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        boolean ok = check(new SortedSkipList<>()) && check(new ConcurrentSortedSkipList<>()) && checkBuild()
+                && checkConcurrent(threads);
+        System.out.println("model check " + (ok ? "PASSED" : "FAILED"));
+        if (!ok) {
+            System.exit(1);
+        }
+
+        compareWithLinkedList(n);
+        compareThroughput(n, threads);
+    }
+
+    /**
+     * Times updates and lookups on a sorted SinglyLinkedList and on a
+     * SortedSkipList holding the same n even numbers; the new elements are
+     * odd, so every insert adds one.
+     */
+    private static void compareWithLinkedList(int n) {
+        SinglyLinkedList linked = new SinglyLinkedList();
+        for (int i = 0; i < n; i++) {
+            linked.add(2 * i);
+        }
+        long start = System.nanoTime();
+        SortedSkipList<Integer> skipList = new SortedSkipList<>(linked);
+        long buildNanos = System.nanoTime() - start;
+        System.out.printf("%,d elements, skip list built from the sorted linked list in %.0f ms, %d levels%n", n,
+                buildNanos / 1e6, skipList.levels());
+
+        Random random = new Random(7);
+        System.out.printf("%-24s %16s %16s %10s%n", "(us/op)", "SinglyLinkedList", "SortedSkipList", "speedup");
+        for (int round = 0; round < ROUNDS; round++) {
+            boolean last = round == ROUNDS - 1;
+
+            long linkedNanos = 0;
+            for (int b = 0; b < BATCHES; b++) {
+                start = System.nanoTime();
+                for (int i = 0; i < BATCH; i++) {
+                    linked.add(2 * random.nextInt(n) + 1);
+                }
+                linked.sort();
+                linkedNanos += System.nanoTime() - start;
+                linked.removeIf(value -> value % 2 != 0); // Back to the original list
+            }
+            int[] values = random.ints(OPS, 0, n).map(i -> 2 * i + 1).toArray();
+            start = System.nanoTime();
+            for (int value : values) {
+                skipList.insert(value);
+            }
+            long skipNanos = System.nanoTime() - start;
+            report(last, "insert (batch + sort)", linkedNanos / (double) (BATCHES * BATCH), skipNanos / (double) OPS);
+
+            start = System.nanoTime();
+            int found = 0;
+            for (int i = 0; i < SCANS; i++) {
+                found += linked.contains(2 * random.nextInt(n)) ? 1 : 0;
+            }
+            linkedNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int value : values) {
+                found += skipList.contains(value - 1) ? 1 : 0;
+            }
+            skipNanos = System.nanoTime() - start;
+            report(last, "contains", linkedNanos / (double) SCANS, skipNanos / (double) OPS);
+
+            start = System.nanoTime();
+            long sum = 0;
+            for (int i = 0; i < SCANS; i++) {
+                int from = random.nextInt(2 * n);
+                for (int value : linked) { // The linked list can only scan up to the range
+                    if (value >= from + 200) {
+                        break;
+                    }
+                    if (value >= from) {
+                        sum += value;
+                    }
+                }
+            }
+            linkedNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < OPS / 100; i++) {
+                int from = values[i] - 1;
+                for (int value : skipList.range(from, from + 200)) {
+                    sum += value;
+                }
+            }
+            skipNanos = System.nanoTime() - start;
+            report(last, "range of 100", linkedNanos / (double) SCANS, skipNanos / (double) (OPS / 100));
+
+            start = System.nanoTime();
+            for (int value : values) {
+                skipList.remove(value);
+            }
+            skipNanos = System.nanoTime() - start;
+            if (last) {
+                System.out.printf("%-24s %16s %16.3f%n", "remove", "-", skipNanos / 1e3 / OPS);
+            }
+            if (found + sum == Long.MIN_VALUE || skipList.size() != n) {
+                System.out.println("unexpected size " + skipList.size()); // Also keeps the results alive
+            }
+        }
+    }
+
+    private static void report(boolean print, String name, double linkedNanos, double skipNanos) {
+        if (print) {
+            System.out.printf("%-24s %16.3f %16.3f %9.0fx%n", name, linkedNanos / 1e3, skipNanos / 1e3,
+                    linkedNanos / skipNanos);
+        }
+    }
+
+    /**
+     * Runs 90% contains, 5% insert and 5% remove on random keys from several
+     * threads at once, on the lock-free list, on a SortedSkipList behind one
+     * lock, and on ConcurrentSkipListSet from the JDK.
+     */
+    private static void compareThroughput(int n, int threads) throws InterruptedException {
+        System.out.printf("%d threads, 90%% contains, 5%% insert, 5%% remove on %,d keys (Mops/s)%n", threads, n);
+        for (int round = 0; round < ROUNDS; round++) {
+            boolean last = round == ROUNDS - 1;
+            ConcurrentSortedSkipList<Integer> lockFree = new ConcurrentSortedSkipList<>();
+            SortedSkipList<Integer> locked = new SortedSkipList<>();
+            ConcurrentSkipListSet<Integer> jdk = new ConcurrentSkipListSet<>();
+            for (int i = 0; i < n; i += 2) {
+                lockFree.insert(i);
+                locked.insert(i);
+                jdk.add(i);
+            }
+            double a = mixed(lockFree, n, threads, false);
+            double b = mixed(locked, n, threads, true);
+            double c = mixed(jdk, n, threads, false);
+            if (last) {
+                System.out.printf("%-28s %8.2f%n", "ConcurrentSortedSkipList", a);
+                System.out.printf("%-28s %8.2f%n", "synchronized SortedSkipList", b);
+                System.out.printf("%-28s %8.2f%n", "ConcurrentSkipListSet", c);
+            }
+        }
+    }
+
+    private static double mixed(Set<Integer> set, int n, int threads, boolean lock) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        List<Thread> workers = new ArrayList<>();
+        long end = System.nanoTime() + MIXED_NANOS;
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long done = 0;
+                while ((done & 255) != 0 || System.nanoTime() < end) {
+                    int key = random.nextInt(n);
+                    int op = random.nextInt(20);
+                    if (lock) {
+                        synchronized (set) {
+                            apply(set, op, key);
+                        }
+                    } else {
+                        apply(set, op, key);
+                    }
+                    done++;
+                }
+                ops.add(done);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return ops.sum() / (MIXED_NANOS / 1e3);
+    }
+
+    private static void apply(Set<Integer> set, int op, int key) {
+        if (op == 0) {
+            set.add(key);
+        } else if (op == 1) {
+            set.remove(key);
+        } else {
+            set.contains(key);
+        }
+    }
+
+    /**
+     * Runs random operations on a skip list with one thread and compares
+     * every result with a TreeSet.
+     */
+    private static boolean check(SortedSequence<Integer> list) {
+        Random random = new Random(42);
+        NavigableSet<Integer> model = new TreeSet<>();
+        for (int step = 0; step < 200_000; step++) {
+            int key = random.nextInt(2_000);
+            int op = random.nextInt(10);
+            boolean same;
+            if (op < 3) {
+                same = list.insert(key) == model.add(key);
+            } else if (op < 5) {
+                same = list.remove(key) == model.remove(key);
+            } else if (op < 7) {
+                same = list.contains(key) == model.contains(key);
+            } else if (op < 8) {
+                same = Objects.equals(list.floor(key), model.floor(key))
+                        && Objects.equals(list.ceiling(key), model.ceiling(key));
+            } else if (op < 9 && step % 100 == 0) {
+                List<Integer> range = new ArrayList<>();
+                list.range(key, key + 100).forEach(range::add);
+                same = range.equals(new ArrayList<>(model.subSet(key, key + 100)));
+            } else {
+                same = model.isEmpty() || (list.first().equals(model.first()) && list.last().equals(model.last()));
+            }
+            if (!same || list.size() != model.size()) {
+                return false;
+            }
+        }
+        for (Iterator<Integer> it = list.iterator(); it.hasNext();) {
+            if (it.next() % 2 != 0) {
+                it.remove();
+            }
+        }
+        model.removeIf(value -> value % 2 != 0);
+        return new ArrayList<>(list).equals(new ArrayList<>(model));
+    }
+
+    /**
+     * Builds skip lists from a shuffled and from a sorted SinglyLinkedList
+     * with duplicates.
+     */
+    private static boolean checkBuild() {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            values.add(i / 2);
+        }
+        Collections.shuffle(values, new Random(1));
+        SinglyLinkedList linked = new SinglyLinkedList();
+        values.forEach(linked::add);
+        List<Integer> expected = new ArrayList<>(new TreeSet<>(values));
+        List<Integer> shuffled = new ArrayList<>(new SortedSkipList<>(linked));
+        List<Integer> sorted = new ArrayList<>(new SortedSkipList<>(linked.sort()));
+        return shuffled.equals(expected) && sorted.equals(expected);
+    }
+
+    /**
+     * Lets several threads insert and remove random keys of a small range on
+     * one ConcurrentSortedSkipList and counts, per key, how many inserts and
+     * removes succeeded. Since the list is a set, the two counts of a key
+     * differ by at most one, and by one exactly if the key is in the list at
+     * the end.
+     */
+    private static boolean checkConcurrent(int threads) throws InterruptedException {
+        int keys = 1_000;
+        ConcurrentSortedSkipList<Integer> list = new ConcurrentSortedSkipList<>();
+        AtomicIntegerArray balance = new AtomicIntegerArray(keys); // Successful inserts minus removes
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 500_000; i++) {
+                    int key = random.nextInt(keys);
+                    if (random.nextBoolean()) {
+                        if (list.insert(key)) {
+                            balance.incrementAndGet(key);
+                        }
+                    } else if (list.remove(key)) {
+                        balance.decrementAndGet(key);
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        List<Integer> expected = new ArrayList<>();
+        for (int key = 0; key < keys; key++) {
+            int b = balance.get(key);
+            if (b != 0 && b != 1 || list.contains(key) != (b == 1)) {
+                return false;
+            }
+            if (b == 1) {
+                expected.add(key);
+            }
+        }
+        return new ArrayList<>(list).equals(expected) && list.size() == expected.size();
+    }
+}
@@ -0,0 +1,53 @@
+package src;
+
+import java.util.Random;
+
+import lib.SinglyLinkedList;
+
+/**
+ * Times sort() and parallelSort() on SinglyLinkedLists of random elements.
+ *
+ * Usage: java src.SortBenchmark [elements...]
+ */
+public class SortBenchmark {
+
+    public static void main(String[] args) {
+        int[] sizes = { 100_000, 1_000_000, 5_000_000 };
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.printf("%-12s %18s %18s%n", "elements", "sort (ms)", "parallelSort (ms)");
+        for (int n : sizes) {
+            long sequential = Long.MAX_VALUE;
+            long parallel = Long.MAX_VALUE;
+            for (int round = 0; round < 5; round++) { // Keep the best of a few rounds
+                SinglyLinkedList list = randomList(n, round);
+                long start = System.nanoTime();
+                list.sort();
+                sequential = Math.min(sequential, System.nanoTime() - start);
+
+                list = randomList(n, round);
+                start = System.nanoTime();
+                list.parallelSort();
+                parallel = Math.min(parallel, System.nanoTime() - start);
+            }
+            System.out.printf("%-12d %18.1f %18.1f%n", n, sequential / 1e6, parallel / 1e6);
+        }
+    }
+
+    /**
+     * Builds a list of n random elements.
+     */
+    private static SinglyLinkedList randomList(int n, long seed) {
+        Random random = new Random(seed);
+        SinglyLinkedList list = new SinglyLinkedList();
+        for (int i = 0; i < n; i++) {
+            list.add(random.nextInt());
+        }
+        return list;
+    }
+}
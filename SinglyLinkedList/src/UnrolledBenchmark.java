@@ -0,0 +1,227 @@
+package src;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+import lib.SinglyLinkedList;
+import lib.UnrolledLinkedList;
+
+/**
+ * Compares UnrolledLinkedList with SinglyLinkedList on a full scan, an
+ * indexOf that finds nothing, random get(i) and random add(index, element),
+ * after checking UnrolledLinkedList and its list iterator against an
+ * ArrayList on random operations.
+ *
+ * Usage: java src.UnrolledBenchmark [elements] [randomOps]   (default 1,000,000 and 2,000)
+ */
+public class UnrolledBenchmark {
+
+    private static final int ROUNDS = 3; // The first rounds warm up the JIT
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int ops = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        boolean ok = check();
+        System.out.println("model check " + (ok ? "PASSED" : "FAILED"));
+        boolean walks = checkListIterator();
+        System.out.println("list iterator check " + (walks ? "PASSED" : "FAILED"));
+        if (!ok || !walks) {
+            System.exit(1);
+        }
+
+        SinglyLinkedList linked = new SinglyLinkedList();
+        UnrolledLinkedList<Integer> unrolled = new UnrolledLinkedList<>();
+        for (int i = 0; i < n; i++) {
+            linked.add(i);
+            unrolled.add(i);
+        }
+        int[] indices = new Random(7).ints(ops, 0, n).toArray();
+
+        System.out.printf("%d elements, %d random operations%n", n, ops);
+        System.out.printf("%-22s %16s %18s %8s%n", "", "SinglyLinkedList", "UnrolledLinkedList", "speedup");
+        for (int round = 0; round < ROUNDS; round++) {
+            boolean last = round == ROUNDS - 1;
+            compare("scan (ms)", last, 0, linked, unrolled, UnrolledBenchmark::scan);
+            compare("indexOf (ms)", last, 0, linked, unrolled, list -> list.indexOf(-1));
+            compare("get(i) (us/op)", last, ops, linked, unrolled, list -> randomGets(list, indices));
+            compare("add(i, e) (us/op)", last, ops, linked, unrolled, list -> randomAdds(list, indices));
+        }
+    }
+
+    /**
+     * Times one workload on both lists and prints the times and the speedup
+     * if this is the measured round: in microseconds per operation if ops is
+     * positive, else in milliseconds for the whole workload.
+     */
+    private static void compare(String name, boolean print, int ops, List<Integer> linked,
+            List<Integer> unrolled, ToLongFunction<List<Integer>> workload) {
+        long linkedNanos = time(linked, workload);
+        long unrolledNanos = time(unrolled, workload);
+        if (print) {
+            double scale = ops > 0 ? 1e3 * ops : 1e6;
+            System.out.printf("%-22s %16.2f %18.2f %7.1fx%n", name, linkedNanos / scale, unrolledNanos / scale,
+                    (double) linkedNanos / unrolledNanos);
+        }
+    }
+
+    private static long time(List<Integer> list, ToLongFunction<List<Integer>> workload) {
+        long start = System.nanoTime();
+        long result = workload.applyAsLong(list);
+        long nanos = System.nanoTime() - start;
+        if (result == Long.MIN_VALUE) {
+            System.out.println(); // Keeps the result alive
+        }
+        return nanos;
+    }
+
+    private static long scan(List<Integer> list) {
+        long sum = 0;
+        for (Integer value : list) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private static long randomGets(List<Integer> list, int[] indices) {
+        long sum = 0;
+        for (int index : indices) {
+            sum += list.get(index);
+        }
+        return sum;
+    }
+
+    private static long randomAdds(List<Integer> list, int[] indices) {
+        for (int index : indices) {
+            list.add(index, index);
+        }
+        for (int i = indices.length - 1; i >= 0; i--) {
+            list.remove(indices[i]); // Undo in reverse, so every round sees the same list
+        }
+        return list.size();
+    }
+
+    /**
+     * Runs random operations on a small-node UnrolledLinkedList and an
+     * ArrayList and compares them after every step.
+     */
+    private static boolean check() {
+        Random random = new Random(42);
+        UnrolledLinkedList<Integer> list = new UnrolledLinkedList<>(4);
+        List<Integer> model = new ArrayList<>();
+        for (int step = 0; step < 200_000; step++) {
+            int op = random.nextInt(10);
+            int value = random.nextInt(100);
+            if (op < 3 || model.isEmpty()) {
+                int index = random.nextInt(model.size() + 1);
+                list.add(index, value);
+                model.add(index, value);
+            } else if (op < 4) {
+                list.addFirst(value);
+                model.add(0, value);
+            } else if (op < 5) {
+                list.addLast(value);
+                model.add(value);
+            } else if (op < 7) {
+                int index = random.nextInt(model.size());
+                if (!list.remove(index).equals(model.remove(index))) {
+                    return false;
+                }
+            } else if (op < 8) {
+                int index = random.nextInt(model.size());
+                list.set(index, value);
+                model.set(index, value);
+            } else if (op < 9 && step % 1000 == 0) {
+                removeOdd(list.iterator());
+                removeOdd(model.iterator());
+            } else if (step % 5000 == 0) {
+                list.reverse();
+                Collections.reverse(model);
+            }
+            if (list.size() != model.size() || (step % 997 == 0 && !list.equals(model))) {
+                return false;
+            }
+        }
+        List<Integer> reversed = new ArrayList<>();
+        list.descendingIterator().forEachRemaining(reversed::add);
+        Collections.reverse(reversed);
+        boolean descends = reversed.equals(model);
+        list.sort();
+        model.sort(null);
+        UnrolledLinkedList<Integer> palindrome = new UnrolledLinkedList<>(4);
+        for (int i = 0; i < 101; i++) {
+            palindrome.add(Math.min(i, 100 - i));
+        }
+        return descends && list.equals(model) && palindrome.isPalindrome();
+    }
+
+    /**
+     * Drives a list iterator of a small-node UnrolledLinkedList and one of an
+     * ArrayList with the same random moves, adds, removes and sets, checking
+     * that they return the same elements and indices, then compares indexOf
+     * and lastIndexOf.
+     */
+    private static boolean checkListIterator() {
+        Random random = new Random(43);
+        UnrolledLinkedList<Integer> list = new UnrolledLinkedList<>(4);
+        List<Integer> model = new ArrayList<>();
+        for (int round = 0; round < 200; round++) {
+            int start = random.nextInt(model.size() + 1);
+            ListIterator<Integer> it = list.listIterator(start);
+            ListIterator<Integer> expected = model.listIterator(start);
+            boolean moved = false; // Whether remove() and set() are allowed
+            for (int step = 0; step < 200; step++) {
+                int op = random.nextInt(10);
+                int value = random.nextInt(50);
+                if (op < 3 && expected.hasNext()) {
+                    if (!it.next().equals(expected.next())) {
+                        return false;
+                    }
+                    moved = true;
+                } else if (op < 6 && expected.hasPrevious()) {
+                    if (!it.previous().equals(expected.previous())) {
+                        return false;
+                    }
+                    moved = true;
+                } else if (op < 8) {
+                    it.add(value);
+                    expected.add(value);
+                    moved = false;
+                } else if (op < 9 && moved) {
+                    it.remove();
+                    expected.remove();
+                    moved = false;
+                } else if (moved) {
+                    it.set(value);
+                    expected.set(value);
+                }
+                if (it.nextIndex() != expected.nextIndex() || it.hasNext() != expected.hasNext()
+                        || it.hasPrevious() != expected.hasPrevious()) {
+                    return false;
+                }
+            }
+            if (!list.equals(model)) {
+                return false;
+            }
+        }
+        for (int value = -1; value < 50; value++) {
+            if (list.indexOf(value) != model.indexOf(value) || list.lastIndexOf(value) != model.lastIndexOf(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void removeOdd(Iterator<Integer> it) {
+        while (it.hasNext()) {
+            if (it.next() % 2 != 0) {
+                it.remove();
+            }
+        }
+    }
+}
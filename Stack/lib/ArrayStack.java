@@ -0,0 +1,230 @@
+package lib;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EmptyStackException;
+
+/**
+ * Implements a stack on top of fixed-size array chunks instead of linked
+ * nodes.
+ * The elements live in a list of chunks of chunkSize slots each; element i is
+ * slot (i mod chunkSize) of chunk (i / chunkSize). Because chunkSize is a power
+ * of two, both are a shift and a mask. A push stores one reference into an
+ * existing slot, so it allocates nothing until a chunk fills up, and a full
+ * stack grows by allocating one more chunk. The elements are never copied;
+ * only the small table of chunk references doubles now and then.
+ *
+ * With shrinking enabled, chunks that popping has emptied are released again,
+ * except for one spare chunk above the top. The spare keeps a stack that
+ * hovers around a chunk boundary from allocating and releasing the same chunk
+ * over and over.
+ *
+ * Unlike LinkedStack, this class is not thread-safe; it is meant for stacks
+ * owned by a single thread, such as the operand stack of an evaluator.
+ *
+ * @param <T> the type of elements held in this stack.
+ */
+public class ArrayStack<T> implements BulkStack<T> {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1024; // Slots per chunk when none is given
+    private static final int INITIAL_CHUNKS = 4; // Initial length of the chunk table
+
+    private final int shift; // log2(chunkSize), turns an index into a chunk number
+    private final int mask; // chunkSize - 1, turns an index into a slot number
+    private final boolean shrink; // Whether emptied chunks are released
+    private Object[][] chunks; // Chunk table, only the first allocated entries are set
+    private int allocated; // Number of chunks allocated
+    private int size; // Number of elements, also the index of the next free slot
+
+    /**
+     * Constructs an empty ArrayStack with chunks of 1024 slots that are never
+     * released.
+     */
+    public ArrayStack() {
+        this(DEFAULT_CHUNK_SIZE, false);
+    }
+
+    /**
+     * Constructs an empty ArrayStack.
+     *
+     * @param chunkSize the number of slots per chunk, a power of two.
+     * @param shrink    whether chunks emptied by pops are released.
+     * @throws IllegalArgumentException if chunkSize is not a positive power of two.
+     */
+    public ArrayStack(int chunkSize, boolean shrink) {
+        if (chunkSize <= 0 || Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+        this.shift = Integer.numberOfTrailingZeros(chunkSize);
+        this.mask = chunkSize - 1;
+        this.shrink = shrink;
+        this.chunks = new Object[INITIAL_CHUNKS][];
+    }
+
+    /**
+     * Adds an element to the top of the stack.
+     *
+     * @param current the element to add to the stack.
+     */
+    @Override
+    public void push(T current) {
+        int chunk = size >>> shift;
+        if (chunk == allocated) {
+            grow();
+        }
+        chunks[chunk][size & mask] = current;
+        size++;
+    }
+
+    /**
+     * Removes and returns the element at the top of the stack.
+     *
+     * @return the element at the top of the stack.
+     * @throws EmptyStackException if the stack is empty.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        int index = --size;
+        Object[] chunk = chunks[index >>> shift];
+        T element = (T) chunk[index & mask];
+        chunk[index & mask] = null; // Let the element be collected
+        if (shrink && (index & mask) == 0) {
+            release(index >>> shift);
+        }
+        return element;
+    }
+
+    /**
+     * Returns the element at the top of the stack without removing it.
+     *
+     * @return the element at the top of the stack.
+     * @throws EmptyStackException if the stack is empty.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        int index = size - 1;
+        return (T) chunks[index >>> shift][index & mask];
+    }
+
+    /**
+     * Pushes every element of the collection in iteration order, filling one
+     * chunk at a time.
+     *
+     * @param c the elements to push.
+     */
+    @Override
+    public void pushAll(Collection<? extends T> c) {
+        for (T element : c) {
+            int chunk = size >>> shift;
+            if (chunk == allocated) {
+                grow();
+            }
+            chunks[chunk][size & mask] = element;
+            size++;
+        }
+    }
+
+    /**
+     * Pops up to n elements and adds them to the collection, top first. An
+     * element leaves the stack only once the collection has accepted it, so
+     * if c.add throws, the elements already moved are popped and the rest,
+     * including the one that was rejected, stay on the stack.
+     *
+     * @param c the collection that receives the popped elements.
+     * @param n the maximum number of elements to pop.
+     * @return the number of elements popped, 0 if the stack is empty.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int popN(Collection<? super T> c, int n) {
+        int count = Math.min(Math.max(n, 0), size);
+        int end = size - count; // Index of the deepest element that is popped
+        try {
+            while (size > end) {
+                int index = size - 1;
+                Object[] chunk = chunks[index >>> shift];
+                c.add((T) chunk[index & mask]);
+                chunk[index & mask] = null;
+                size = index;
+            }
+        } finally {
+            if (shrink && count > 0) {
+                release(size >>> shift);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Removes every element, releasing all chunks but the first if shrinking
+     * is enabled.
+     */
+    public void clear() {
+        for (int i = 0; i < allocated; i++) {
+            Arrays.fill(chunks[i], null);
+        }
+        size = 0;
+        if (shrink) {
+            release(0);
+        }
+    }
+
+    /**
+     * Returns the number of elements in the stack.
+     *
+     * @return the number of elements in the stack.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the stack is empty.
+     *
+     * @return true if the stack is empty, false otherwise.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of slots currently allocated, which is a multiple of
+     * the chunk size.
+     *
+     * @return the capacity of the stack before it allocates another chunk.
+     */
+    public int capacity() {
+        return allocated << shift;
+    }
+
+    /**
+     * Allocates one more chunk, doubling the chunk table if it is full.
+     */
+    private void grow() {
+        if (allocated == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        chunks[allocated++] = new Object[mask + 1];
+    }
+
+    /**
+     * Releases every chunk above the given one, keeping it as the spare.
+     *
+     * @param keep the highest chunk to keep.
+     */
+    private void release(int keep) {
+        while (allocated > keep + 1) {
+            chunks[--allocated] = null;
+        }
+    }
+}
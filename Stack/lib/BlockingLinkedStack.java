@@ -0,0 +1,194 @@
+package lib;
+
+import java.util.EmptyStackException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implements a blocking stack using a singly linked list structure, guarded by
+ * a ReentrantLock instead of the object monitor.
+ *
+ * Besides the Stack operations it adds popBlocking(), which waits until an
+ * element is available, and pop(timeout, unit), which waits at most the given
+ * time. Waiting consumers sleep on a Condition of the lock and each push
+ * wakes one of them, so nobody has to poll pop() and catch
+ * EmptyStackException.
+ *
+ * Because the lock and the condition park threads with LockSupport rather
+ * than holding a monitor, a virtual thread waiting here, or queued for the
+ * lock, unmounts from its carrier thread instead of pinning it. LinkedStack
+ * synchronizes on its monitor, which pins the carrier for as long as a
+ * virtual thread waits to enter it.
+ *
+ * @param <T> the type of elements held in this stack.
+ */
+public class BlockingLinkedStack<T> implements Stack<T> {
+
+    /**
+     * Private inner class representing a node in the stack.
+     */
+    private static class Node<T> {
+        private final T plate; // The element this node holds
+        private Node<T> next;  // Reference to the next node in the stack
+
+        /**
+         * Constructs a new node with a specified element.
+         *
+         * @param current the element to store in this node.
+         */
+        public Node(T current) {
+            plate = current;
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock(); // Guards top and count
+    private final Condition notEmpty = lock.newCondition(); // Signalled by each push
+    private Node<T> top; // Top of the stack, initialized to null
+    private int count;   // Counter for the number of elements in the stack
+
+    /**
+     * Adds an element to the top of the stack and wakes one waiting consumer.
+     *
+     * @param current the element to add to the stack.
+     */
+    @Override
+    public void push(T current) {
+        Node<T> c = new Node<T>(current);
+        lock.lock();
+        try {
+            c.next = top;
+            top = c;
+            count++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the element at the top of the stack without waiting.
+     *
+     * @return the element at the top of the stack.
+     * @throws EmptyStackException if the stack is empty.
+     */
+    @Override
+    public T pop() {
+        lock.lock();
+        try {
+            if (top == null) {
+                throw new EmptyStackException();
+            }
+            return unlink();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the element at the top of the stack, waiting until
+     * there is one.
+     *
+     * @return the element at the top of the stack.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public T popBlocking() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (top == null) {
+                notEmpty.await();
+            }
+            return unlink();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the element at the top of the stack, waiting at most
+     * the given time for one.
+     *
+     * @param timeout how long to wait before giving up, in units of unit.
+     * @param unit    the unit of the timeout.
+     * @return the element at the top of the stack, or null if the timeout
+     *         elapsed first.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public T pop(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (top == null) {
+                if (nanos <= 0L) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return unlink();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the element at the top of the stack without removing it.
+     *
+     * @return the element at the top of the stack.
+     * @throws EmptyStackException if the stack is empty.
+     */
+    @Override
+    public T peek() {
+        lock.lock();
+        try {
+            if (top == null) {
+                throw new EmptyStackException();
+            }
+            return top.plate;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of elements in the stack.
+     *
+     * @return the number of elements in the stack.
+     */
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if the stack is empty.
+     *
+     * @return true if the stack is empty, false otherwise.
+     */
+    @Override
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return top == null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Unlinks the top node and returns its element. Must be called while
+     * holding the lock, with the stack not empty.
+     *
+     * @return the element that was on top of the stack.
+     */
+    private T unlink() {
+        Node<T> t = top;
+        top = t.next;
+        count--;
+        return t.plate;
+    }
+}
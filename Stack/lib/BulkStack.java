@@ -0,0 +1,53 @@
+package lib;
+
+import java.util.Collection;
+import java.util.EmptyStackException;
+
+/**
+ * A Stack that can also push and pop many elements in one call.
+ * The default methods simply loop over push and pop; implementations
+ * override them to move whole runs of elements at once.
+ *
+ * @param <T> the type of elements held in this stack.
+ */
+public interface BulkStack<T> extends Stack<T> {
+
+    /**
+     * Pushes every element of the collection in iteration order, so the last
+     * element of the collection ends up on top of the stack.
+     *
+     * @param c the elements to push.
+     */
+    default void pushAll(Collection<? extends T> c) {
+        for (T element : c) {
+            push(element);
+        }
+    }
+
+    /**
+     * Pops up to n elements and adds them to the collection in the order they
+     * were popped, top first. An element leaves the stack only once the
+     * collection has accepted it, so if c.add throws, the elements already
+     * moved are popped and the rest, including the one that was rejected,
+     * stay on the stack.
+     *
+     * @param c the collection that receives the popped elements.
+     * @param n the maximum number of elements to pop.
+     * @return the number of elements popped, 0 if the stack is empty.
+     */
+    default int popN(Collection<? super T> c, int n) {
+        int popped = 0;
+        while (popped < n) {
+            T element;
+            try {
+                element = peek();
+            } catch (EmptyStackException e) {
+                break; // Fewer than n elements were left
+            }
+            c.add(element);
+            pop();
+            popped++;
+        }
+        return popped;
+    }
+}
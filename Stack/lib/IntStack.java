@@ -0,0 +1,281 @@
+package lib;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EmptyStackException;
+
+/**
+ * A primitive-specialized stack of int values.
+ * It uses the same chunked layout as ArrayStack, but the chunks are int
+ * arrays, so push(int), popInt() and peekInt() never box a value into an
+ * Integer and a push allocates nothing until a chunk fills up. Runs of values
+ * move in and out with pushAll(int[], int, int) and popN(int[], int, int).
+ *
+ * IntStack also implements BulkStack&lt;Integer&gt; so it can stand in for
+ * any other stack; those methods box and unbox, and exist for
+ * interoperability rather than speed.
+ *
+ * This class is not thread-safe.
+ */
+public class IntStack implements BulkStack<Integer> {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1024; // Slots per chunk when none is given
+    private static final int INITIAL_CHUNKS = 4; // Initial length of the chunk table
+
+    private final int shift; // log2(chunkSize), turns an index into a chunk number
+    private final int mask; // chunkSize - 1, turns an index into a slot number
+    private final boolean shrink; // Whether emptied chunks are released
+    private int[][] chunks; // Chunk table, only the first allocated entries are set
+    private int allocated; // Number of chunks allocated
+    private int size; // Number of values, also the index of the next free slot
+
+    /**
+     * Constructs an empty IntStack with chunks of 1024 slots that are never
+     * released.
+     */
+    public IntStack() {
+        this(DEFAULT_CHUNK_SIZE, false);
+    }
+
+    /**
+     * Constructs an empty IntStack.
+     *
+     * @param chunkSize the number of slots per chunk, a power of two.
+     * @param shrink    whether chunks emptied by pops are released.
+     * @throws IllegalArgumentException if chunkSize is not a positive power of two.
+     */
+    public IntStack(int chunkSize, boolean shrink) {
+        if (chunkSize <= 0 || Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+        this.shift = Integer.numberOfTrailingZeros(chunkSize);
+        this.mask = chunkSize - 1;
+        this.shrink = shrink;
+        this.chunks = new int[INITIAL_CHUNKS][];
+    }
+
+    /**
+     * Adds a value to the top of the stack.
+     *
+     * @param value the value to add to the stack.
+     */
+    public void push(int value) {
+        int chunk = size >>> shift;
+        if (chunk == allocated) {
+            grow();
+        }
+        chunks[chunk][size & mask] = value;
+        size++;
+    }
+
+    /**
+     * Removes and returns the value at the top of the stack.
+     *
+     * @return the value at the top of the stack.
+     * @throws EmptyStackException if the stack is empty.
+     */
+    public int popInt() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        int index = --size;
+        int value = chunks[index >>> shift][index & mask];
+        if (shrink && (index & mask) == 0) {
+            release(index >>> shift);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value at the top of the stack without removing it.
+     *
+     * @return the value at the top of the stack.
+     * @throws EmptyStackException if the stack is empty.
+     */
+    public int peekInt() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        int index = size - 1;
+        return chunks[index >>> shift][index & mask];
+    }
+
+    /**
+     * Pushes length values of the array, starting at offset, so that
+     * values[offset + length - 1] ends up on top. The values are copied one
+     * chunk at a time.
+     *
+     * @param values the array holding the values.
+     * @param offset the index of the first value to push.
+     * @param length the number of values to push.
+     * @throws IndexOutOfBoundsException if the range is outside the array.
+     */
+    public void pushAll(int[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > values.length - length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length
+                    + ") out of bounds for length " + values.length);
+        }
+        while (length > 0) {
+            int chunk = size >>> shift;
+            if (chunk == allocated) {
+                grow();
+            }
+            int slot = size & mask;
+            int run = Math.min(length, mask + 1 - slot); // Room left in this chunk
+            System.arraycopy(values, offset, chunks[chunk], slot, run);
+            size += run;
+            offset += run;
+            length -= run;
+        }
+    }
+
+    /**
+     * Pops up to n values into the array, starting at offset, top first.
+     *
+     * @param into   the array that receives the popped values.
+     * @param offset the index of the first slot to fill.
+     * @param n      the maximum number of values to pop.
+     * @return the number of values popped, 0 if the stack is empty.
+     * @throws IndexOutOfBoundsException if n values would not fit in the array.
+     */
+    public int popN(int[] into, int offset, int n) {
+        if (offset < 0 || n < 0 || offset > into.length - n) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + n
+                    + ") out of bounds for length " + into.length);
+        }
+        int count = Math.min(n, size);
+        for (int i = 0; i < count; i++) {
+            int index = size - 1 - i;
+            into[offset + i] = chunks[index >>> shift][index & mask];
+        }
+        size -= count;
+        if (shrink && count > 0) {
+            release(size >>> shift);
+        }
+        return count;
+    }
+
+    /**
+     * Adds an element to the top of the stack, unboxing it.
+     *
+     * @param n the element to add to the stack.
+     */
+    @Override
+    public void push(Integer n) {
+        push(n.intValue());
+    }
+
+    /**
+     * Removes and returns the element at the top of the stack, boxed.
+     *
+     * @return the element at the top of the stack.
+     * @throws EmptyStackException if the stack is empty.
+     */
+    @Override
+    public Integer pop() {
+        return popInt();
+    }
+
+    /**
+     * Returns the element at the top of the stack without removing it, boxed.
+     *
+     * @return the element at the top of the stack.
+     * @throws EmptyStackException if the stack is empty.
+     */
+    @Override
+    public Integer peek() {
+        return peekInt();
+    }
+
+    /**
+     * Pushes every element of the collection in iteration order, unboxing each.
+     *
+     * @param c the elements to push.
+     */
+    @Override
+    public void pushAll(Collection<? extends Integer> c) {
+        for (Integer n : c) {
+            push(n.intValue());
+        }
+    }
+
+    /**
+     * Pops up to n elements and adds them to the collection, top first, boxing
+     * each. A value leaves the stack only once the collection has accepted it.
+     *
+     * @param c the collection that receives the popped elements.
+     * @param n the maximum number of elements to pop.
+     * @return the number of elements popped, 0 if the stack is empty.
+     */
+    @Override
+    public int popN(Collection<? super Integer> c, int n) {
+        int count = Math.min(Math.max(n, 0), size);
+        for (int i = 0; i < count; i++) {
+            c.add(peekInt());
+            popInt();
+        }
+        return count;
+    }
+
+    /**
+     * Removes every value, releasing all chunks but the first if shrinking is
+     * enabled.
+     */
+    public void clear() {
+        size = 0;
+        if (shrink) {
+            release(0);
+        }
+    }
+
+    /**
+     * Returns the number of values in the stack.
+     *
+     * @return the number of values in the stack.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the stack is empty.
+     *
+     * @return true if the stack is empty, false otherwise.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of slots currently allocated, which is a multiple of
+     * the chunk size.
+     *
+     * @return the capacity of the stack before it allocates another chunk.
+     */
+    public int capacity() {
+        return allocated << shift;
+    }
+
+    /**
+     * Allocates one more chunk, doubling the chunk table if it is full.
+     */
+    private void grow() {
+        if (allocated == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        chunks[allocated++] = new int[mask + 1];
+    }
+
+    /**
+     * Releases every chunk above the given one, keeping it as the spare.
+     *
+     * @param keep the highest chunk to keep.
+     */
+    private void release(int keep) {
+        while (allocated > keep + 1) {
+            chunks[--allocated] = null;
+        }
+    }
+}
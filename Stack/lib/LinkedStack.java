@@ -1,5 +1,9 @@
+package lib;
+
 import java.util.EmptyStackException;
 
+import lib.metrics.LockMetrics;
+
 /**
  * Implements a stack using a singly linked list structure with thread-safe
  * operations.
@@ -8,6 +12,11 @@ import java.util.EmptyStackException;
  * meaning that only one thread can modify the stack at a time, preventing data
  * corruption and ensuring data consistency.
  * 
+ * An instrumented stack additionally records LockMetrics for push, pop and
+ * peek: calls per operation, monitor wait and hold times, queued threads and
+ * the high-water mark, published through JMX and JFR. Without instrumentation
+ * the only cost is a null check of a final field per operation.
+ * 
  * @param <T> the type of elements held in this stack.
  */
 public class LinkedStack<T> implements Stack<T> {
@@ -30,15 +39,43 @@ public class LinkedStack<T> implements Stack<T> {
         }
     }
 
+    /**
+     * The operations counted by the lock metrics of an instrumented stack.
+     */
+    public enum Operation {
+        PUSH, POP, PEEK
+    }
+
     private Node<T> top; // Top of the stack, initialized to null
     private int count;   // Counter for the number of elements in the stack
+    private final LockMetrics<Operation> metrics; // Lock metrics, null unless instrumented
 
     /**
      * Constructs an empty LinkedStack.
      */
     public LinkedStack() {
+        this(false);
+    }
+
+    /**
+     * Constructs an empty LinkedStack, optionally recording lock metrics.
+     * 
+     * @param instrumented whether to record lock metrics, see metrics().
+     */
+    public LinkedStack(boolean instrumented) {
         top = null;
         count = 0;
+        metrics = instrumented ? new LockMetrics<>("LinkedStack", Operation.class) : null;
+    }
+
+    /**
+     * Returns the lock metrics of an instrumented stack. Call register() on
+     * them to publish them through JMX.
+     * 
+     * @return the lock metrics, or null if the stack is not instrumented.
+     */
+    public LockMetrics<Operation> metrics() {
+        return metrics;
     }
 
     /**
@@ -48,11 +85,20 @@ public class LinkedStack<T> implements Stack<T> {
      * @param current the integer to add to the stack.
      */
     @Override
-    public synchronized void push(T current) {
+    public void push(T current) {
         Node<T> c = new Node<T>(current);
-        c.next = top;
-        top = c;
-        count++;
+        if (metrics == null) {
+            synchronized (this) {
+                link(c);
+            }
+            return;
+        }
+        long entered = metrics.enter();
+        synchronized (this) {
+            long acquired = metrics.acquired(entered);
+            link(c);
+            metrics.exit(Operation.PUSH, acquired, count);
+        }
     }
 
     /**
@@ -63,14 +109,21 @@ public class LinkedStack<T> implements Stack<T> {
      * @throws EmptyStackException if the stack is empty.
      */
     @Override
-    public synchronized T pop() {
-        if (isEmpty()) {
-            throw new EmptyStackException();
+    public T pop() {
+        if (metrics == null) {
+            synchronized (this) {
+                return unlink();
+            }
+        }
+        long entered = metrics.enter();
+        synchronized (this) {
+            long acquired = metrics.acquired(entered);
+            try {
+                return unlink();
+            } finally {
+                metrics.exit(Operation.POP, acquired, count);
+            }
         }
-        T topPlate = top.plate;
-        top = top.next;
-        count--;
-        return topPlate;
     }
 
     /**
@@ -81,11 +134,21 @@ public class LinkedStack<T> implements Stack<T> {
      * @throws EmptyStackException if the stack is empty.
      */
     @Override
-    public synchronized T peek() {
-        if (isEmpty()) {
-            throw new EmptyStackException();
+    public T peek() {
+        if (metrics == null) {
+            synchronized (this) {
+                return top();
+            }
+        }
+        long entered = metrics.enter();
+        synchronized (this) {
+            long acquired = metrics.acquired(entered);
+            try {
+                return top();
+            } finally {
+                metrics.exit(Operation.PEEK, acquired, count);
+            }
         }
-        return top.plate;
     }
 
     /**
@@ -110,4 +173,46 @@ public class LinkedStack<T> implements Stack<T> {
         return top == null;
     }
 
+    /**
+     * Links a node on top of the stack. Must be called while holding the monitor.
+     * 
+     * @param c the node to link.
+     */
+    private void link(Node<T> c) {
+        c.next = top;
+        top = c;
+        count++;
+    }
+
+    /**
+     * Unlinks the top node and returns its element. Must be called while
+     * holding the monitor.
+     * 
+     * @return the element that was on top of the stack.
+     * @throws EmptyStackException if the stack is empty.
+     */
+    private T unlink() {
+        if (top == null) {
+            throw new EmptyStackException();
+        }
+        T topPlate = top.plate;
+        top = top.next;
+        count--;
+        return topPlate;
+    }
+
+    /**
+     * Returns the element on top of the stack. Must be called while holding
+     * the monitor.
+     * 
+     * @return the element on top of the stack.
+     * @throws EmptyStackException if the stack is empty.
+     */
+    private T top() {
+        if (top == null) {
+            throw new EmptyStackException();
+        }
+        return top.plate;
+    }
+
 }
@@ -0,0 +1,205 @@
+package lib;
+
+import java.util.EmptyStackException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implements a lock-free stack using a Treiber stack with an elimination
+ * array.
+ * Instead of synchronizing every method on one monitor like LinkedStack, the
+ * top of the stack is an atomic reference that is swung with a single
+ * compare-and-set (CAS). A thread whose CAS loses against another thread never
+ * blocks; it simply retries.
+ *
+ * Under heavy contention most CAS attempts on the top fail. A push that loses
+ * the race offers its node in a random slot of the elimination array and waits
+ * there for a short while; a pop that loses the race looks in a random slot
+ * for such an offer and takes it. A push and pop that meet this way cancel
+ * each other out without ever touching the top of the stack, so the stack
+ * scales as more threads are added instead of serializing on one memory
+ * location.
+ *
+ * The element count is kept in a striped counter (LongAdder), so size() never
+ * contends with push and pop. Because no lock freezes the stack, size() is a
+ * snapshot that may be stale by the time it is returned.
+ *
+ * @param <T> the type of elements held in this stack.
+ */
+public class LockFreeStack<T> implements Stack<T> {
+
+    private static final int ELIMINATION_SPINS = 64; // How long a push waits in a slot for a pop
+
+    /**
+     * Private inner class representing a node in the stack.
+     * Each node holds an element (plate) and a reference to the next node.
+     */
+    private static class Node<T> {
+        private final T plate; // The element this node holds
+        private Node<T> next;  // Reference to the next node in the stack
+
+        /**
+         * Constructs a new node with a specified element.
+         *
+         * @param current the element to store in this node.
+         */
+        public Node(T current) {
+            plate = current;
+        }
+    }
+
+    private final AtomicReference<Node<T>> top = new AtomicReference<>(); // Top of the stack
+    private final AtomicReferenceArray<Node<T>> elimination; // Slots where pushes meet pops
+    private final LongAdder count = new LongAdder(); // Striped counter for the number of elements
+
+    /**
+     * Constructs an empty LockFreeStack with one elimination slot per pair of
+     * available processors.
+     */
+    public LockFreeStack() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * Constructs an empty LockFreeStack with the given number of elimination
+     * slots.
+     *
+     * @param slots the number of slots in the elimination array.
+     * @throws IllegalArgumentException if slots is not positive.
+     */
+    public LockFreeStack(int slots) {
+        if (slots <= 0) {
+            throw new IllegalArgumentException("Invalid number of slots: " + slots);
+        }
+        elimination = new AtomicReferenceArray<>(slots);
+    }
+
+    /**
+     * Adds an element to the top of the stack.
+     * If the CAS on the top fails because of contention, the push tries to
+     * hand its element directly to a concurrent pop before retrying.
+     *
+     * @param current the element to add to the stack.
+     */
+    @Override
+    public void push(T current) {
+        Node<T> c = new Node<T>(current);
+        while (true) {
+            Node<T> t = top.get();
+            c.next = t;
+            if (top.compareAndSet(t, c)) {
+                count.increment();
+                return;
+            }
+            if (offer(c)) {
+                return; // A pop took the element, nothing was added to the stack
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the element at the top of the stack.
+     * If the CAS on the top fails because of contention, the pop tries to take
+     * an element directly from a concurrent push before retrying.
+     *
+     * @return the element at the top of the stack.
+     * @throws EmptyStackException if the stack is empty.
+     */
+    @Override
+    public T pop() {
+        while (true) {
+            Node<T> t = top.get();
+            if (t == null) {
+                throw new EmptyStackException();
+            }
+            if (top.compareAndSet(t, t.next)) {
+                count.decrement();
+                return t.plate;
+            }
+            Node<T> eliminated = take();
+            if (eliminated != null) {
+                return eliminated.plate; // Paired with a push, the stack was never touched
+            }
+        }
+    }
+
+    /**
+     * Returns the element at the top of the stack without removing it.
+     *
+     * @return the element at the top of the stack.
+     * @throws EmptyStackException if the stack is empty.
+     */
+    @Override
+    public T peek() {
+        Node<T> t = top.get();
+        if (t == null) {
+            throw new EmptyStackException();
+        }
+        return t.plate;
+    }
+
+    /**
+     * Returns the number of elements in the stack.
+     * A pop may be counted a moment before the matching push is, so the
+     * counter is clamped to the valid range.
+     *
+     * @return the number of elements in the stack.
+     */
+    @Override
+    public int size() {
+        long sum = count.sum();
+        if (sum <= 0) {
+            return 0;
+        }
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+
+    /**
+     * Checks if the stack is empty.
+     *
+     * @return true if the stack is empty, false otherwise.
+     */
+    @Override
+    public boolean isEmpty() {
+        return top.get() == null;
+    }
+
+    /**
+     * Offers a pushed node in a random elimination slot and spins briefly
+     * waiting for a pop to take it.
+     *
+     * @param c the node being pushed.
+     * @return true if a pop took the node, false if the push must retry.
+     */
+    private boolean offer(Node<T> c) {
+        int slot = ThreadLocalRandom.current().nextInt(elimination.length());
+        if (!elimination.compareAndSet(slot, null, c)) {
+            return false; // Slot busy with another push
+        }
+        for (int i = 0; i < ELIMINATION_SPINS; i++) {
+            if (elimination.get(slot) != c) {
+                return true; // A pop cleared the slot and took the node
+            }
+            Thread.onSpinWait();
+        }
+        // Withdraw the offer; if that fails, a pop took it at the last moment
+        return !elimination.compareAndSet(slot, c, null);
+    }
+
+    /**
+     * Looks in a random elimination slot for a node offered by a push.
+     *
+     * @return the node taken from the slot, or null if there was none.
+     */
+    private Node<T> take() {
+        int slot = ThreadLocalRandom.current().nextInt(elimination.length());
+        Node<T> c = elimination.get(slot);
+        if (c != null && elimination.compareAndSet(slot, c, null)) {
+            return c;
+        }
+        return null;
+    }
+
+}
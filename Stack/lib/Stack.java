@@ -1,3 +1,4 @@
+package lib;
 
 /**
  * Defines the operations for a stack data structure.
@@ -0,0 +1,67 @@
+package src;
+
+import java.lang.management.ManagementFactory;
+import java.util.EmptyStackException;
+import java.util.concurrent.CountDownLatch;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import lib.*;
+import lib.metrics.LockMetrics;
+
+/**
+ * Runs a contended push/pop loop on an instrumented LinkedStack, publishes its
+ * lock metrics through JMX and prints them as read back from the MBean server.
+ *
+ * Start it with -XX:StartFlightRecording to also capture the
+ * datastructures.LockContention JFR events of the slow acquisitions.
+ */
+public class LockMetricsReport {
+
+    private static final int THREADS = 8;
+    private static final int OPS_PER_THREAD = 200_000; // push/pop pairs per thread
+
+    public static void main(String[] args) throws Exception {
+        LinkedStack<Integer> stack = new LinkedStack<>(true);
+        LockMetrics<LinkedStack.Operation> metrics = stack.metrics();
+        metrics.register("report");
+
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        Integer element = 42;
+        for (int t = 0; t < THREADS; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        stack.push(element);
+                        try {
+                            stack.pop();
+                        } catch (EmptyStackException e) {
+                            // Another thread took our element first; keep going
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("datastructures:type=LinkedStack,name=\"report\"");
+        System.out.println("MBean " + name);
+        for (String attribute : new String[] { "Acquisitions", "WaitTimeP50", "WaitTimeP99",
+                "MaxWaitTime", "HoldTimeP50", "HoldTimeP99", "MaxHoldTime",
+                "PeakQueuedThreads", "HighWaterMark" }) {
+            System.out.printf("  %-18s %,d%n", attribute, server.getAttribute(name, attribute));
+        }
+        System.out.println("  PUSH               " + metrics.operationCount(LinkedStack.Operation.PUSH));
+        System.out.println("  POP                " + metrics.operationCount(LinkedStack.Operation.POP));
+        metrics.unregister();
+    }
+}
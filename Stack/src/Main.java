@@ -1,3 +1,7 @@
+package src;
+
+import lib.*;
+
 public class Main {
     public static void main(String[] args) {
         LinkedStack<Integer> stack = new LinkedStack<Integer>();
@@ -0,0 +1,216 @@
+package src;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import lib.*;
+
+/**
+ * Evaluates the same postfix (RPN) expression with three operand stacks, a
+ * LinkedStack, an ArrayStack and an IntStack, and reports the time and the
+ * heap allocation per push.
+ *
+ * The expression is a long sum of products, so every operator pops two
+ * operands and pushes one result, the way an expression evaluator uses its
+ * stack. Before measuring, it checks the bulk methods of the new stacks.
+ */
+public class OperandStackBenchmark {
+
+    private static final int TERMS = 1_000_000; // Products in the expression
+    private static final int ROUNDS = 5; // The first rounds warm up the JIT
+    private static final int NUMBER = 0; // Token kinds of the compiled expression
+    private static final int ADD = -1;
+    private static final int MULTIPLY = -2;
+
+    public static void main(String[] args) {
+        checkBulk();
+
+        // 1 2 * 2 3 * + 3 4 * + ... compiled to tokens: number >= 0, or ADD/MULTIPLY
+        int[] tokens = new int[TERMS * 4];
+        int t = 0;
+        for (int i = 0; i < TERMS; i++) {
+            tokens[t++] = i % 7;
+            tokens[t++] = i % 5;
+            tokens[t++] = MULTIPLY;
+            if (i > 0) {
+                tokens[t++] = ADD;
+            }
+        }
+        int[] expression = Arrays.copyOf(tokens, t);
+        long pushes = 3L * TERMS - 1; // Two operands and one result per product, one per sum
+
+        System.out.printf("%-12s %12s %14s %12s%n", "stack", "ns/push", "bytes/push", "result");
+        for (int round = 0; round < ROUNDS; round++) {
+            boolean last = round == ROUNDS - 1;
+            report("LinkedStack", pushes, last, () -> evaluate(expression, new LinkedStack<>()));
+            report("ArrayStack", pushes, last, () -> evaluate(expression, new ArrayStack<>()));
+            report("IntStack", pushes, last, () -> evaluate(expression, new IntStack()));
+        }
+    }
+
+    /**
+     * Evaluates the expression on a boxed stack.
+     */
+    private static int evaluate(int[] expression, Stack<Integer> stack) {
+        for (int token : expression) {
+            if (token >= NUMBER) {
+                stack.push(token);
+            } else {
+                int right = stack.pop();
+                int left = stack.pop();
+                stack.push(token == ADD ? left + right : left * right);
+            }
+        }
+        return stack.pop();
+    }
+
+    /**
+     * Evaluates the expression on a primitive stack, without boxing.
+     */
+    private static int evaluate(int[] expression, IntStack stack) {
+        for (int token : expression) {
+            if (token >= NUMBER) {
+                stack.push(token);
+            } else {
+                int right = stack.popInt();
+                int left = stack.popInt();
+                stack.push(token == ADD ? left + right : left * right);
+            }
+        }
+        return stack.popInt();
+    }
+
+    /**
+     * Runs one evaluation and prints its cost if this is the measured round.
+     */
+    private static void report(String name, long pushes, boolean print, IntSupplier run) {
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        int result = run.getAsInt();
+        long nanos = System.nanoTime() - start;
+        bytes = allocatedBytes() - bytes;
+        if (print) {
+            System.out.printf("%-12s %12.2f %14.3f %12d%n", name, (double) nanos / pushes,
+                    (double) bytes / pushes, result);
+        }
+    }
+
+    /**
+     * Checks pushAll/popN order and chunk release on the new stacks, and
+     * exits with status 1 if anything is off.
+     */
+    private static void checkBulk() {
+        ArrayStack<Integer> boxed = new ArrayStack<>(4, true);
+        boxed.pushAll(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+        List<Integer> popped = new ArrayList<>();
+        boolean ok = boxed.popN(popped, 3) == 3 && popped.equals(List.of(10, 9, 8)) && boxed.peek() == 7;
+        boxed.popN(popped, 100);
+        ok &= boxed.isEmpty() && boxed.capacity() == 4; // Only the spare chunk is left
+
+        IntStack rejectingInts = new IntStack(4, true);
+        rejectingInts.pushAll(new int[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 }, 0, 10);
+        LongStack rejectingLongs = new LongStack(4, true);
+        rejectingLongs.pushAll(new long[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 }, 0, 10);
+        boxed.pushAll(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+        LinkedStack<Integer> linked = new LinkedStack<>();
+        for (int i = 1; i <= 10; i++) {
+            linked.push(i);
+        }
+        ok &= keepsRejected(boxed) && boxed.capacity() == 4;
+        ok &= keepsRejected(rejectingInts) && rejectingInts.capacity() == 4;
+        ok &= keepsRejected(rejectingLongs) && rejectingLongs.capacity() == 4;
+        ok &= keepsRejected(new DefaultBulkStack<>(linked)); // The BulkStack.popN default
+
+        IntStack ints = new IntStack(4, true);
+        ints.pushAll(new int[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 }, 0, 10);
+        int[] into = new int[10];
+        ok &= ints.popN(into, 0, 3) == 3 && into[0] == 10 && into[2] == 8 && ints.peekInt() == 7;
+        ok &= ints.popN(into, 3, 7) == 7 && into[9] == 1 && ints.capacity() == 4;
+
+        LongStack longs = new LongStack();
+        longs.push(Long.MAX_VALUE);
+        longs.pushAll(new long[] { 1, 2 }, 0, 2);
+        ok &= longs.popLong() == 2 && longs.popLong() == 1 && longs.popLong() == Long.MAX_VALUE;
+
+        System.out.println("bulk checks " + (ok ? "PASSED" : "FAILED"));
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Pops a stack holding 1 to 10 into a collection that rejects 5, and
+     * checks that 10 to 6 were moved while 5 and below stayed on the stack.
+     * Then empties the stack.
+     */
+    private static boolean keepsRejected(BulkStack<? extends Number> stack) {
+        List<Number> rejecting = new ArrayList<>() {
+            @Override
+            public boolean add(Number element) {
+                if (element.intValue() == 5) {
+                    throw new IllegalArgumentException("rejected " + element);
+                }
+                return super.add(element);
+            }
+        };
+        try {
+            stack.popN(rejecting, 10);
+            return false;
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        List<Integer> moved = new ArrayList<>();
+        rejecting.forEach(element -> moved.add(element.intValue()));
+        boolean ok = moved.equals(List.of(10, 9, 8, 7, 6)) && stack.size() == 5 && stack.peek().intValue() == 5;
+        return ok && stack.popN(new ArrayList<>(), 100) == 5 && stack.isEmpty();
+    }
+
+    /**
+     * A BulkStack that keeps the default pushAll and popN, delegating the
+     * single-element operations to another stack.
+     */
+    private static final class DefaultBulkStack<T> implements BulkStack<T> {
+        private final Stack<T> stack;
+
+        DefaultBulkStack(Stack<T> stack) {
+            this.stack = stack;
+        }
+
+        @Override
+        public void push(T n) {
+            stack.push(n);
+        }
+
+        @Override
+        public T pop() {
+            return stack.pop();
+        }
+
+        @Override
+        public T peek() {
+            return stack.peek();
+        }
+
+        @Override
+        public int size() {
+            return stack.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return stack.isEmpty();
+        }
+    }
+
+    /**
+     * Returns the number of heap bytes the current thread has allocated so
+     * far, as counted by the JVM.
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
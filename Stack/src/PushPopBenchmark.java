@@ -0,0 +1,79 @@
+package src;
+
+import java.util.EmptyStackException;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+import lib.*;
+
+/**
+ * A push/pop benchmark comparing the synchronized LinkedStack with the
+ * lock-free LockFreeStack at 1 to 64 threads.
+ * Every thread pushes an element and pops one in a tight loop. The reported
+ * figure is the total throughput across all threads in millions of operations
+ * per second.
+ */
+public class PushPopBenchmark {
+
+    private static final int OPS_PER_THREAD = 500_000; // push/pop pairs per thread
+    private static final int WARMUP_ROUNDS = 3; // Untimed rounds to let the JIT settle
+    private static final int[] THREAD_COUNTS = { 1, 2, 4, 8, 16, 32, 64 };
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.printf("%-8s %20s %20s%n", "threads", "Linked (Mops/s)", "LockFree (Mops/s)");
+        for (int threads : THREAD_COUNTS) {
+            double locked = measure(threads, LinkedStack::new);
+            double lockFree = measure(threads, LockFreeStack::new);
+            System.out.printf("%-8d %20.2f %20.2f%n", threads, locked, lockFree);
+        }
+    }
+
+    /**
+     * Runs the warmup rounds followed by one timed round against a fresh stack.
+     *
+     * @return the throughput of the timed round in millions of operations per second.
+     */
+    private static double measure(int threads, Supplier<Stack<Integer>> factory) throws InterruptedException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(threads, factory.get());
+        }
+        long nanos = run(threads, factory.get());
+        return 2.0 * OPS_PER_THREAD * threads / nanos * 1_000;
+    }
+
+    /**
+     * Starts all threads together and waits for them to finish.
+     *
+     * @return the wall-clock time of the round in nanoseconds.
+     */
+    private static long run(int threads, Stack<Integer> stack) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        Integer element = 42; // Shared boxed value so boxing is not measured
+
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        stack.push(element);
+                        try {
+                            stack.pop();
+                        } catch (EmptyStackException e) {
+                            // Another thread took our element first; keep going
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown(); // Release all threads at once
+        done.await();
+        return System.nanoTime() - begin;
+    }
+}
@@ -0,0 +1,97 @@
+package src;
+
+import java.util.EmptyStackException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import lib.*;
+
+/**
+ * A multi-threaded correctness stress test for the Stack implementations.
+ * Every thread pushes its own range of distinct values and pops as many
+ * elements as it pushed. Afterwards the stack must be empty, and every pushed
+ * value must have been popped exactly once: nothing lost, nothing duplicated.
+ */
+public class StressTest {
+
+    private static final int THREADS = 16;
+    private static final int VALUES_PER_THREAD = 200_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        boolean passed = check("LinkedStack", new LinkedStack<Integer>());
+        passed &= check("LockFreeStack", new LockFreeStack<Integer>());
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs the stress test against one stack and prints the outcome.
+     *
+     * @return true if the stack passed.
+     */
+    private static boolean check(String name, Stack<Integer> stack) throws InterruptedException {
+        AtomicIntegerArray popped = new AtomicIntegerArray(THREADS * VALUES_PER_THREAD);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[THREADS];
+
+        for (int t = 0; t < THREADS; t++) {
+            int base = t * VALUES_PER_THREAD; // First value owned by this thread
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int pending = 0; // Pops still owed by this thread
+                for (int i = 0; i < VALUES_PER_THREAD; i++) {
+                    stack.push(base + i);
+                    pending++;
+                    if ((i & 1) == 1) { // Pop after every second push to keep the stack busy
+                        pending -= popInto(stack, popped, 2);
+                    }
+                }
+                while (pending > 0) {
+                    pending -= popInto(stack, popped, pending);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        int missing = 0;
+        int duplicated = 0;
+        for (int i = 0; i < popped.length(); i++) {
+            if (popped.get(i) == 0) {
+                missing++;
+            } else if (popped.get(i) > 1) {
+                duplicated++;
+            }
+        }
+        boolean passed = missing == 0 && duplicated == 0 && stack.isEmpty() && stack.size() == 0;
+        System.out.printf("%-14s %s (missing=%d, duplicated=%d, size=%d)%n",
+                name, passed ? "PASSED" : "FAILED", missing, duplicated, stack.size());
+        return passed;
+    }
+
+    /**
+     * Pops up to n elements, marking each value as seen.
+     *
+     * @return the number of elements popped.
+     */
+    private static int popInto(Stack<Integer> stack, AtomicIntegerArray popped, int n) {
+        int done = 0;
+        for (int i = 0; i < n; i++) {
+            try {
+                popped.incrementAndGet(stack.pop());
+                done++;
+            } catch (EmptyStackException e) {
+                break; // Other threads emptied it for now; retry later
+            }
+        }
+        return done;
+    }
+}
@@ -0,0 +1,105 @@
+package src;
+
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+
+import lib.*;
+
+/**
+ * A load test of BlockingLinkedStack on virtual threads.
+ *
+ * Half of the tasks are consumers that call popBlocking() and half are
+ * producers that push one element each, submitted in alternation, so most
+ * consumers find the stack empty and have to wait. It counts how often each
+ * pushed element is popped and checks that every count is exactly one. It
+ * also counts the jdk.VirtualThreadPinned events JFR records meanwhile, which
+ * should be zero: the stack blocks through a ReentrantLock and a Condition, which unmount a
+ * waiting virtual thread instead of pinning its carrier.
+ *
+ * The project compiles for Java 17, so the virtual thread executor is looked
+ * up reflectively. On a JVM without virtual threads the test runs 2,000
+ * tasks on platform threads instead and reports the pinning count as n/a.
+ *
+ * Usage: java src.VirtualThreadLoadTest [tasks]   (default 1,000,000)
+ */
+public class VirtualThreadLoadTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int PLATFORM_TASKS = 2_000; // Tasks when falling back to platform threads
+
+    public static void main(String[] args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        ExecutorService executor = virtualThreadExecutor();
+        if (executor == null) {
+            tasks = Math.min(tasks, PLATFORM_TASKS);
+            System.out.println("No virtual threads on Java " + Runtime.version().feature() + "; running "
+                    + tasks + " tasks on platform threads instead.");
+            executor = Executors.newCachedThreadPool();
+        }
+        boolean pinningObservable = FlightRecorder.getFlightRecorder().getEventTypes().stream()
+                .anyMatch(type -> type.getName().equals(PINNED_EVENT));
+
+        BlockingLinkedStack<Integer> stack = new BlockingLinkedStack<>();
+        int pairs = tasks / 2;
+        AtomicIntegerArray popped = new AtomicIntegerArray(pairs); // How often each value was popped
+        Path recordingFile = Files.createTempFile("pinning", ".jfr");
+        long nanos;
+        boolean finished;
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withoutThreshold().withStackTrace();
+            recording.start();
+            long start = System.nanoTime();
+            for (int i = 0; i < pairs; i++) {
+                int value = i;
+                executor.execute(() -> {
+                    try {
+                        popped.incrementAndGet(stack.popBlocking());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                executor.execute(() -> stack.push(value));
+            }
+            executor.shutdown();
+            finished = executor.awaitTermination(10, TimeUnit.MINUTES);
+            nanos = System.nanoTime() - start;
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+        long pinned = RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> event.getEventType().getName().equals(PINNED_EVENT)).count();
+        Files.delete(recordingFile);
+
+        boolean ok = finished && stack.isEmpty();
+        for (int i = 0; ok && i < pairs; i++) {
+            ok = popped.get(i) == 1; // Neither lost nor popped twice
+        }
+        System.out.printf("%,d tasks in %.2f s (%,.0f tasks/s)%n", 2 * pairs, nanos / 1e9, 2 * pairs * 1e9 / nanos);
+        System.out.println("pinned waits: " + (pinningObservable ? Long.toString(pinned) : "n/a"));
+        System.out.println("load test " + (ok ? "PASSED" : "FAILED"));
+        if (!ok || pinned > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Returns Executors.newVirtualThreadPerTaskExecutor() if this JVM has
+     * virtual threads, or null if it does not.
+     */
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return null; // Before Java 21, or a preview build without --enable-preview
+        }
+    }
+}